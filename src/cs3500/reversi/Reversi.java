@@ -1,17 +1,21 @@
 package cs3500.reversi;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+
 import cs3500.reversi.adapters.StrategyAdapter;
 import cs3500.reversi.adapters.ViewAdapter;
 import cs3500.reversi.adapters.ViewEventListenerController;
 import cs3500.reversi.controller.IReversiController;
 import cs3500.reversi.controller.ReversiController;
 import cs3500.reversi.model.AIPlayer;
+import cs3500.reversi.model.ConcurrentReversiModel;
 import cs3500.reversi.model.DiscColor;
+import cs3500.reversi.model.GameRecordWriter;
 import cs3500.reversi.model.HumanPlayer;
 import cs3500.reversi.model.IPlayer;
 import cs3500.reversi.model.MutableReversiModel;
 import cs3500.reversi.model.ROReversiModel;
-import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.provider.strategy.AvoidSecondRing;
 import cs3500.reversi.provider.strategy.CaptureMostPieces;
 import cs3500.reversi.provider.strategy.PrioritizeCorners;
@@ -22,6 +26,8 @@ import cs3500.reversi.strategy.MaxCapture;
 import cs3500.reversi.strategy.MinimizeOpponentMaxCapture;
 import cs3500.reversi.strategy.PlayToCorners;
 import cs3500.reversi.strategy.ReversiStrategy;
+import cs3500.reversi.strategy.SearchStrategy;
+import cs3500.reversi.strategy.TranspositionTable;
 import cs3500.reversi.view.IReversiView;
 import cs3500.reversi.view.ReversiView;
 
@@ -29,6 +35,12 @@ import cs3500.reversi.view.ReversiView;
  * Runs the game of Reversi and allows it to be played.
  */
 public final class Reversi {
+  // How many moves ahead the "search" strategy looks when no depth is given.
+  private static final int DEFAULT_SEARCH_DEPTH = 4;
+
+  // How much memory each "search" strategy remembers positions in, in megabytes.
+  private static final int SEARCH_TABLE_MEGABYTES = 16;
+
   /**
    * The main method for the game of Reversi.
    * @param args For the first string argument, it can be one of the following:
@@ -42,6 +54,8 @@ public final class Reversi {
    *             strategy4 - creates an AI player that first tries to minimize the maximum
    *             number of pieces that its opponent could capture on their turn and then follows
    *             strategy3
+   *             search - creates an AI player that searches 4 moves ahead with alpha-beta
+   *             pruning (searchN, such as search6, searches N moves ahead instead)
    *             For the second string argument, it can be one of the following:
    *             providerStrategy1 - creates an AI player that uses our provider's
    *             CaptureMostPieces strategy
@@ -49,14 +63,18 @@ public final class Reversi {
    *             PrioritizeCorners and AvoidSecondRing strategies
    *             providerStrategy3 - creates an AI player that uses our provider's
    *             PrioritizeCorners, AvoidSecondRing, and CaptureMostPieces strategies
+   *             search or searchN - the same as for the first argument
    *             (If less than 2 arguments are given, human players will be created by default)
+   *             The optional third argument is the path of a file to append a record of the
+   *             game to (see GameRecordWriter)
+   * @throws IOException if the record file can't be opened or written to
    */
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
     String input1 = getCommandLineInput(args, 0);
     String input2 = getCommandLineInput(args, 1);
 
-    // Model
-    MutableReversiModel model = ReversiModel.create(4);
+    // Model (the views can read it while the AI players are playing)
+    MutableReversiModel model = ConcurrentReversiModel.create(4);
 
     // View
     IReversiView viewPlayer1 = new ReversiView(model);
@@ -75,6 +93,26 @@ public final class Reversi {
     // Set controller2 as the delegate controller for the decorator listening to the view
     controller2Decorator.setController(controller2);
 
+    // Record (closed when the program exits, so a game abandoned by closing a window is still
+    // written and ended)
+    if (args.length > 2) {
+      FileOutputStream file = new FileOutputStream(args[2], true);
+      GameRecordWriter writer;
+      try {
+        writer = GameRecordWriter.create(model, file, input1, input2);
+      } catch (IOException | RuntimeException e) {
+        file.close();
+        throw e;
+      }
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          writer.close();
+        } catch (IOException e) {
+          System.err.println("Could not write the game record: " + e.getMessage());
+        }
+      }));
+    }
+
     model.startGame();
   }
 
@@ -142,7 +180,7 @@ public final class Reversi {
    * @return the strategy the AI player will use to choose moves
    * @throws IllegalArgumentException if the input is invalid
    */
-  private static AIStrategy getStrategy(String input) throws IllegalArgumentException {
+  private static ReversiStrategy getStrategy(String input) throws IllegalArgumentException {
     switch (input) {
       case "strategy1":
         return new AIStrategy();
@@ -154,7 +192,7 @@ public final class Reversi {
         return new AIStrategy(new MinimizeOpponentMaxCapture(), new PlayToCorners(),
                 new AvoidNextToCorners(), new MaxCapture());
       default:
-        throw new IllegalArgumentException("Invalid input");
+        return getSearchStrategy(input);
     }
   }
 
@@ -170,7 +208,32 @@ public final class Reversi {
                 new TwoStrategy(new PrioritizeCorners(),
                         new TwoStrategy(new AvoidSecondRing(), new CaptureMostPieces())));
       default:
-        throw new IllegalArgumentException("Invalid input");
+        return getSearchStrategy(input);
+    }
+  }
+
+  /**
+   * Creates a SearchStrategy from command line input of the form "search" or "searchN", where
+   * N is how many moves ahead to look.
+   * @param input one of the strings from the command line input
+   * @return the strategy the AI player will use to choose moves
+   * @throws IllegalArgumentException if the input is invalid
+   */
+  private static SearchStrategy getSearchStrategy(String input)
+          throws IllegalArgumentException {
+    if (!input.startsWith("search")) {
+      throw new IllegalArgumentException("Invalid input");
+    }
+    String depth = input.substring("search".length());
+    if (depth.isEmpty()) {
+      return new SearchStrategy(DEFAULT_SEARCH_DEPTH,
+              TranspositionTable.create(SEARCH_TABLE_MEGABYTES));
+    }
+    try {
+      return new SearchStrategy(Integer.parseInt(depth),
+              TranspositionTable.create(SEARCH_TABLE_MEGABYTES));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid input");
     }
   }
 }
\ No newline at end of file
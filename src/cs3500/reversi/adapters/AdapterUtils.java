@@ -20,9 +20,9 @@ public class AdapterUtils {
   protected RowColCoords cubicToRowCol(CubicPosn posn, ROReversiModel delegateModel) {
     RowColCoords centerOriginCoords;
     if (posn.getY() >= 0) {
-      centerOriginCoords = new RowColCoords(posn.getY(), posn.getX());
+      centerOriginCoords = RowColCoords.of(posn.getY(), posn.getX());
     } else {
-      centerOriginCoords = new RowColCoords(posn.getY(), posn.getX() + posn.getY());
+      centerOriginCoords = RowColCoords.of(posn.getY(), posn.getX() + posn.getY());
     }
     return moveOrigin(centerOriginCoords, delegateModel, false);
   }
@@ -36,9 +36,9 @@ public class AdapterUtils {
   protected CubicPosn rowColToCubic(RowColCoords coords, ROReversiModel delegateModel) {
     RowColCoords centerOrigin = moveOrigin(coords, delegateModel, true);
     if (centerOrigin.getRow() >= 0) {
-      return new CubicPosn(centerOrigin.getCol(), centerOrigin.getRow());
+      return CubicPosn.of(centerOrigin.getCol(), centerOrigin.getRow());
     } else {
-      return new CubicPosn(centerOrigin.getCol() - centerOrigin.getRow(), centerOrigin.getRow());
+      return CubicPosn.of(centerOrigin.getCol() - centerOrigin.getRow(), centerOrigin.getRow());
     }
   }
 
@@ -53,7 +53,7 @@ public class AdapterUtils {
   private RowColCoords moveOrigin(RowColCoords coords, ROReversiModel delegateModel,
                                   boolean toCenter) {
     int offset = (delegateModel.getEdgeLength() - 1) * (toCenter ? -1 : 1);
-    return new RowColCoords(coords.getRow() + offset, coords.getCol() + offset);
+    return RowColCoords.of(coords.getRow() + offset, coords.getCol() + offset);
   }
 
   /**
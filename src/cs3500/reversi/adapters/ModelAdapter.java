@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import cs3500.reversi.model.BoardView;
 import cs3500.reversi.model.DiscColor;
 import cs3500.reversi.model.ROReversiModel;
 import cs3500.reversi.model.RowColCoords;
@@ -38,8 +39,7 @@ public class ModelAdapter implements ReadOnlyReversiModel {
   @Override
   public boolean isValidMove(CubicPosn posn, DiskState color) {
     return isCurrentPlayer(color)
-            && delegateModel.validMove(this.utils.cubicToRowCol(posn, delegateModel))
-            .containsKey(true);
+            && delegateModel.countFlips(this.utils.cubicToRowCol(posn, delegateModel)) > 0;
   }
 
   @Override
@@ -68,7 +68,8 @@ public class ModelAdapter implements ReadOnlyReversiModel {
       throw new IllegalStateException("Not active player");
     }
     RowColCoords rowCol = this.utils.cubicToRowCol(posn, this.delegateModel);
-    if (this.delegateModel.getColorAt(rowCol) != DiscColor.NONE) {
+    // Most cells capture nothing, so count first and only build the seams for real moves
+    if (this.delegateModel.countFlips(rowCol) == 0) {
       return new ArrayList<>();
     }
     List<List<RowColCoords>> toCapture = delegateModel.discsToCapture(rowCol);
@@ -86,12 +87,12 @@ public class ModelAdapter implements ReadOnlyReversiModel {
   @Override
   public HashMap<CubicPosn, DiskState> getBoard() {
     HashMap<CubicPosn, DiskState> board = new HashMap<>();
-    List<List<DiscColor>> grid = delegateModel.getGrid();
-    for (int row = 0; row < grid.size(); row++) {
-      for (int col = 0; col < grid.get(row).size(); col++) {
-        RowColCoords coords = new RowColCoords(row, col);
+    BoardView view = delegateModel.getBoardView();
+    for (int row = 0; row < view.rowCount(); row++) {
+      for (int col = 0; col < view.rowLength(row); col++) {
+        RowColCoords coords = RowColCoords.of(row, col);
         board.put(this.utils.rowColToCubic(coords, delegateModel),
-                this.utils.colorToState(delegateModel.getColorAt(coords)));
+                this.utils.colorToState(view.colorAt(row, col)));
       }
     }
     return board;
@@ -0,0 +1,282 @@
+package cs3500.reversi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.reversi.model.BitboardReversiModel;
+import cs3500.reversi.model.Direction;
+import cs3500.reversi.model.DiscColor;
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.MutableReversiModel;
+import cs3500.reversi.model.PositionCodec;
+import cs3500.reversi.model.ROReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.RowColCoords;
+
+/**
+ * Measures how long ReversiModel takes to count the discs every cell of a crowded board would
+ * capture, compared with the recursive scan the model used to do, where each disc in a line was
+ * one more level of recursion and the edge of the board was found by catching the exception
+ * thrown by getColorAt. Each edge length is measured on two positions: one from a random game
+ * played until most of the board is full, where few moves capture more than a handful of discs,
+ * and one where every row is a single empty cell followed by a line of one color ended by a
+ * disc of the other, so the move in each empty cell captures almost the whole row.
+ * Run it with an optional list of edge lengths, for example "java CaptureBenchmark 10 25 50".
+ */
+public final class CaptureBenchmark {
+  // The fraction of the board that is filled before the position is measured.
+  private static final double FILL = 0.85;
+
+  // How many times each scan is repeated before it is timed so the JIT has compiled it.
+  private static final int WARMUP_ROUNDS = 20;
+
+  // How many times each scan is timed (the fastest time is reported).
+  private static final int TIMED_ROUNDS = 10;
+
+  // The least number of cells scanned in each round, so rounds on small boards still take
+  // long enough to time.
+  private static final int CELLS_PER_ROUND = 100_000;
+
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private CaptureBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints one line of results per edge length.
+   * @param args the edge lengths to measure (10, 25, and 50 if none are given)
+   */
+  public static void main(String[] args) {
+    int[] edgeLengths = {10, 25, 50};
+    if (args.length > 0) {
+      edgeLengths = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        edgeLengths[i] = Integer.parseInt(args[i]);
+      }
+    }
+
+    System.out.println("edge  position  empty cells  longest capture  recursive (ns/cell)"
+            + "  iterative (ns/cell)  speedup");
+    for (int edgeLength : edgeLengths) {
+      measure(edgeLength, "random",
+              ReversiModel.createCopy(crowdedPosition(edgeLength, new Random(3500))));
+      measure(edgeLength, "lines", linesPosition(edgeLength));
+    }
+  }
+
+  /**
+   * Times both scans over every empty cell of a position and prints one line of results.
+   * @param edgeLength the number of cells per edge of the grid
+   * @param name the name of the kind of position, printed in the results
+   * @param model the position to measure
+   * @throws IllegalStateException if the scans don't count the same captures
+   */
+  private static void measure(int edgeLength, String name, ROReversiModel model) {
+    LegacyCaptureScanner legacy = new LegacyCaptureScanner(model);
+    List<RowColCoords> cells = emptyCells(model);
+    int repeats = Math.max(1, CELLS_PER_ROUND / Math.max(1, cells.size()));
+
+    long expected = 0;
+    long actual = 0;
+    long legacyTime = Long.MAX_VALUE;
+    long currentTime = Long.MAX_VALUE;
+    for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < repeats; i++) {
+        expected = scanLegacy(legacy, cells);
+      }
+      long middle = System.nanoTime();
+      for (int i = 0; i < repeats; i++) {
+        actual = scanCurrent(model, cells);
+      }
+      long end = System.nanoTime();
+      if (round >= WARMUP_ROUNDS) {
+        legacyTime = Math.min(legacyTime, middle - start);
+        currentTime = Math.min(currentTime, end - middle);
+      }
+    }
+    if (expected != actual) {
+      throw new IllegalStateException("The scans disagree: " + expected + " vs " + actual);
+    }
+
+    long scans = (long) cells.size() * 2 * repeats;
+    System.out.printf("%4d  %8s  %11d  %15d  %19.1f  %19.1f  %6.1fx%n",
+            edgeLength, name, cells.size(), longestLine(model, cells),
+            (double) legacyTime / scans, (double) currentTime / scans,
+            (double) legacyTime / currentTime);
+  }
+
+  /**
+   * Builds a position where every row is an empty cell followed by discs of one color and
+   * ended by a disc of the other color, alternating colors from row to row, so that the player
+   * whose disc ends a row captures all the others by moving into its empty cell.
+   * @param edgeLength the number of cells per edge of the grid
+   * @return the position, with black to move
+   */
+  private static ROReversiModel linesPosition(int edgeLength) {
+    HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+    StringBuilder notation = new StringBuilder().append(edgeLength).append(' ');
+    for (int row = 0; row < geometry.rowCount(); row++) {
+      char line = row % 2 == 0 ? 'O' : 'X';
+      char end = row % 2 == 0 ? 'X' : 'O';
+      if (row > 0) {
+        notation.append('/');
+      }
+      notation.append(1);
+      for (int col = 2; col < geometry.rowLength(row); col++) {
+        notation.append(line);
+      }
+      notation.append(end);
+    }
+    return PositionCodec.fromNotation(notation.append(" X0").toString());
+  }
+
+  /**
+   * Plays random moves on a new board until it is mostly full or the player to move has no
+   * moves (random games often strand a few empty cells that neither player can reach).
+   * @param edgeLength the number of cells per edge of the grid
+   * @param rand the source of the random moves
+   * @return the model after the moves are played
+   */
+  private static MutableReversiModel crowdedPosition(int edgeLength, Random rand) {
+    MutableReversiModel model = BitboardReversiModel.create(edgeLength);
+    model.startGame();
+    HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+    int[] moves = new int[geometry.cellCount()];
+    int[] flips = new int[geometry.cellCount()];
+    int count = model.legalMoves(moves, flips);
+    while (count > 0 && model.getDiscCount(DiscColor.NONE) > geometry.cellCount() * (1 - FILL)) {
+      model.placeDiscInCell(geometry.coords(moves[rand.nextInt(count)]));
+      count = model.legalMoves(moves, flips);
+    }
+    return model;
+  }
+
+  /**
+   * Lists the empty cells of a position, which are the only cells where either scan has to
+   * walk any lines.
+   */
+  private static List<RowColCoords> emptyCells(ROReversiModel model) {
+    HexGeometry geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
+    List<RowColCoords> cells = new ArrayList<>();
+    for (int cell = 0; cell < geometry.cellCount(); cell++) {
+      RowColCoords coords = geometry.coords(cell);
+      if (model.getColorAt(coords) == DiscColor.NONE) {
+        cells.add(coords);
+      }
+    }
+    return cells;
+  }
+
+  private static long scanLegacy(LegacyCaptureScanner legacy, List<RowColCoords> cells) {
+    long total = 0;
+    for (RowColCoords cell : cells) {
+      total += legacy.countFlips(cell, DiscColor.BLACK);
+      total += legacy.countFlips(cell, DiscColor.WHITE);
+    }
+    return total;
+  }
+
+  private static long scanCurrent(ROReversiModel model, List<RowColCoords> cells) {
+    long total = 0;
+    for (RowColCoords cell : cells) {
+      total += model.countFlips(cell, DiscColor.BLACK);
+      total += model.countFlips(cell, DiscColor.WHITE);
+    }
+    return total;
+  }
+
+  /**
+   * Finds the most discs any single move in the position captures.
+   */
+  private static int longestLine(ROReversiModel model, List<RowColCoords> cells) {
+    int longest = 0;
+    for (RowColCoords cell : cells) {
+      longest = Math.max(longest, model.countFlips(cell, DiscColor.BLACK));
+      longest = Math.max(longest, model.countFlips(cell, DiscColor.WHITE));
+    }
+    return longest;
+  }
+
+  /**
+   * The capture scan ReversiModel used before it walked the precomputed lines of HexGeometry,
+   * rebuilt on top of the public model interface so it can still be measured.
+   */
+  private static final class LegacyCaptureScanner {
+    private final ROReversiModel model;
+    private final int edgeLength;
+
+    LegacyCaptureScanner(ROReversiModel model) {
+      this.model = model;
+      this.edgeLength = model.getEdgeLength();
+    }
+
+    /**
+     * Counts the discs a move would capture by recursing down each line.
+     */
+    int countFlips(RowColCoords coords, DiscColor player) {
+      if (this.model.getColorAt(coords) != DiscColor.NONE) {
+        return 0;
+      }
+      int flips = 0;
+      for (Direction dir : Direction.values()) {
+        RowColCoords adjacent = nextInLine(coords, dir);
+        DiscColor color;
+        try {
+          color = this.model.getColorAt(adjacent);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+          continue;
+        }
+        if (color == DiscColor.oppositeColor(player)) {
+          flips += captureInLine(adjacent, adjacent, dir, player, new ArrayList<>()).size();
+        }
+      }
+      return flips;
+    }
+
+    private List<RowColCoords> captureInLine(RowColCoords adjacent, RowColCoords current,
+                                             Direction dir, DiscColor player,
+                                             List<RowColCoords> tempDiscs) {
+      RowColCoords next = nextInLine(current, dir);
+      DiscColor nextColor;
+      try {
+        nextColor = this.model.getColorAt(next);
+      } catch (IllegalArgumentException e) {
+        return new ArrayList<>();
+      }
+      if (nextColor == DiscColor.NONE) {
+        return new ArrayList<>();
+      } else if (nextColor == player) {
+        tempDiscs.add(adjacent);
+        return tempDiscs;
+      } else {
+        tempDiscs.add(next);
+        return captureInLine(adjacent, next, dir, player, tempDiscs);
+      }
+    }
+
+    private RowColCoords nextInLine(RowColCoords cell, Direction dir) {
+      int row = cell.getRow();
+      int col = cell.getCol();
+      int middle = this.edgeLength - 1;
+      switch (dir) {
+        case topLeft:
+          return new RowColCoords(row - 1, row > middle ? col : col - 1);
+        case topRight:
+          return new RowColCoords(row - 1, row > middle ? col + 1 : col);
+        case centerLeft:
+          return new RowColCoords(row, col - 1);
+        case centerRight:
+          return new RowColCoords(row, col + 1);
+        case bottomLeft:
+          return new RowColCoords(row + 1, row >= middle ? col - 1 : col);
+        case bottomRight:
+          return new RowColCoords(row + 1, row >= middle ? col : col + 1);
+        default:
+          throw new IllegalStateException("No 7th direction");
+      }
+    }
+  }
+}
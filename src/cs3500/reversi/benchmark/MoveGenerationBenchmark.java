@@ -0,0 +1,55 @@
+package cs3500.reversi.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.reversi.model.BoardSnapshot;
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.ParallelMoveGenerator;
+
+/**
+ * Measures how long it takes to find every legal move of a crowded position on one thread
+ * compared with splitting the rows across the common fork-join pool, then runs
+ * ParallelMoveGenerator.calibrate to show the threshold it would choose on this machine.
+ * Run it with an optional list of edge lengths, for example "java MoveGenerationBenchmark 30 60".
+ */
+public final class MoveGenerationBenchmark {
+  // How many times each generator is timed on each board (the fastest time is reported).
+  private static final int ROUNDS = 200;
+
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private MoveGenerationBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints one line of results per edge length.
+   * @param args the edge lengths to measure (10, 20, 30, 60, and 100 if none are given)
+   */
+  public static void main(String[] args) {
+    int[] edgeLengths = {10, 20, 30, 60, 100};
+    if (args.length > 0) {
+      edgeLengths = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        edgeLengths[i] = Integer.parseInt(args[i]);
+      }
+    }
+
+    System.out.println("threads: " + ForkJoinPool.getCommonPoolParallelism());
+    System.out.println("edge   cells  sequential (us)  parallel (us)  speedup");
+    for (int edgeLength : edgeLengths) {
+      BoardSnapshot position = ParallelMoveGenerator.crowdedPosition(edgeLength, new Random(3500));
+      // The first round warms up the JIT
+      ParallelMoveGenerator.time(position, ROUNDS);
+      long[] times = ParallelMoveGenerator.time(position, ROUNDS);
+      System.out.printf("%4d  %6d  %15.1f  %13.1f  %6.2fx%n", edgeLength,
+              HexGeometry.forEdgeLength(edgeLength).cellCount(),
+              times[0] / 1e3, times[1] / 1e3, (double) times[0] / times[1]);
+    }
+
+    int threshold = ParallelMoveGenerator.calibrate();
+    System.out.println("calibrated threshold: "
+            + (threshold == Integer.MAX_VALUE ? "never parallel" : threshold + " cells"));
+  }
+}
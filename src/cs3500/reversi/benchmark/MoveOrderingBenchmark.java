@@ -0,0 +1,118 @@
+package cs3500.reversi.benchmark;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.reversi.model.BitboardReversiModel;
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.HumanPlayer;
+import cs3500.reversi.model.MutableReversiModel;
+import cs3500.reversi.model.ROReversiModel;
+import cs3500.reversi.strategy.SearchStrategy;
+import cs3500.reversi.strategy.TranspositionTable;
+
+/**
+ * Measures how many positions SearchStrategy visits to choose a move on a fixed suite of
+ * positions, with and without sorting moves (see MoveOrderer) and a TranspositionTable, to show
+ * how much of the tree each one lets alpha-beta pruning skip. Every search starts with an empty
+ * table. Run it with an optional depth, for example "java MoveOrderingBenchmark 6".
+ */
+public final class MoveOrderingBenchmark {
+  // The edge lengths of the positions in the suite.
+  private static final int[] EDGE_LENGTHS = {4, 5, 6};
+
+  // How many positions of each edge length are in the suite.
+  private static final int POSITIONS_PER_EDGE_LENGTH = 8;
+
+  // The size of the table each search starts with, in megabytes.
+  private static final int TABLE_MEGABYTES = 4;
+
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private MoveOrderingBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints one line of results for each way of searching.
+   * @param args the depth to search to (5 if none is given)
+   */
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    List<ROReversiModel> positions = positionSuite();
+    System.out.println(positions.size() + " positions, depth " + depth);
+    System.out.println("search            nodes/move   vs unordered   time (ms)");
+    long unordered = 0;
+    for (int config = 0; config < 4; config++) {
+      boolean ordered = (config & 1) != 0;
+      boolean table = (config & 2) != 0;
+      long start = System.nanoTime();
+      long nodes = countNodes(positions, depth, ordered, table);
+      long elapsed = System.nanoTime() - start;
+      if (config == 0) {
+        unordered = nodes;
+      }
+      System.out.printf("%-16s  %10d  %12.1f%%  %10.1f%n",
+              (table ? "table" : "no table") + (ordered ? ", ordered" : ""),
+              nodes / positions.size(), 100.0 * nodes / unordered, elapsed / 1e6);
+    }
+  }
+
+  /**
+   * Creates the positions the benchmark searches: games of several sizes played a few random
+   * moves in, always the same ones.
+   * @return positions where the player to move has a legal move
+   */
+  public static List<ROReversiModel> positionSuite() {
+    List<ROReversiModel> positions = new ArrayList<>();
+    Random random = new Random(3500);
+    for (int edgeLength : EDGE_LENGTHS) {
+      HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+      int found = 0;
+      while (found < POSITIONS_PER_EDGE_LENGTH) {
+        MutableReversiModel model = BitboardReversiModel.create(edgeLength);
+        model.startGame();
+        int moves = 4 + random.nextInt(2 * edgeLength);
+        for (int i = 0; i < moves && !model.isGameOver(); i++) {
+          BitSet legal = model.legalMoves();
+          if (legal.isEmpty()) {
+            model.pass();
+          } else {
+            int cell = legal.nextSetBit(0);
+            for (int skip = random.nextInt(legal.cardinality()); skip > 0; skip--) {
+              cell = legal.nextSetBit(cell + 1);
+            }
+            model.placeDiscInCell(geometry.coords(cell));
+          }
+        }
+        if (!model.isGameOver() && model.anyLegalMoves()) {
+          positions.add(model);
+          found++;
+        }
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Searches every position of a suite once.
+   * @param positions the positions to search
+   * @param depth how many moves ahead to look
+   * @param ordered whether to sort moves
+   * @param table whether to remember positions in a table
+   * @return the total number of positions visited
+   */
+  public static long countNodes(List<ROReversiModel> positions, int depth, boolean ordered,
+                                boolean table) {
+    long nodes = 0;
+    for (ROReversiModel position : positions) {
+      SearchStrategy search = new SearchStrategy(depth,
+              table ? TranspositionTable.create(TABLE_MEGABYTES) : null, ordered);
+      search.chooseCell(position, HumanPlayer.create(position.getActivePlayerColor(), position));
+      nodes += search.getNodesSearched();
+    }
+    return nodes;
+  }
+}
@@ -0,0 +1,90 @@
+package cs3500.reversi.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+
+import cs3500.reversi.model.HumanPlayer;
+import cs3500.reversi.model.ROReversiModel;
+import cs3500.reversi.strategy.SearchStrategy;
+import cs3500.reversi.strategy.TranspositionTable;
+
+/**
+ * Measures how long SearchStrategy takes to finish searching every position of
+ * MoveOrderingBenchmark's suite to a fixed depth on different numbers of threads (time to
+ * depth), and how many positions per second the threads visit together. Every search starts
+ * with an empty table. Run it with an optional depth and list of thread counts, for example
+ * "java ParallelSearchBenchmark 7 1 2 4 8".
+ */
+public final class ParallelSearchBenchmark {
+  // The size of the table each search starts with, in megabytes.
+  private static final int TABLE_MEGABYTES = 16;
+
+  // A time limit long enough that every search reaches its depth.
+  private static final Duration NO_LIMIT = Duration.ofHours(1);
+
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private ParallelSearchBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints one line of results per number of threads.
+   * @param args the depth to search to (6 if none is given), then the numbers of threads to
+   *             measure (1, 2, 4, and 8 if none are given)
+   */
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+    int[] threadCounts = {1, 2, 4, 8};
+    if (args.length > 1) {
+      threadCounts = new int[args.length - 1];
+      for (int i = 1; i < args.length; i++) {
+        threadCounts[i - 1] = Integer.parseInt(args[i]);
+      }
+    }
+    List<ROReversiModel> positions = MoveOrderingBenchmark.positionSuite();
+
+    System.out.println("processors: " + Runtime.getRuntime().availableProcessors());
+    System.out.println(positions.size() + " positions, depth " + depth);
+    System.out.println("threads  time to depth (ms)  speedup  nodes/s (k)  nodes/s scaling");
+    // The first run warms up the JIT
+    search(positions, depth, threadCounts[0]);
+    double baseTime = 0;
+    double baseRate = 0;
+    for (int threads : threadCounts) {
+      long[] result = search(positions, depth, threads);
+      double time = result[1];
+      double rate = result[0] / (time / 1e9);
+      if (baseTime == 0) {
+        baseTime = time;
+        baseRate = rate;
+      }
+      System.out.printf("%7d  %18.1f  %6.2fx  %11.1f  %14.2fx%n", threads, time / 1e6,
+              baseTime / time, rate / 1e3, rate / baseRate);
+    }
+  }
+
+  /**
+   * Searches every position of a suite to a depth, timing only the searches themselves and not
+   * the creation of their tables.
+   * @param positions the positions to search
+   * @param depth how many moves ahead to look
+   * @param threads how many threads to search each position on
+   * @return the total number of positions visited by every thread, and the total time taken in
+   *         nanoseconds
+   */
+  private static long[] search(List<ROReversiModel> positions, int depth, int threads) {
+    long nodes = 0;
+    long time = 0;
+    for (ROReversiModel position : positions) {
+      SearchStrategy search = new SearchStrategy(depth,
+              TranspositionTable.create(TABLE_MEGABYTES));
+      long start = System.nanoTime();
+      search.chooseCell(position, HumanPlayer.create(position.getActivePlayerColor(), position),
+              NO_LIMIT, threads);
+      time += System.nanoTime() - start;
+      nodes += search.getNodesSearched();
+    }
+    return new long[] {nodes, time};
+  }
+}
@@ -1,5 +1,6 @@
 package cs3500.reversi.model;
 
+import java.time.Duration;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
@@ -13,20 +14,29 @@ public class AIPlayer implements IPlayer {
   private final ROReversiModel model;
   private final DiscColor color;
   private final ReversiStrategy strategy;
+  // How long the strategy may take to choose each move, or null for as long as it needs.
+  private final Duration timeLimit;
+  // How many threads the strategy may use to choose each move.
+  private final int threads;
 
   /**
    * Constructs an AIPlayer.
    * @param color the color of the player
    * @param model the model of the game the player is playing
    * @param strategy the strategy this player is using to choose moves
+   * @param timeLimit how long the strategy may take to choose each move, or null for no limit
+   * @param threads how many threads the strategy may use to choose each move
    */
-  private AIPlayer(DiscColor color, ROReversiModel model, ReversiStrategy strategy) {
+  private AIPlayer(DiscColor color, ROReversiModel model, ReversiStrategy strategy,
+                   Duration timeLimit, int threads) {
     Objects.requireNonNull(model);
     Objects.requireNonNull(color);
     Objects.requireNonNull(strategy);
     this.model = model;
     this.color = color;
     this.strategy = strategy;
+    this.timeLimit = timeLimit;
+    this.threads = threads;
   }
 
   /**
@@ -37,14 +47,58 @@ public class AIPlayer implements IPlayer {
    * @return a new AIPlayer
    */
   public static AIPlayer create(DiscColor color, ROReversiModel model, ReversiStrategy strategy) {
-    return new AIPlayer(color, model, strategy);
+    return new AIPlayer(color, model, strategy, null, 1);
+  }
+
+  /**
+   * Creates an AIPlayer object whose strategy has a time limit for each move. Strategies that
+   * can't stop early, such as AIStrategy, ignore the limit.
+   * @param color the color of the player
+   * @param model the model of the game the player is playing
+   * @param strategy the strategy this player is using to choose moves
+   * @param timeLimit how long the strategy may take to choose each move
+   * @return a new AIPlayer
+   * @throws IllegalArgumentException if the time limit isn't positive
+   */
+  public static AIPlayer create(DiscColor color, ROReversiModel model, ReversiStrategy strategy,
+                                Duration timeLimit) throws IllegalArgumentException {
+    return create(color, model, strategy, timeLimit, 1);
+  }
+
+  /**
+   * Creates an AIPlayer object whose strategy has a time limit for each move and may search on
+   * several threads at once. Strategies that can't, such as AIStrategy, use only one thread.
+   * @param color the color of the player
+   * @param model the model of the game the player is playing
+   * @param strategy the strategy this player is using to choose moves
+   * @param timeLimit how long the strategy may take to choose each move
+   * @param threads how many threads the strategy may use to choose each move
+   * @return a new AIPlayer
+   * @throws IllegalArgumentException if the time limit isn't positive or threads is less than 1
+   */
+  public static AIPlayer create(DiscColor color, ROReversiModel model, ReversiStrategy strategy,
+                                Duration timeLimit, int threads) throws IllegalArgumentException {
+    Objects.requireNonNull(timeLimit);
+    if (timeLimit.isNegative() || timeLimit.isZero()) {
+      throw new IllegalArgumentException("Time limit must be positive");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("There must be at least 1 thread");
+    }
+    return new AIPlayer(color, model, strategy, timeLimit, threads);
   }
 
   @Override
   public void chooseMove(PlayerActions actions) {
     RowColCoords cell;
     try {
-      cell = this.strategy.chooseCell(model, this);
+      if (this.timeLimit == null) {
+        cell = this.strategy.chooseCell(model, this);
+      } else if (this.threads == 1) {
+        cell = this.strategy.chooseCell(model, this, this.timeLimit);
+      } else {
+        cell = this.strategy.chooseCell(model, this, this.timeLimit, this.threads);
+      }
     // We have to add the NoSuchElementException catch due to a bug in our provider's
     // AvoidSecondRing strategy
     } catch (IllegalStateException | NoSuchElementException e) {
@@ -0,0 +1,883 @@
+package cs3500.reversi.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import cs3500.reversi.controller.ModelCallbackListener;
+
+/**
+ * Represents the model for a 2-player game of Reversi with a regular hexagonal grid
+ * of variable size, where the board is stored as one bitset of black discs and one
+ * bitset of white discs.
+ */
+public class BitboardReversiModel implements MutableReversiModel {
+  // How many cells are in each edge of the hexagonal grid.
+  private final int edgeLength;
+
+  // The shared layout of every grid with this edge length.
+  private final HexGeometry geometry;
+
+  // The number of rows in the grid (also the length of the longest row).
+  private final int rowCount;
+
+  // The number of bits used for each row of the grid.
+  // Cells are numbered in row-major order, but each row is shifted right so that it lines up
+  // with the rows above and below it and then padded out to the same width. With that layout
+  // each of the six directions around a cell is the same fixed bit offset from every cell, and
+  // the padding bit at the end of each row keeps moves along a row from wrapping to the next.
+  // Bits that aren't cells are never set in either bitset.
+  private final int stride;
+
+  // The total number of bits (cells plus padding) in each bitset.
+  private final int bitCount;
+
+  // The bit offset to the adjacent cell in each of the six directions
+  // (top left, top right, center left, center right, bottom left, bottom right).
+  private final int[] shifts;
+
+  // The bits that correspond to actual cells of the grid.
+  private final long[] validCells;
+
+  // The discs on the grid. A cell is empty if its bit isn't set in either bitset.
+  // Class Invariant: no bit is set in both black and white.
+  private final long[] black;
+  private final long[] white;
+
+  // The number of cells holding each color, indexed by DiscColor ordinal (NONE counts the
+  // empty cells), kept up to date whenever discs are placed or flipped.
+  private final int[] discCounts;
+
+  // The XOR of the Zobrist keys of every disc on the grid, kept up to date whenever discs are
+  // placed or flipped. The key of the game state and pass counter is added when the hash is
+  // asked for.
+  private long discHash;
+
+  // Scratch bitsets used while generating moves so no arrays are allocated per query.
+  private final long[] scratchFill;
+  private final long[] scratchShift;
+  private final long[] scratchEmpty;
+  private final long[] scratchLegal;
+
+  // A read only view of the board that reads the bitsets directly, and the lists of rows
+  // (handed out by getGrid) built on it.
+  private final BoardView boardView;
+  private final List<List<DiscColor>> gridView;
+
+  // The state of the game (one of UNSTARTED, BLACKMOVE, WHITEMOVE, or GAMEOVER).
+  private GameState gameState;
+
+  // A counter that increases by one each time a player passes and resets each time
+  // a player places a disc.
+  // Class Invariant: passCounter is never less than 0.
+  private int passCounter;
+
+  // The object that broadcasts to its listeners when the model is mutated.
+  private final ModelCallback broadcaster;
+
+  // The records of the moves made with makeMove or makePass that can still be taken back,
+  // most recent first.
+  private final Deque<UndoRecord> undoStack;
+
+  /**
+   * Constructs a BitboardReversiModel with an empty grid.
+   * @param edgeLength the number of cells per edge of the grid
+   * @throws IllegalArgumentException if edgeLength is less than 2
+   */
+  private BitboardReversiModel(int edgeLength) throws IllegalArgumentException {
+    if (edgeLength < 2) {
+      throw new IllegalArgumentException("Invalid edge length");
+    }
+    this.edgeLength = edgeLength;
+    this.geometry = HexGeometry.forEdgeLength(edgeLength);
+    this.rowCount = this.geometry.rowCount();
+    this.stride = this.rowCount + 1;
+    this.bitCount = this.rowCount * this.stride;
+    this.shifts = new int[] {
+        -this.stride, -this.stride + 1, -1, 1, this.stride - 1, this.stride};
+
+    int words = (this.bitCount + 63) >>> 6;
+    this.validCells = new long[words];
+    this.black = new long[words];
+    this.white = new long[words];
+    this.scratchFill = new long[words];
+    this.scratchShift = new long[words];
+    this.scratchEmpty = new long[words];
+    this.scratchLegal = new long[words];
+    this.discCounts = new int[DiscColor.values().length];
+    this.discCounts[DiscColor.NONE.ordinal()] = this.geometry.cellCount();
+    for (int row = 0; row < this.rowCount; row++) {
+      for (int col = 0; col < this.geometry.rowLength(row); col++) {
+        setBit(this.validCells, toBit(row, col));
+      }
+    }
+
+    this.boardView = new BitsView();
+    this.gridView = BoardViewLists.grid(this.boardView);
+    this.gameState = GameState.UNSTARTED;
+    this.passCounter = 0;
+    this.broadcaster = new ModelMutatedBroadcaster();
+    this.undoStack = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates a BitboardReversiModel with a variable edge length.
+   * @param edgeLength the number of cells per edge of the grid
+   * @return a new BitboardReversiModel with the specified edge length
+   * @throws IllegalArgumentException if edgeLength is less than 2
+   */
+  public static BitboardReversiModel create(int edgeLength) throws IllegalArgumentException {
+    BitboardReversiModel model = new BitboardReversiModel(edgeLength);
+    model.placeStartingPieces();
+    return model;
+  }
+
+  /**
+   * Creates a copy of a Reversi game.
+   * @param model a ROReversiModel to be copied
+   * @return a new BitboardReversiModel with all the fields of the given model
+   */
+  public static BitboardReversiModel createCopy(ROReversiModel model) {
+    BitboardReversiModel copy = new BitboardReversiModel(model.getEdgeLength());
+    if (model instanceof BitboardReversiModel) {
+      // Another bitboard's discs are copied a word at a time
+      BitboardReversiModel other = (BitboardReversiModel) model;
+      System.arraycopy(other.black, 0, copy.black, 0, copy.black.length);
+      System.arraycopy(other.white, 0, copy.white, 0, copy.white.length);
+      System.arraycopy(other.discCounts, 0, copy.discCounts, 0, copy.discCounts.length);
+      copy.discHash = other.discHash;
+    } else {
+      BoardView view = model.getBoardView();
+      for (int row = 0; row < view.rowCount(); row++) {
+        for (int col = 0; col < view.rowLength(row); col++) {
+          DiscColor color = view.colorAt(row, col);
+          if (color != DiscColor.NONE) {
+            copy.placeDisc(copy.toBit(row, col), color);
+          }
+        }
+      }
+    }
+    copy.gameState = model.getGameState();
+    copy.passCounter = model.getPassCounter();
+    return copy;
+  }
+
+  @Override
+  public void setBroadcastListener(ModelCallbackListener controller) {
+    this.broadcaster.addListener(controller);
+  }
+
+  @Override
+  public void removeBroadcastListener(ModelCallbackListener controller) {
+    this.broadcaster.removeListener(controller);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof BitboardReversiModel)) {
+      return false;
+    }
+    BitboardReversiModel that = (BitboardReversiModel) other;
+    return this.edgeLength == that.edgeLength
+            && Arrays.equals(this.black, that.black)
+            && Arrays.equals(this.white, that.white)
+            && this.gameState == that.gameState
+            && this.passCounter == that.passCounter;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(getPositionHash());
+  }
+
+  /**
+   * Places the starting pieces onto the grid.
+   */
+  private void placeStartingPieces() {
+    int center = this.edgeLength - 1;
+    placeDisc(toBit(center - 1, center - 1), DiscColor.BLACK);
+    placeDisc(toBit(center - 1, center), DiscColor.WHITE);
+    placeDisc(toBit(center, center - 1), DiscColor.WHITE);
+    placeDisc(toBit(center, center + 1), DiscColor.BLACK);
+    placeDisc(toBit(center + 1, center - 1), DiscColor.BLACK);
+    placeDisc(toBit(center + 1, center), DiscColor.WHITE);
+  }
+
+  @Override
+  public void startGame() throws IllegalStateException {
+    throwIfGameStarted();
+    nextPlayerTurn();
+  }
+
+  @Override
+  public void pass() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    this.undoStack.clear();
+    this.passCounter++;
+    if (isGameOver()) {
+      this.broadcaster.gameOver();
+    } else {
+      nextPlayerTurn();
+    }
+  }
+
+  @Override
+  public void placeDiscInCell(RowColCoords cell) throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    throwIfInvalidCoords(cell);
+    int bit = toBit(cell.getRow(), cell.getCol());
+    long[] own = activeDiscs();
+    long[] opp = opponentDiscs();
+    int captured = testBit(own, bit) || testBit(opp, bit) ? 0 : flipsAt(bit, own, opp);
+    if (captured == 0) {
+      throw new IllegalStateException("Invalid move");
+    }
+    this.undoStack.clear();
+
+    // Collect every captured disc into one mask and then flip them all at once
+    long[] flips = this.scratchFill;
+    Arrays.fill(flips, 0L);
+    for (int shift : this.shifts) {
+      int end = endOfCapture(bit, shift, own, opp);
+      if (end != -1) {
+        for (int i = bit + shift; i != end; i += shift) {
+          setBit(flips, i);
+          this.discHash ^= ZobristKeys.flipKey(this.edgeLength, toCell(i));
+        }
+      }
+    }
+    for (int word = 0; word < flips.length; word++) {
+      own[word] |= flips[word];
+      opp[word] &= ~flips[word];
+    }
+    setBit(own, bit);
+    this.discHash ^= ZobristKeys.discKey(this.edgeLength, toCell(bit), getActivePlayerColor());
+    updateCounts(getActivePlayerColor(), captured, 1);
+
+    this.passCounter = 0;
+    nextPlayerTurn();
+  }
+
+  @Override
+  public UndoRecord makeMove(RowColCoords cell)
+          throws IllegalArgumentException, IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    throwIfInvalidCoords(cell);
+    int bit = toBit(cell.getRow(), cell.getCol());
+    long[] own = activeDiscs();
+    long[] opp = opponentDiscs();
+    int captured = testBit(own, bit) || testBit(opp, bit) ? 0 : flipsAt(bit, own, opp);
+    if (captured == 0) {
+      throw new IllegalStateException("Invalid move");
+    }
+
+    // The lines captured in each direction never share a cell, so each line can be flipped
+    // as soon as it is found
+    int[] flipped = new int[captured];
+    int count = 0;
+    for (int shift : this.shifts) {
+      int end = endOfCapture(bit, shift, own, opp);
+      if (end != -1) {
+        for (int i = bit + shift; i != end; i += shift) {
+          flipped[count] = toCell(i);
+          setBit(own, i);
+          clearBit(opp, i);
+          this.discHash ^= ZobristKeys.flipKey(this.edgeLength, flipped[count]);
+          count++;
+        }
+      }
+    }
+    setBit(own, bit);
+    this.discHash ^= ZobristKeys.discKey(this.edgeLength, toCell(bit), getActivePlayerColor());
+    UndoRecord record = new UndoRecord(toCell(bit), flipped, this.gameState, this.passCounter);
+    updateCounts(getActivePlayerColor(), captured, 1);
+
+    this.passCounter = 0;
+    switchGameState();
+    this.undoStack.push(record);
+    return record;
+  }
+
+  @Override
+  public UndoRecord makePass() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    UndoRecord record = new UndoRecord(-1, new int[0], this.gameState, this.passCounter);
+    this.passCounter++;
+    if (!isGameOver()) {
+      switchGameState();
+    }
+    this.undoStack.push(record);
+    return record;
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) throws IllegalArgumentException {
+    if (this.undoStack.peek() != record) {
+      throw new IllegalArgumentException("Only the most recent move can be taken back");
+    }
+    this.undoStack.pop();
+    if (!record.isPass()) {
+      DiscColor player = record.getPlayer();
+      long[] own = player == DiscColor.BLACK ? this.black : this.white;
+      long[] opp = player == DiscColor.BLACK ? this.white : this.black;
+      for (int i = 0; i < record.getFlipCount(); i++) {
+        int bit = cellToBit(record.getFlipped(i));
+        clearBit(own, bit);
+        setBit(opp, bit);
+        this.discHash ^= ZobristKeys.flipKey(this.edgeLength, record.getFlipped(i));
+      }
+      clearBit(own, cellToBit(record.getMove()));
+      this.discHash ^= ZobristKeys.discKey(this.edgeLength, record.getMove(), player);
+      updateCounts(player, -record.getFlipCount(), -1);
+    }
+    this.gameState = record.getPreviousState();
+    this.passCounter = record.getPreviousPassCounter();
+  }
+
+  @Override
+  public boolean anyLegalMoves() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    long[] legal = legalMoveBits();
+    for (long word : legal) {
+      if (word != 0L) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public BitSet legalMoves() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    long[] legal = legalMoveBits();
+    BitSet moves = new BitSet(this.geometry.cellCount());
+    for (int word = 0; word < legal.length; word++) {
+      long bits = legal[word];
+      while (bits != 0L) {
+        moves.set(toCell((word << 6) + Long.numberOfTrailingZeros(bits)));
+        bits &= bits - 1;
+      }
+    }
+    return moves;
+  }
+
+  @Override
+  public void forEachLegalMove(IntIntConsumer action) throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    long[] own = activeDiscs();
+    long[] opp = opponentDiscs();
+    long[] legal = legalMoveBits();
+    for (int word = 0; word < legal.length; word++) {
+      long bits = legal[word];
+      while (bits != 0L) {
+        int bit = (word << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        action.accept(toCell(bit), flipsAt(bit, own, opp));
+      }
+    }
+  }
+
+  @Override
+  public int legalMoves(int[] cells, int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    long[] own = activeDiscs();
+    long[] opp = opponentDiscs();
+    long[] legal = legalMoveBits();
+    int count = 0;
+    for (int word = 0; word < legal.length; word++) {
+      long bits = legal[word];
+      while (bits != 0L) {
+        int bit = (word << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        cells[count] = toCell(bit);
+        flipCounts[count] = flipsAt(bit, own, opp);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public Map<Boolean, Integer> validMove(RowColCoords coords)
+          throws IllegalArgumentException, IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    throwIfInvalidCoords(coords);
+
+    int bit = toBit(coords.getRow(), coords.getCol());
+    long[] own = activeDiscs();
+    long[] opp = opponentDiscs();
+    if (testBit(own, bit) || testBit(opp, bit)) {
+      return Collections.singletonMap(false, 0);
+    }
+    int flips = flipsAt(bit, own, opp);
+    return Collections.singletonMap(flips != 0, flips);
+  }
+
+  @Override
+  public int countFlips(RowColCoords coords, DiscColor color) throws IllegalArgumentException {
+    throwIfInvalidCoords(coords);
+    throwIfInvalidPlayer(color);
+    int bit = toBit(coords.getRow(), coords.getCol());
+    long[] own = color == DiscColor.BLACK ? this.black : this.white;
+    long[] opp = color == DiscColor.BLACK ? this.white : this.black;
+    if (testBit(own, bit) || testBit(opp, bit)) {
+      return 0;
+    }
+    return flipsAt(bit, own, opp);
+  }
+
+  @Override
+  public List<List<RowColCoords>> discsToCapture(RowColCoords coords) {
+    List<List<RowColCoords>> discs = new ArrayList<>();
+    int bit = toBit(coords.getRow(), coords.getCol());
+    long[] own = activeDiscs();
+    long[] opp = opponentDiscs();
+    for (int shift : this.shifts) {
+      int end = endOfCapture(bit, shift, own, opp);
+      if (end != -1) {
+        List<RowColCoords> line = new ArrayList<>();
+        for (int i = bit + shift; i != end; i += shift) {
+          line.add(toCoords(i));
+        }
+        discs.add(line);
+      }
+    }
+    return discs;
+  }
+
+  /**
+   * Counts all the discs that placing a disc on the given bit would capture.
+   * @param bit the bit of an empty cell
+   * @param own the bitset of the active player's discs
+   * @param opp the bitset of the opponent's discs
+   * @return the number of discs that would be flipped (0 if the move is invalid)
+   */
+  private int flipsAt(int bit, long[] own, long[] opp) {
+    int flips = 0;
+    for (int shift : this.shifts) {
+      int end = endOfCapture(bit, shift, own, opp);
+      if (end != -1) {
+        flips += (end - bit) / shift - 1;
+      }
+    }
+    return flips;
+  }
+
+  /**
+   * Walks from the given bit in one direction over the opponent's discs and finds the
+   * active player's disc that closes the line.
+   * @param bit the bit of the cell a disc would be placed on
+   * @param shift the bit offset of the direction being walked
+   * @param own the bitset of the active player's discs
+   * @param opp the bitset of the opponent's discs
+   * @return the bit of the closing disc, or -1 if the line captures nothing
+   */
+  private int endOfCapture(int bit, int shift, long[] own, long[] opp) {
+    int i = bit + shift;
+    int length = 0;
+    while (i >= 0 && i < this.bitCount && testBit(opp, i)) {
+      i += shift;
+      length++;
+    }
+    if (length > 0 && i >= 0 && i < this.bitCount && testBit(own, i)) {
+      return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Finds every legal move for the active player at once. For each direction, the
+   * active player's discs are shifted onto runs of the opponent's discs and the runs are
+   * grown one step at a time, a word at a time, until they stop changing. Shifting the
+   * runs one more step and keeping only empty cells gives the cells that close those runs.
+   * @return a bitset (owned by this model, only valid until the next query) of all the
+   *         empty cells the active player could place a disc on
+   */
+  private long[] legalMoveBits() {
+    long[] own = activeDiscs();
+    long[] opp = opponentDiscs();
+    long[] fill = this.scratchFill;
+    long[] shifted = this.scratchShift;
+    long[] empty = this.scratchEmpty;
+    long[] legal = this.scratchLegal;
+
+    // Only empty cells can be moves
+    for (int word = 0; word < empty.length; word++) {
+      empty[word] = this.validCells[word] & ~(own[word] | opp[word]);
+    }
+    Arrays.fill(legal, 0L);
+
+    for (int shift : this.shifts) {
+      shiftBits(own, shift, fill);
+      and(fill, opp);
+      boolean changed = true;
+      while (changed) {
+        shiftBits(fill, shift, shifted);
+        changed = false;
+        for (int word = 0; word < fill.length; word++) {
+          long grown = fill[word] | (shifted[word] & opp[word]);
+          if (grown != fill[word]) {
+            fill[word] = grown;
+            changed = true;
+          }
+        }
+      }
+      shiftBits(fill, shift, shifted);
+      for (int word = 0; word < legal.length; word++) {
+        legal[word] |= shifted[word] & empty[word];
+      }
+    }
+    return legal;
+  }
+
+  /**
+   * Shifts every bit of a bitset by the same offset across word boundaries.
+   * @param src the bitset being shifted
+   * @param shift the offset to add to the index of every bit (may be negative)
+   * @param dst the bitset to write the result to (must not be src)
+   */
+  private static void shiftBits(long[] src, int shift, long[] dst) {
+    int words = src.length;
+    if (shift >= 0) {
+      int wordShift = shift >>> 6;
+      int bitShift = shift & 63;
+      for (int word = words - 1; word >= 0; word--) {
+        int from = word - wordShift;
+        long value = from >= 0 ? src[from] << bitShift : 0L;
+        if (bitShift != 0 && from - 1 >= 0) {
+          value |= src[from - 1] >>> (64 - bitShift);
+        }
+        dst[word] = value;
+      }
+    } else {
+      int wordShift = (-shift) >>> 6;
+      int bitShift = (-shift) & 63;
+      for (int word = 0; word < words; word++) {
+        int from = word + wordShift;
+        long value = from < words ? src[from] >>> bitShift : 0L;
+        if (bitShift != 0 && from + 1 < words) {
+          value |= src[from + 1] << (64 - bitShift);
+        }
+        dst[word] = value;
+      }
+    }
+  }
+
+  /**
+   * Keeps only the bits of a bitset that are also set in a mask.
+   * @param bits the bitset being modified
+   * @param mask the bits to keep
+   */
+  private static void and(long[] bits, long[] mask) {
+    for (int word = 0; word < bits.length; word++) {
+      bits[word] &= mask[word];
+    }
+  }
+
+  private static boolean testBit(long[] bits, int bit) {
+    return (bits[bit >>> 6] & (1L << bit)) != 0L;
+  }
+
+  private static void setBit(long[] bits, int bit) {
+    bits[bit >>> 6] |= 1L << bit;
+  }
+
+  private static void clearBit(long[] bits, int bit) {
+    bits[bit >>> 6] &= ~(1L << bit);
+  }
+
+  /**
+   * Finds the bit used for a cell in the bitsets.
+   * @param row the row of the cell (0-indexed from the top)
+   * @param col the column of the cell (0-indexed from the left)
+   * @return the index of the cell's bit
+   */
+  private int toBit(int row, int col) {
+    return row * this.stride + col + Math.max(0, this.edgeLength - 1 - row);
+  }
+
+  /**
+   * Finds the index (see HexGeometry) of the cell that a bit in the bitsets represents.
+   * @param bit the index of a cell's bit
+   * @return the index of that cell
+   */
+  private int toCell(int bit) {
+    int row = bit / this.stride;
+    return this.geometry.rowStart(row) + bit % this.stride
+            - Math.max(0, this.edgeLength - 1 - row);
+  }
+
+  /**
+   * Finds the cell that a bit in the bitsets represents.
+   * @param bit the index of a cell's bit
+   * @return the row/column coordinates of that cell
+   */
+  private RowColCoords toCoords(int bit) {
+    int row = bit / this.stride;
+    int col = bit % this.stride - Math.max(0, this.edgeLength - 1 - row);
+    return RowColCoords.of(row, col);
+  }
+
+  /**
+   * Finds the bit used in the bitsets for a cell.
+   * @param cell the index (see HexGeometry) of a cell
+   * @return the index of the cell's bit
+   */
+  private int cellToBit(int cell) {
+    return toBit(this.geometry.rowOf(cell), this.geometry.colOf(cell));
+  }
+
+  /**
+   * Updates the disc counts after a player places or removes discs.
+   * @param player the color of the player who moved
+   * @param flips the number of the opponent's discs that became the player's (negative if
+   *              they were given back)
+   * @param placed the number of empty cells that the player filled (negative if emptied)
+   */
+  private void updateCounts(DiscColor player, int flips, int placed) {
+    this.discCounts[player.ordinal()] += flips + placed;
+    this.discCounts[DiscColor.oppositeColor(player).ordinal()] -= flips;
+    this.discCounts[DiscColor.NONE.ordinal()] -= placed;
+  }
+
+  private long[] activeDiscs() {
+    return getActivePlayerColor() == DiscColor.BLACK ? this.black : this.white;
+  }
+
+  private long[] opponentDiscs() {
+    return getActivePlayerColor() == DiscColor.BLACK ? this.white : this.black;
+  }
+
+  /**
+   * Places a disc on the grid.
+   * @param bit the bit of the cell the disc is placed on
+   * @param c the color of the disc to be placed
+   */
+  private void placeDisc(int bit, DiscColor c) {
+    DiscColor previous = colorOfBit(bit);
+    this.discCounts[previous.ordinal()]--;
+    this.discCounts[c.ordinal()]++;
+    if (previous != DiscColor.NONE) {
+      this.discHash ^= ZobristKeys.discKey(this.edgeLength, toCell(bit), previous);
+    }
+    this.discHash ^= ZobristKeys.discKey(this.edgeLength, toCell(bit), c);
+    clearBit(this.black, bit);
+    clearBit(this.white, bit);
+    setBit(c == DiscColor.BLACK ? this.black : this.white, bit);
+  }
+
+  @Override
+  public boolean isGameOver() {
+    if (this.passCounter >= 2) {
+      this.gameState = GameState.GAMEOVER;
+    }
+    return this.gameState == GameState.GAMEOVER;
+  }
+
+  @Override
+  public GameState getGameState() {
+    return this.gameState;
+  }
+
+  @Override
+  public List<List<DiscColor>> getGrid() {
+    return this.gridView;
+  }
+
+  @Override
+  public BoardView getBoardView() {
+    return this.boardView;
+  }
+
+  @Override
+  public DiscColor getActivePlayerColor() throws IllegalStateException {
+    if (this.gameState == GameState.BLACKMOVE) {
+      return DiscColor.BLACK;
+    } else if (this.gameState == GameState.WHITEMOVE) {
+      return DiscColor.WHITE;
+    } else if (this.gameState == GameState.UNSTARTED) {
+      throw new IllegalStateException("The game hasn't started");
+    } else {
+      throw new IllegalStateException("The game has already ended");
+    }
+  }
+
+  @Override
+  public int getPlayerScore(DiscColor c) throws IllegalArgumentException {
+    throwIfInvalidPlayer(c);
+    return this.discCounts[c.ordinal()];
+  }
+
+  @Override
+  public int getDiscCount(DiscColor c) {
+    return this.discCounts[c.ordinal()];
+  }
+
+  @Override
+  public DiscColor getColorAt(RowColCoords coords) throws IllegalArgumentException {
+    throwIfInvalidCoords(coords);
+    return colorAt(coords.getRow(), coords.getCol());
+  }
+
+  /**
+   * Finds the color of a cell that is known to be in the grid.
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the color of the disc on that cell or NONE if it is empty
+   */
+  private DiscColor colorAt(int row, int col) {
+    return colorOfBit(toBit(row, col));
+  }
+
+  /**
+   * Finds the color of the cell at some bit.
+   * @param bit the bit of a cell in the grid
+   * @return the color of the disc on that cell or NONE if it is empty
+   */
+  private DiscColor colorOfBit(int bit) {
+    if (testBit(this.black, bit)) {
+      return DiscColor.BLACK;
+    } else if (testBit(this.white, bit)) {
+      return DiscColor.WHITE;
+    } else {
+      return DiscColor.NONE;
+    }
+  }
+
+  @Override
+  public DiscColor getWinner() throws IllegalStateException {
+    throwIfGameNotOver();
+    int p1Score = this.discCounts[DiscColor.BLACK.ordinal()];
+    int p2Score = this.discCounts[DiscColor.WHITE.ordinal()];
+    if (p1Score > p2Score) {
+      return DiscColor.BLACK;
+    } else if (p2Score > p1Score) {
+      return DiscColor.WHITE;
+    } else {
+      return DiscColor.NONE;
+    }
+  }
+
+  @Override
+  public long getPositionHash() {
+    return this.discHash ^ ZobristKeys.stateKey(this.gameState, this.passCounter);
+  }
+
+  @Override
+  public int getEdgeLength() {
+    return this.edgeLength;
+  }
+
+  @Override
+  public int getPassCounter() {
+    return this.passCounter;
+  }
+
+  /**
+   * Switches the active player to the next player and updates the game state.
+   */
+  private void nextPlayerTurn() {
+    if (this.gameState == GameState.UNSTARTED) {
+      this.gameState = GameState.BLACKMOVE;
+    } else {
+      switchGameState();
+    }
+    this.broadcaster.modelMutated();
+  }
+
+  /**
+   * Switches the game state between BLACKMOVE and WHITEMOVE.
+   */
+  private void switchGameState() {
+    if (this.gameState == GameState.BLACKMOVE) {
+      this.gameState = GameState.WHITEMOVE;
+    } else if (this.gameState == GameState.WHITEMOVE) {
+      this.gameState = GameState.BLACKMOVE;
+    }
+  }
+
+  /**
+   * A view of the board that reads the bitsets whenever it is accessed.
+   */
+  private class BitsView implements BoardView {
+    // A list of every cell, made the first time it is asked for.
+    private List<DiscColor> cells;
+
+    @Override
+    public int rowCount() {
+      return BitboardReversiModel.this.rowCount;
+    }
+
+    @Override
+    public int rowLength(int row) {
+      Objects.checkIndex(row, BitboardReversiModel.this.rowCount);
+      return BitboardReversiModel.this.geometry.rowLength(row);
+    }
+
+    @Override
+    public DiscColor colorAt(int row, int col) {
+      Objects.checkIndex(col, rowLength(row));
+      return BitboardReversiModel.this.colorAt(row, col);
+    }
+
+    @Override
+    public List<DiscColor> rawCells() {
+      if (this.cells == null) {
+        this.cells = BoardViewLists.cells(this, BitboardReversiModel.this.geometry);
+      }
+      return this.cells;
+    }
+  }
+
+  private void throwIfGameStarted() throws IllegalStateException {
+    if (this.gameState != GameState.UNSTARTED) {
+      throw new IllegalStateException("The game has already started");
+    }
+  }
+
+  private void throwIfGameUnstarted() throws IllegalStateException {
+    if (this.gameState == GameState.UNSTARTED) {
+      throw new IllegalStateException("The game hasn't started yet");
+    }
+  }
+
+  private void throwIfGameOver() throws IllegalStateException {
+    if (this.gameState == GameState.GAMEOVER) {
+      throw new IllegalStateException("The game has ended");
+    }
+  }
+
+  private void throwIfGameNotOver() throws IllegalStateException {
+    if (this.gameState != GameState.GAMEOVER) {
+      throw new IllegalStateException("The game is not over yet");
+    }
+  }
+
+  private void throwIfInvalidPlayer(DiscColor c) throws IllegalArgumentException {
+    if (c == DiscColor.NONE) {
+      throw new IllegalArgumentException("Invalid player");
+    }
+  }
+
+  private void throwIfInvalidCoords(RowColCoords coords) {
+    if (!this.geometry.isValid(coords.getRow(), coords.getCol())) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+  }
+}
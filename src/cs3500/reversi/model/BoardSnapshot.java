@@ -0,0 +1,297 @@
+package cs3500.reversi.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a Reversi position: the discs on the grid, the state of the game,
+ * and the pass counter at the moment the snapshot was taken. Snapshots are persistent, meaning
+ * that a snapshot shares the storage of every row of the grid that hasn't changed with the model
+ * it was taken from and with the snapshots taken before and after it. A model only copies a row
+ * the first time it writes to it after a snapshot is taken, so taking a snapshot, copying a model
+ * from a snapshot, and keeping many past positions around all cost much less than copying the
+ * whole grid.
+ */
+public final class BoardSnapshot implements BoardView {
+  // The six directions, stored once so that walking around a cell doesn't copy the array
+  // returned by Direction.values().
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  // The shared layout of every grid with this edge length.
+  private final HexGeometry geometry;
+
+  // The colors of the cells of each row of the grid (0-indexed from the top, then from the
+  // left). The arrays may be shared with models and other snapshots, so they are never written
+  // to once the snapshot exists.
+  private final DiscColor[][] rows;
+
+  // The number of black and white discs on the grid.
+  private final int blackCount;
+  private final int whiteCount;
+
+  // The XOR of the Zobrist keys of every disc on the grid.
+  private final long discHash;
+
+  // The empty cells adjacent to at least one disc, indexed by cell. Shared like the rows, so it
+  // is never written to either.
+  private final BitSet frontier;
+
+  // The state of the game when the snapshot was taken.
+  private final GameState gameState;
+
+  // The number of passes in a row when the snapshot was taken.
+  private final int passCounter;
+
+  // Read only list views of the rows and of every cell, made the first time they are asked for.
+  private List<List<DiscColor>> gridView;
+  private List<DiscColor> cellsView;
+
+  /**
+   * Constructs a BoardSnapshot from storage that will no longer be written to.
+   * @param geometry the layout of the grid
+   * @param rows the colors of the cells of each row
+   * @param blackCount the number of black discs
+   * @param whiteCount the number of white discs
+   * @param discHash the XOR of the Zobrist keys of every disc
+   * @param frontier the empty cells adjacent to at least one disc
+   * @param gameState the state of the game
+   * @param passCounter the number of passes in a row
+   */
+  BoardSnapshot(HexGeometry geometry, DiscColor[][] rows, int blackCount, int whiteCount,
+                long discHash, BitSet frontier, GameState gameState, int passCounter) {
+    this.geometry = geometry;
+    this.rows = rows;
+    this.blackCount = blackCount;
+    this.whiteCount = whiteCount;
+    this.discHash = discHash;
+    this.frontier = frontier;
+    this.gameState = gameState;
+    this.passCounter = passCounter;
+  }
+
+  /**
+   * Takes a snapshot of any model by copying its grid. Models that keep their own snapshots
+   * (see ROReversiModel.getSnapshot) don't need to be copied this way.
+   * @param model some game of Reversi
+   * @return a snapshot of the model's current position
+   */
+  public static BoardSnapshot of(ROReversiModel model) {
+    HexGeometry geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
+    BoardView view = model.getBoardView();
+    DiscColor[][] rows = new DiscColor[geometry.rowCount()][];
+    for (int row = 0; row < rows.length; row++) {
+      rows[row] = new DiscColor[geometry.rowLength(row)];
+      for (int col = 0; col < rows[row].length; col++) {
+        rows[row][col] = view.colorAt(row, col);
+      }
+    }
+    return fromRows(geometry, rows, model.getGameState(), model.getPassCounter());
+  }
+
+  /**
+   * Makes a snapshot from rows that nothing else will write to, working out the disc counts,
+   * hash, and frontier from them.
+   * @param geometry the layout of the grid
+   * @param rows the colors of the cells of each row
+   * @param gameState the state of the game
+   * @param passCounter the number of passes in a row
+   * @return a snapshot that takes ownership of the rows
+   */
+  static BoardSnapshot fromRows(HexGeometry geometry, DiscColor[][] rows, GameState gameState,
+                                int passCounter) {
+    int blackCount = 0;
+    int whiteCount = 0;
+    long discHash = 0;
+    BitSet frontier = new BitSet(geometry.cellCount());
+    for (int cell = 0; cell < geometry.cellCount(); cell++) {
+      DiscColor color = rows[geometry.rowOf(cell)][geometry.colOf(cell)];
+      if (color == DiscColor.NONE) {
+        continue;
+      }
+      if (color == DiscColor.BLACK) {
+        blackCount++;
+      } else {
+        whiteCount++;
+      }
+      discHash ^= ZobristKeys.discKey(geometry.getEdgeLength(), cell, color);
+      for (Direction dir : DIRECTIONS) {
+        int neighbour = geometry.neighbour(dir, cell);
+        if (neighbour != -1
+                && rows[geometry.rowOf(neighbour)][geometry.colOf(neighbour)] == DiscColor.NONE) {
+          frontier.set(neighbour);
+        }
+      }
+    }
+    return new BoardSnapshot(geometry, rows, blackCount, whiteCount, discHash, frontier,
+            gameState, passCounter);
+  }
+
+  /**
+   * Returns the number of cells per edge of the grid.
+   * @return the edge length
+   */
+  public int getEdgeLength() {
+    return this.geometry.getEdgeLength();
+  }
+
+  /**
+   * Returns the state of the game when the snapshot was taken.
+   * @return the game state
+   */
+  public GameState getGameState() {
+    return this.gameState;
+  }
+
+  /**
+   * Returns the number of passes in a row when the snapshot was taken.
+   * @return the pass counter
+   */
+  public int getPassCounter() {
+    return this.passCounter;
+  }
+
+  /**
+   * Returns the color of the disc (or NONE if no disc) on a cell.
+   * @param coords the row/column coordinates of a cell
+   * @return the color of the contents of the cell
+   * @throws IllegalArgumentException if the coordinates do not specify a cell in the grid
+   */
+  public DiscColor getColorAt(RowColCoords coords) throws IllegalArgumentException {
+    if (!this.geometry.isValid(coords.getRow(), coords.getCol())) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return this.rows[coords.getRow()][coords.getCol()];
+  }
+
+  /**
+   * Returns the number of cells holding a color.
+   * @param c black, white, or none (for the number of empty cells)
+   * @return the number of cells holding that color
+   */
+  public int getDiscCount(DiscColor c) {
+    if (c == DiscColor.BLACK) {
+      return this.blackCount;
+    } else if (c == DiscColor.WHITE) {
+      return this.whiteCount;
+    } else {
+      return this.geometry.cellCount() - this.blackCount - this.whiteCount;
+    }
+  }
+
+  /**
+   * Returns the Zobrist hash (see ZobristKeys) of the position, which is the same as the
+   * getPositionHash of the model the snapshot was taken from.
+   * @return the hash of the position
+   */
+  public long getPositionHash() {
+    return this.discHash ^ ZobristKeys.stateKey(this.gameState, this.passCounter);
+  }
+
+  /**
+   * Returns the grid as a read only list of rows, in the same shape as ROReversiModel.getGrid.
+   * @return the rows of the grid
+   */
+  public List<List<DiscColor>> getGrid() {
+    if (this.gridView == null) {
+      this.gridView = BoardViewLists.grid(this);
+    }
+    return this.gridView;
+  }
+
+  @Override
+  public int rowCount() {
+    return this.rows.length;
+  }
+
+  @Override
+  public int rowLength(int row) {
+    return this.rows[row].length;
+  }
+
+  @Override
+  public DiscColor colorAt(int row, int col) {
+    return this.rows[row][col];
+  }
+
+  @Override
+  public List<DiscColor> rawCells() {
+    if (this.cellsView == null) {
+      this.cellsView = BoardViewLists.cells(this, this.geometry);
+    }
+    return this.cellsView;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof BoardSnapshot)) {
+      return false;
+    }
+    BoardSnapshot that = (BoardSnapshot) other;
+    return this.geometry == that.geometry
+            && Arrays.deepEquals(this.rows, that.rows)
+            && this.gameState == that.gameState
+            && this.passCounter == that.passCounter;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(getPositionHash());
+  }
+
+  /**
+   * Counts all the discs a player placing a disc on a cell would capture.
+   * @param cell the index (see HexGeometry) of a cell
+   * @param player the color of the disc that would be placed
+   * @return the number of discs that would be flipped, or 0 if the cell isn't empty or the move
+   *         wouldn't capture anything
+   */
+  int flipsAt(int cell, DiscColor player) {
+    if (this.rows[this.geometry.rowOf(cell)][this.geometry.colOf(cell)] != DiscColor.NONE) {
+      return 0;
+    }
+    int flips = 0;
+    for (Direction dir : DIRECTIONS) {
+      flips += capturedInLine(cell, dir, player);
+    }
+    return flips;
+  }
+
+  /**
+   * Counts the discs a player placing a disc on a cell would capture in a single line.
+   * @param cell the index of the cell the disc would be placed on
+   * @param dir the direction of the line from that cell
+   * @param player the color of the disc that would be placed
+   * @return the number of the opponent's discs in a row starting next to the cell if that row
+   *         ends in one of the player's discs, or 0 otherwise
+   */
+  int capturedInLine(int cell, Direction dir, DiscColor player) {
+    int rayLength = this.geometry.rayLength(dir, cell);
+    for (int step = 0; step < rayLength; step++) {
+      int next = this.geometry.rayCell(dir, cell, step);
+      DiscColor color = this.rows[this.geometry.rowOf(next)][this.geometry.colOf(next)];
+      if (color == DiscColor.NONE) {
+        return 0;
+      } else if (color == player) {
+        return step;
+      }
+    }
+    return 0;
+  }
+
+  HexGeometry geometry() {
+    return this.geometry;
+  }
+
+  DiscColor[] row(int row) {
+    return this.rows[row];
+  }
+
+  long discHash() {
+    return this.discHash;
+  }
+
+  BitSet frontier() {
+    return this.frontier;
+  }
+}
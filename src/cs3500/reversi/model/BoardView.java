@@ -0,0 +1,40 @@
+package cs3500.reversi.model;
+
+import java.util.List;
+
+/**
+ * A read only view of the cells of a regular hexagonal grid that reads the current state of
+ * whatever it is viewing every time it is asked, so one view can be kept and reused for the
+ * whole game instead of copying the grid each time it is needed.
+ */
+public interface BoardView {
+  /**
+   * Returns the number of rows in the grid.
+   * @return the number of rows
+   */
+  int rowCount();
+
+  /**
+   * Returns the number of cells in a row.
+   * @param row a row of the grid (0-indexed from the top)
+   * @return the length of that row
+   * @throws IndexOutOfBoundsException if the row isn't in the grid
+   */
+  int rowLength(int row) throws IndexOutOfBoundsException;
+
+  /**
+   * Returns the color of the disc (or NONE if no disc) on a cell.
+   * @param row the row of the cell (0-indexed from the top)
+   * @param col the column of the cell (0-indexed from the left)
+   * @return the color of the contents of the cell
+   * @throws IndexOutOfBoundsException if the coordinates do not specify a cell in the grid
+   */
+  DiscColor colorAt(int row, int col) throws IndexOutOfBoundsException;
+
+  /**
+   * Returns every cell of the grid as one read only list in order of cell index
+   * (see HexGeometry), which also reads the current state whenever it is accessed.
+   * @return the colors of all the cells in row-major order
+   */
+  List<DiscColor> rawCells();
+}
@@ -0,0 +1,137 @@
+package cs3500.reversi.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read only list views over a BoardView, and a BoardView over a list of rows, so that models
+ * can keep offering getGrid on top of their BoardView and the other way around.
+ */
+final class BoardViewLists {
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private BoardViewLists() {
+  }
+
+  /**
+   * Makes a read only list of rows that reads through a view.
+   * @param view the view to read
+   * @return the rows of the grid, in the shape ROReversiModel.getGrid returns
+   */
+  static List<List<DiscColor>> grid(BoardView view) {
+    List<List<DiscColor>> rows = new ArrayList<>();
+    for (int row = 0; row < view.rowCount(); row++) {
+      rows.add(Collections.unmodifiableList(new RowList(view, row)));
+    }
+    return Collections.unmodifiableList(rows);
+  }
+
+  /**
+   * Makes a read only list of every cell that reads through a view.
+   * @param view the view to read
+   * @param geometry the layout of the view's grid
+   * @return the colors of all the cells in order of cell index
+   */
+  static List<DiscColor> cells(BoardView view, HexGeometry geometry) {
+    return Collections.unmodifiableList(new CellList(view, geometry));
+  }
+
+  /**
+   * Makes a view of a list of rows.
+   * @param grid the rows of a grid, in the shape ROReversiModel.getGrid returns
+   * @return a view that reads the list
+   */
+  static BoardView fromGrid(List<List<DiscColor>> grid) {
+    return new GridBoardView(grid);
+  }
+
+  /**
+   * A list of the colors of one row.
+   */
+  private static final class RowList extends AbstractList<DiscColor> {
+    // The view being read, and which of its rows this list is.
+    private final BoardView view;
+    private final int row;
+
+    RowList(BoardView view, int row) {
+      this.view = view;
+      this.row = row;
+    }
+
+    @Override
+    public DiscColor get(int col) {
+      return this.view.colorAt(this.row, col);
+    }
+
+    @Override
+    public int size() {
+      return this.view.rowLength(this.row);
+    }
+  }
+
+  /**
+   * A list of the colors of every cell.
+   */
+  private static final class CellList extends AbstractList<DiscColor> {
+    // The view being read, and the layout that turns cell indices into rows and columns.
+    private final BoardView view;
+    private final HexGeometry geometry;
+
+    CellList(BoardView view, HexGeometry geometry) {
+      this.view = view;
+      this.geometry = geometry;
+    }
+
+    @Override
+    public DiscColor get(int cell) {
+      if (cell < 0 || cell >= this.geometry.cellCount()) {
+        throw new IndexOutOfBoundsException("Invalid cell " + cell);
+      }
+      return this.view.colorAt(this.geometry.rowOf(cell), this.geometry.colOf(cell));
+    }
+
+    @Override
+    public int size() {
+      return this.geometry.cellCount();
+    }
+  }
+
+  /**
+   * A view of a list of rows.
+   */
+  private static final class GridBoardView implements BoardView {
+    // The rows being read, and a list of every cell made the first time it is asked for.
+    private final List<List<DiscColor>> grid;
+    private List<DiscColor> cells;
+
+    GridBoardView(List<List<DiscColor>> grid) {
+      this.grid = grid;
+    }
+
+    @Override
+    public int rowCount() {
+      return this.grid.size();
+    }
+
+    @Override
+    public int rowLength(int row) {
+      return this.grid.get(row).size();
+    }
+
+    @Override
+    public DiscColor colorAt(int row, int col) {
+      return this.grid.get(row).get(col);
+    }
+
+    @Override
+    public List<DiscColor> rawCells() {
+      if (this.cells == null) {
+        this.cells = cells(this, HexGeometry.forEdgeLength((this.grid.size() + 1) / 2));
+      }
+      return this.cells;
+    }
+  }
+}
@@ -0,0 +1,814 @@
+package cs3500.reversi.model;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import cs3500.reversi.controller.ModelCallbackListener;
+
+/**
+ * Represents the model for a 2-player game of Reversi on a very large regular hexagonal grid
+ * (edge lengths in the hundreds or thousands). Each cell takes 2 bits, packed into fixed size
+ * chunks that are only allocated once a disc is placed in them, and the model keeps track of
+ * the columns of each row that have ever held a disc. Moves are only looked for next to that
+ * occupied region and lines are walked with row/column arithmetic instead of HexGeometry's
+ * tables, so the memory used grows with the number of discs played and the time taken by each
+ * move depends on the occupied region rather than the size of the board.
+ */
+public class ChunkedReversiModel implements MutableReversiModel {
+  // The largest supported edge length, which keeps the number of cells within an int.
+  public static final int MAX_EDGE_LENGTH = 20_000;
+
+  // The number of cells in each chunk is 2 to this power.
+  private static final int CHUNK_BITS = 10;
+  private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+  // Each long holds 32 cells of 2 bits each.
+  private static final int CELLS_PER_WORD_BITS = 5;
+  private static final int WORD_MASK = (1 << CELLS_PER_WORD_BITS) - 1;
+
+  // The color stored for each 2-bit code.
+  private static final DiscColor[] COLORS = {DiscColor.NONE, DiscColor.BLACK, DiscColor.WHITE};
+
+  // The change in row of each direction, indexed by Direction ordinal.
+  private static final int[] ROW_STEPS = {-1, -1, 0, 0, 1, 1};
+
+  // How many cells are in each edge of the hexagonal grid.
+  private final int edgeLength;
+
+  // The number of rows in the grid.
+  private final int rowCount;
+
+  // The total number of cells in the grid.
+  private final int cellCount;
+
+  // The index of the first cell of each row (cells are numbered the same way as HexGeometry),
+  // plus cellCount at the end.
+  private final int[] rowStarts;
+
+  // The 2-bit codes (see COLORS) of every cell, in chunks of 2^CHUNK_BITS cells by cell index.
+  // A chunk that is null has never held a disc, so all of its cells are empty.
+  private final long[][] chunks;
+
+  // The first and last column of each row that has ever held a disc (Integer.MAX_VALUE and -1
+  // if none has), and the first and last row that has. Discs are only ever taken off the grid
+  // by unmakeMove, which leaves the region as it was, so the region may be a little bigger
+  // than the cells actually holding discs but never smaller.
+  private final int[] firstCol;
+  private final int[] lastCol;
+  private int firstRow;
+  private int lastRow;
+
+  // The number of cells holding each color, indexed by DiscColor ordinal (NONE counts the
+  // empty cells), kept up to date whenever discs are placed or flipped.
+  private final int[] discCounts;
+
+  // The XOR of the Zobrist keys of every disc on the grid, kept up to date whenever discs are
+  // placed or flipped.
+  private long discHash;
+
+  // A read only view of the board that reads the chunks directly, and the lists of rows
+  // (handed out by getGrid) built on it.
+  private final BoardView boardView;
+  private final List<List<DiscColor>> gridView;
+
+  // The state of the game (one of UNSTARTED, BLACKMOVE, WHITEMOVE, or GAMEOVER).
+  private GameState gameState;
+
+  // A counter that increases by one each time a player passes and resets each time
+  // a player places a disc.
+  // Class Invariant: passCounter is never less than 0.
+  private int passCounter;
+
+  // The object that broadcasts to its listeners when the model is mutated.
+  private final ModelCallback broadcaster;
+
+  // The records of the moves made with makeMove or makePass that can still be taken back,
+  // most recent first.
+  private final Deque<UndoRecord> undoStack;
+
+  /**
+   * Constructs a ChunkedReversiModel with an empty grid.
+   * @param edgeLength the number of cells per edge of the grid
+   * @throws IllegalArgumentException if edgeLength is less than 2 or more than MAX_EDGE_LENGTH
+   */
+  private ChunkedReversiModel(int edgeLength) throws IllegalArgumentException {
+    if (edgeLength < 2 || edgeLength > MAX_EDGE_LENGTH) {
+      throw new IllegalArgumentException("Invalid edge length");
+    }
+    this.edgeLength = edgeLength;
+    this.rowCount = edgeLength * 2 - 1;
+    this.rowStarts = new int[this.rowCount + 1];
+    for (int row = 0; row < this.rowCount; row++) {
+      this.rowStarts[row + 1] = this.rowStarts[row]
+              + this.rowCount - Math.abs(row - (edgeLength - 1));
+    }
+    this.cellCount = this.rowStarts[this.rowCount];
+    this.chunks = new long[(this.cellCount + CHUNK_MASK) >>> CHUNK_BITS][];
+
+    this.firstCol = new int[this.rowCount];
+    this.lastCol = new int[this.rowCount];
+    for (int row = 0; row < this.rowCount; row++) {
+      this.firstCol[row] = Integer.MAX_VALUE;
+      this.lastCol[row] = -1;
+    }
+    this.firstRow = Integer.MAX_VALUE;
+    this.lastRow = -1;
+
+    this.discCounts = new int[DiscColor.values().length];
+    this.discCounts[DiscColor.NONE.ordinal()] = this.cellCount;
+    this.boardView = new ChunksView();
+    this.gridView = BoardViewLists.grid(this.boardView);
+    this.gameState = GameState.UNSTARTED;
+    this.passCounter = 0;
+    this.broadcaster = new ModelMutatedBroadcaster();
+    this.undoStack = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates a ChunkedReversiModel with a variable edge length.
+   * @param edgeLength the number of cells per edge of the grid
+   * @return a new ChunkedReversiModel with the specified edge length
+   * @throws IllegalArgumentException if edgeLength is less than 2 or more than MAX_EDGE_LENGTH
+   */
+  public static ChunkedReversiModel create(int edgeLength) throws IllegalArgumentException {
+    ChunkedReversiModel model = new ChunkedReversiModel(edgeLength);
+    model.placeStartingPieces();
+    return model;
+  }
+
+  /**
+   * Creates a copy of a Reversi game.
+   * @param model a ROReversiModel to be copied
+   * @return a new ChunkedReversiModel with all the fields of the given model
+   */
+  public static ChunkedReversiModel createCopy(ROReversiModel model) {
+    ChunkedReversiModel copy = new ChunkedReversiModel(model.getEdgeLength());
+    if (model instanceof ChunkedReversiModel) {
+      // Only the chunks and rows that hold discs need to be copied
+      ChunkedReversiModel other = (ChunkedReversiModel) model;
+      for (int chunk = 0; chunk < other.chunks.length; chunk++) {
+        if (other.chunks[chunk] != null) {
+          copy.chunks[chunk] = other.chunks[chunk].clone();
+        }
+      }
+      System.arraycopy(other.firstCol, 0, copy.firstCol, 0, copy.rowCount);
+      System.arraycopy(other.lastCol, 0, copy.lastCol, 0, copy.rowCount);
+      System.arraycopy(other.discCounts, 0, copy.discCounts, 0, copy.discCounts.length);
+      copy.firstRow = other.firstRow;
+      copy.lastRow = other.lastRow;
+      copy.discHash = other.discHash;
+    } else {
+      BoardView view = model.getBoardView();
+      for (int row = 0; row < view.rowCount(); row++) {
+        for (int col = 0; col < view.rowLength(row); col++) {
+          DiscColor color = view.colorAt(row, col);
+          if (color != DiscColor.NONE) {
+            copy.setCell(row, col, color);
+          }
+        }
+      }
+    }
+    copy.gameState = model.getGameState();
+    copy.passCounter = model.getPassCounter();
+    return copy;
+  }
+
+  @Override
+  public void setBroadcastListener(ModelCallbackListener controller) {
+    this.broadcaster.addListener(controller);
+  }
+
+  @Override
+  public void removeBroadcastListener(ModelCallbackListener controller) {
+    this.broadcaster.removeListener(controller);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof ChunkedReversiModel)) {
+      return false;
+    }
+    ChunkedReversiModel that = (ChunkedReversiModel) other;
+    if (this.edgeLength != that.edgeLength
+            || this.gameState != that.gameState
+            || this.passCounter != that.passCounter
+            || this.discHash != that.discHash) {
+      return false;
+    }
+    for (int chunk = 0; chunk < this.chunks.length; chunk++) {
+      long[] mine = this.chunks[chunk];
+      long[] theirs = that.chunks[chunk];
+      for (int word = 0; word < 1 << (CHUNK_BITS - CELLS_PER_WORD_BITS); word++) {
+        if ((mine == null ? 0L : mine[word]) != (theirs == null ? 0L : theirs[word])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(getPositionHash());
+  }
+
+  /**
+   * Places the starting pieces onto the grid.
+   */
+  private void placeStartingPieces() {
+    int center = this.edgeLength - 1;
+    setCell(center - 1, center - 1, DiscColor.BLACK);
+    setCell(center - 1, center, DiscColor.WHITE);
+    setCell(center, center - 1, DiscColor.WHITE);
+    setCell(center, center + 1, DiscColor.BLACK);
+    setCell(center + 1, center - 1, DiscColor.BLACK);
+    setCell(center + 1, center, DiscColor.WHITE);
+  }
+
+  @Override
+  public void startGame() throws IllegalStateException {
+    throwIfGameStarted();
+    nextPlayerTurn();
+  }
+
+  @Override
+  public void pass() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    this.undoStack.clear();
+    this.passCounter++;
+    if (isGameOver()) {
+      this.broadcaster.gameOver();
+    } else {
+      nextPlayerTurn();
+    }
+  }
+
+  @Override
+  public void placeDiscInCell(RowColCoords cell) throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    throwIfInvalidCoords(cell);
+    DiscColor player = getActivePlayerColor();
+    int captured = flipsAt(cell.getRow(), cell.getCol(), player);
+    if (captured == 0) {
+      throw new IllegalStateException("Invalid move");
+    }
+    this.undoStack.clear();
+    capture(cell.getRow(), cell.getCol(), player, null);
+    setCell(cell.getRow(), cell.getCol(), player);
+    this.passCounter = 0;
+    nextPlayerTurn();
+  }
+
+  @Override
+  public UndoRecord makeMove(RowColCoords cell)
+          throws IllegalArgumentException, IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    throwIfInvalidCoords(cell);
+    DiscColor player = getActivePlayerColor();
+    int captured = flipsAt(cell.getRow(), cell.getCol(), player);
+    if (captured == 0) {
+      throw new IllegalStateException("Invalid move");
+    }
+    int[] flipped = new int[captured];
+    capture(cell.getRow(), cell.getCol(), player, flipped);
+    setCell(cell.getRow(), cell.getCol(), player);
+    UndoRecord record = new UndoRecord(cellIndex(cell.getRow(), cell.getCol()), flipped,
+            this.gameState, this.passCounter);
+    this.passCounter = 0;
+    switchGameState();
+    this.undoStack.push(record);
+    return record;
+  }
+
+  @Override
+  public UndoRecord makePass() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    UndoRecord record = new UndoRecord(-1, new int[0], this.gameState, this.passCounter);
+    this.passCounter++;
+    if (!isGameOver()) {
+      switchGameState();
+    }
+    this.undoStack.push(record);
+    return record;
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) throws IllegalArgumentException {
+    if (this.undoStack.peek() != record) {
+      throw new IllegalArgumentException("Only the most recent move can be taken back");
+    }
+    this.undoStack.pop();
+    if (!record.isPass()) {
+      DiscColor opponent = DiscColor.oppositeColor(record.getPlayer());
+      for (int i = 0; i < record.getFlipCount(); i++) {
+        setCode(record.getFlipped(i), opponent);
+      }
+      setCode(record.getMove(), DiscColor.NONE);
+    }
+    this.gameState = record.getPreviousState();
+    this.passCounter = record.getPreviousPassCounter();
+  }
+
+  @Override
+  public boolean anyLegalMoves() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    return forEachCandidate(getActivePlayerColor(), null, true) > 0;
+  }
+
+  @Override
+  public void forEachLegalMove(IntIntConsumer action) throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    forEachCandidate(getActivePlayerColor(), action, false);
+  }
+
+  @Override
+  public BitSet legalMoves() throws IllegalStateException {
+    BitSet moves = new BitSet();
+    forEachLegalMove((cell, flips) -> moves.set(cell));
+    return moves;
+  }
+
+  @Override
+  public int legalMoves(int[] cells, int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    int[] count = new int[1];
+    forEachLegalMove((cell, flips) -> {
+      cells[count[0]] = cell;
+      flipCounts[count[0]] = flips;
+      count[0]++;
+    });
+    return count[0];
+  }
+
+  @Override
+  public Map<Boolean, Integer> validMove(RowColCoords coords)
+          throws IllegalArgumentException, IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    throwIfInvalidCoords(coords);
+    int flips = flipsAt(coords.getRow(), coords.getCol(), getActivePlayerColor());
+    return Collections.singletonMap(flips != 0, flips);
+  }
+
+  @Override
+  public int countFlips(RowColCoords coords, DiscColor color) throws IllegalArgumentException {
+    throwIfInvalidCoords(coords);
+    throwIfInvalidPlayer(color);
+    return flipsAt(coords.getRow(), coords.getCol(), color);
+  }
+
+  @Override
+  public List<List<RowColCoords>> discsToCapture(RowColCoords coords) {
+    List<List<RowColCoords>> discs = new ArrayList<>();
+    DiscColor player = getActivePlayerColor();
+    for (Direction dir : Direction.values()) {
+      int length = captureLength(coords.getRow(), coords.getCol(), dir, player);
+      if (length > 0) {
+        List<RowColCoords> line = new ArrayList<>();
+        int row = coords.getRow();
+        int col = coords.getCol();
+        for (int i = 0; i < length; i++) {
+          col = nextCol(dir, row, col);
+          row += ROW_STEPS[dir.ordinal()];
+          line.add(RowColCoords.of(row, col));
+        }
+        discs.add(line);
+      }
+    }
+    return discs;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    if (this.passCounter >= 2) {
+      this.gameState = GameState.GAMEOVER;
+    }
+    return this.gameState == GameState.GAMEOVER;
+  }
+
+  @Override
+  public GameState getGameState() {
+    return this.gameState;
+  }
+
+  @Override
+  public List<List<DiscColor>> getGrid() {
+    return this.gridView;
+  }
+
+  @Override
+  public BoardView getBoardView() {
+    return this.boardView;
+  }
+
+  @Override
+  public DiscColor getActivePlayerColor() throws IllegalStateException {
+    if (this.gameState == GameState.BLACKMOVE) {
+      return DiscColor.BLACK;
+    } else if (this.gameState == GameState.WHITEMOVE) {
+      return DiscColor.WHITE;
+    } else if (this.gameState == GameState.UNSTARTED) {
+      throw new IllegalStateException("The game hasn't started");
+    } else {
+      throw new IllegalStateException("The game has already ended");
+    }
+  }
+
+  @Override
+  public int getPlayerScore(DiscColor c) throws IllegalArgumentException {
+    throwIfInvalidPlayer(c);
+    return this.discCounts[c.ordinal()];
+  }
+
+  @Override
+  public int getDiscCount(DiscColor c) {
+    return this.discCounts[c.ordinal()];
+  }
+
+  @Override
+  public DiscColor getColorAt(RowColCoords coords) throws IllegalArgumentException {
+    throwIfInvalidCoords(coords);
+    return colorOf(cellIndex(coords.getRow(), coords.getCol()));
+  }
+
+  @Override
+  public DiscColor getWinner() throws IllegalStateException {
+    throwIfGameNotOver();
+    int p1Score = this.discCounts[DiscColor.BLACK.ordinal()];
+    int p2Score = this.discCounts[DiscColor.WHITE.ordinal()];
+    if (p1Score > p2Score) {
+      return DiscColor.BLACK;
+    } else if (p2Score > p1Score) {
+      return DiscColor.WHITE;
+    } else {
+      return DiscColor.NONE;
+    }
+  }
+
+  @Override
+  public long getPositionHash() {
+    return this.discHash ^ ZobristKeys.stateKey(this.gameState, this.passCounter);
+  }
+
+  @Override
+  public int getEdgeLength() {
+    return this.edgeLength;
+  }
+
+  @Override
+  public int getPassCounter() {
+    return this.passCounter;
+  }
+
+  /**
+   * Returns the number of chunks that have been allocated, which is how much of the board's
+   * storage is actually in use.
+   * @return the number of chunks holding at least one disc at some point
+   */
+  int allocatedChunks() {
+    int count = 0;
+    for (long[] chunk : this.chunks) {
+      if (chunk != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Visits every empty cell next to the occupied region, in order of cell index, and finds
+   * the ones that are legal moves for a player. A cell next to a disc is at most one column
+   * away from that disc's column in the rows above and below, so the cells looked at in each
+   * row are the columns of the occupied region of that row and the rows around it, widened by
+   * one on each side.
+   * @param player the player whose moves are wanted
+   * @param action the action to call with the index and number of captured discs of each move
+   *               (may be null if only the count is wanted)
+   * @param stopAtFirst whether to stop after the first legal move is found
+   * @return the number of legal moves visited
+   */
+  private int forEachCandidate(DiscColor player, IntIntConsumer action, boolean stopAtFirst) {
+    int count = 0;
+    int fromRow = Math.max(0, this.firstRow - 1);
+    int toRow = Math.min(this.rowCount - 1, this.lastRow + 1);
+    for (int row = fromRow; row <= toRow; row++) {
+      int from = Integer.MAX_VALUE;
+      int to = -1;
+      for (int near = Math.max(0, row - 1); near <= Math.min(this.rowCount - 1, row + 1);
+           near++) {
+        from = Math.min(from, this.firstCol[near]);
+        to = Math.max(to, this.lastCol[near]);
+      }
+      if (to < 0) {
+        continue;
+      }
+      from = Math.max(0, from - 1);
+      to = Math.min(rowLength(row) - 1, to + 1);
+      for (int col = from; col <= to; col++) {
+        int flips = flipsAt(row, col, player);
+        if (flips > 0) {
+          count++;
+          if (action != null) {
+            action.accept(cellIndex(row, col), flips);
+          }
+          if (stopAtFirst) {
+            return count;
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Counts all the discs that a player placing a disc on a cell would capture.
+   * @param row the row of a cell in the grid
+   * @param col the column of a cell in the grid
+   * @param player the player placing the disc
+   * @return the number of discs that would be flipped (0 if the move is invalid or the cell
+   *         isn't empty)
+   */
+  private int flipsAt(int row, int col, DiscColor player) {
+    if (code(cellIndex(row, col)) != 0) {
+      return 0;
+    }
+    int flips = 0;
+    for (Direction dir : Direction.values()) {
+      flips += captureLength(row, col, dir, player);
+    }
+    return flips;
+  }
+
+  /**
+   * Walks from a cell in one direction over the opponent's discs and checks that the line is
+   * closed by one of the player's discs.
+   * @param row the row of the cell a disc would be placed on
+   * @param col the column of the cell a disc would be placed on
+   * @param dir the direction being walked
+   * @param player the player placing the disc
+   * @return the number of discs the line captures (0 if it captures nothing)
+   */
+  private int captureLength(int row, int col, Direction dir, DiscColor player) {
+    DiscColor opponent = DiscColor.oppositeColor(player);
+    int length = 0;
+    while (true) {
+      col = nextCol(dir, row, col);
+      row += ROW_STEPS[dir.ordinal()];
+      if (!isValid(row, col)) {
+        return 0;
+      }
+      DiscColor color = colorOf(cellIndex(row, col));
+      if (color == opponent) {
+        length++;
+      } else {
+        return color == player ? length : 0;
+      }
+    }
+  }
+
+  /**
+   * Flips every disc a player placing a disc on a cell captures.
+   * @param row the row of the cell the disc is placed on
+   * @param col the column of the cell the disc is placed on
+   * @param player the player placing the disc
+   * @param flipped the array to record the index of each flipped cell in (may be null)
+   */
+  private void capture(int row, int col, DiscColor player, int[] flipped) {
+    int count = 0;
+    for (Direction dir : Direction.values()) {
+      int length = captureLength(row, col, dir, player);
+      int r = row;
+      int c = col;
+      for (int i = 0; i < length; i++) {
+        c = nextCol(dir, r, c);
+        r += ROW_STEPS[dir.ordinal()];
+        int cell = cellIndex(r, c);
+        setCode(cell, player);
+        if (flipped != null) {
+          flipped[count] = cell;
+        }
+        count++;
+      }
+    }
+  }
+
+  /**
+   * Finds the column of the adjacent cell in some direction. Rows above the middle row are
+   * shifted right of the row below them and rows below the middle row are shifted left of the
+   * row above them, so the column in the rows above and below depends on which half the cell
+   * is in.
+   * @param dir the direction of the adjacent cell
+   * @param row the row of a cell
+   * @param col the column of a cell
+   * @return the column of the adjacent cell, which may be off the grid
+   */
+  private int nextCol(Direction dir, int row, int col) {
+    int middle = this.edgeLength - 1;
+    switch (dir) {
+      case topLeft:
+        return row > middle ? col : col - 1;
+      case topRight:
+        return row > middle ? col + 1 : col;
+      case centerLeft:
+        return col - 1;
+      case centerRight:
+        return col + 1;
+      case bottomLeft:
+        return row >= middle ? col - 1 : col;
+      case bottomRight:
+        return row >= middle ? col : col + 1;
+      default:
+        throw new IllegalStateException("No 7th direction");
+    }
+  }
+
+  private int rowLength(int row) {
+    return this.rowStarts[row + 1] - this.rowStarts[row];
+  }
+
+  private boolean isValid(int row, int col) {
+    return row >= 0 && row < this.rowCount && col >= 0 && col < rowLength(row);
+  }
+
+  private int cellIndex(int row, int col) {
+    return this.rowStarts[row] + col;
+  }
+
+  /**
+   * Reads the 2-bit code of a cell.
+   * @param cell the index of a cell
+   * @return 0 if the cell is empty, 1 if it holds a black disc, or 2 if it holds a white disc
+   */
+  private int code(int cell) {
+    long[] chunk = this.chunks[cell >>> CHUNK_BITS];
+    if (chunk == null) {
+      return 0;
+    }
+    long word = chunk[(cell & CHUNK_MASK) >>> CELLS_PER_WORD_BITS];
+    return (int) (word >>> ((cell & WORD_MASK) << 1)) & 3;
+  }
+
+  private DiscColor colorOf(int cell) {
+    return COLORS[code(cell)];
+  }
+
+  /**
+   * Places a disc on a cell and adds the cell to the occupied region.
+   * @param row the row of a cell in the grid
+   * @param col the column of a cell in the grid
+   * @param c the color of the disc
+   */
+  private void setCell(int row, int col, DiscColor c) {
+    setCode(cellIndex(row, col), c);
+    this.firstCol[row] = Math.min(this.firstCol[row], col);
+    this.lastCol[row] = Math.max(this.lastCol[row], col);
+    this.firstRow = Math.min(this.firstRow, row);
+    this.lastRow = Math.max(this.lastRow, row);
+  }
+
+  /**
+   * Sets the contents of a cell, allocating its chunk the first time it holds a disc, and
+   * updates the disc counts and the hash.
+   * @param cell the index of a cell
+   * @param c the new color of the cell (NONE to empty it)
+   */
+  private void setCode(int cell, DiscColor c) {
+    int chunkIndex = cell >>> CHUNK_BITS;
+    if (this.chunks[chunkIndex] == null) {
+      this.chunks[chunkIndex] = new long[1 << (CHUNK_BITS - CELLS_PER_WORD_BITS)];
+    }
+    long[] chunk = this.chunks[chunkIndex];
+    int word = (cell & CHUNK_MASK) >>> CELLS_PER_WORD_BITS;
+    int shift = (cell & WORD_MASK) << 1;
+    DiscColor previous = COLORS[(int) (chunk[word] >>> shift) & 3];
+    long code = c == DiscColor.BLACK ? 1L : c == DiscColor.WHITE ? 2L : 0L;
+    chunk[word] = (chunk[word] & ~(3L << shift)) | (code << shift);
+
+    this.discCounts[previous.ordinal()]--;
+    this.discCounts[c.ordinal()]++;
+    if (previous != DiscColor.NONE) {
+      this.discHash ^= ZobristKeys.discKey(this.edgeLength, cell, previous);
+    }
+    if (c != DiscColor.NONE) {
+      this.discHash ^= ZobristKeys.discKey(this.edgeLength, cell, c);
+    }
+  }
+
+  /**
+   * Switches the active player to the next player and updates the game state.
+   */
+  private void nextPlayerTurn() {
+    if (this.gameState == GameState.UNSTARTED) {
+      this.gameState = GameState.BLACKMOVE;
+    } else {
+      switchGameState();
+    }
+    this.broadcaster.modelMutated();
+  }
+
+  /**
+   * Switches the game state between BLACKMOVE and WHITEMOVE.
+   */
+  private void switchGameState() {
+    if (this.gameState == GameState.BLACKMOVE) {
+      this.gameState = GameState.WHITEMOVE;
+    } else if (this.gameState == GameState.WHITEMOVE) {
+      this.gameState = GameState.BLACKMOVE;
+    }
+  }
+
+  /**
+   * A view of the board that reads the chunks whenever it is accessed.
+   */
+  private class ChunksView implements BoardView {
+    // A list of every cell, which reads the chunks by cell index.
+    private final List<DiscColor> cells = Collections.unmodifiableList(new CellList());
+
+    @Override
+    public int rowCount() {
+      return ChunkedReversiModel.this.rowCount;
+    }
+
+    @Override
+    public int rowLength(int row) {
+      Objects.checkIndex(row, ChunkedReversiModel.this.rowCount);
+      return ChunkedReversiModel.this.rowLength(row);
+    }
+
+    @Override
+    public DiscColor colorAt(int row, int col) {
+      Objects.checkIndex(col, rowLength(row));
+      return colorOf(cellIndex(row, col));
+    }
+
+    @Override
+    public List<DiscColor> rawCells() {
+      return this.cells;
+    }
+  }
+
+  /**
+   * A read only list of the colors of every cell in order of cell index.
+   */
+  private class CellList extends AbstractList<DiscColor> {
+    @Override
+    public DiscColor get(int cell) {
+      Objects.checkIndex(cell, ChunkedReversiModel.this.cellCount);
+      return colorOf(cell);
+    }
+
+    @Override
+    public int size() {
+      return ChunkedReversiModel.this.cellCount;
+    }
+  }
+
+  private void throwIfGameStarted() throws IllegalStateException {
+    if (this.gameState != GameState.UNSTARTED) {
+      throw new IllegalStateException("The game has already started");
+    }
+  }
+
+  private void throwIfGameUnstarted() throws IllegalStateException {
+    if (this.gameState == GameState.UNSTARTED) {
+      throw new IllegalStateException("The game hasn't started yet");
+    }
+  }
+
+  private void throwIfGameOver() throws IllegalStateException {
+    if (this.gameState == GameState.GAMEOVER) {
+      throw new IllegalStateException("The game has ended");
+    }
+  }
+
+  private void throwIfGameNotOver() throws IllegalStateException {
+    if (this.gameState != GameState.GAMEOVER) {
+      throw new IllegalStateException("The game is not over yet");
+    }
+  }
+
+  private void throwIfInvalidPlayer(DiscColor c) throws IllegalArgumentException {
+    if (c == DiscColor.NONE) {
+      throw new IllegalArgumentException("Invalid player");
+    }
+  }
+
+  private void throwIfInvalidCoords(RowColCoords coords) {
+    if (!isValid(coords.getRow(), coords.getCol())) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+  }
+}
@@ -0,0 +1,352 @@
+package cs3500.reversi.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import cs3500.reversi.controller.ModelCallbackListener;
+
+/**
+ * A game of Reversi that any number of threads can read while one thread plays it. Moves are
+ * played on a private ReversiModel, and after each one the new position is published as an
+ * immutable BoardSnapshot through a volatile field. Every read is answered from the latest
+ * snapshot without locking, so a view can render, or an analysis thread can search, while the
+ * game goes on, and each read sees a single consistent position. Reads never change anything,
+ * unlike ReversiModel's, whose isGameOver can update the game state.
+ * Moves are meant to come from a single thread (such as the controller's). Moves from
+ * different threads are still played one at a time, but which is played first isn't defined.
+ * Listeners are only told about a move once its position has been published.
+ */
+public final class ConcurrentReversiModel implements MutableReversiModel {
+  // The six directions, stored once so that walking around a cell doesn't copy the array
+  // returned by Direction.values().
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  // The model the moves are played on, only used while holding its lock.
+  private final ReversiModel writer;
+
+  // The object that broadcasts to its listeners when the model is mutated.
+  private final ModelCallback broadcaster;
+
+  // The latest position, replaced whenever the writer changes.
+  private volatile BoardSnapshot position;
+
+  /**
+   * Constructs a ConcurrentReversiModel that plays moves on the given model.
+   * @param writer a model that nothing else holds a reference to
+   */
+  private ConcurrentReversiModel(ReversiModel writer) {
+    this.writer = writer;
+    this.broadcaster = new ModelMutatedBroadcaster();
+    this.position = writer.getSnapshot();
+    writer.setBroadcastListener(new Publisher());
+  }
+
+  /**
+   * Creates a ConcurrentReversiModel with a grid of the given size.
+   * @param edgeLength the number of cells per edge of the regular hexagonal grid
+   * @return a new ConcurrentReversiModel
+   * @throws IllegalArgumentException if the edge length is less than 2
+   */
+  public static ConcurrentReversiModel create(int edgeLength) throws IllegalArgumentException {
+    return new ConcurrentReversiModel(ReversiModel.create(edgeLength));
+  }
+
+  /**
+   * Creates a ConcurrentReversiModel that starts from the position of another game.
+   * @param model some game of Reversi
+   * @return a new ConcurrentReversiModel with the same grid, game state, and pass counter
+   */
+  public static ConcurrentReversiModel createCopy(ROReversiModel model) {
+    return new ConcurrentReversiModel(ReversiModel.fromSnapshot(model.getSnapshot()));
+  }
+
+  @Override
+  public void setBroadcastListener(ModelCallbackListener controller) {
+    this.broadcaster.addListener(controller);
+  }
+
+  @Override
+  public void removeBroadcastListener(ModelCallbackListener controller) {
+    this.broadcaster.removeListener(controller);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof ConcurrentReversiModel)) {
+      return false;
+    }
+    return this.position.equals(((ConcurrentReversiModel) other).position);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.position.hashCode();
+  }
+
+  @Override
+  public void startGame() throws IllegalStateException {
+    synchronized (this.writer) {
+      this.writer.startGame();
+      publish();
+    }
+  }
+
+  @Override
+  public void pass() throws IllegalStateException {
+    synchronized (this.writer) {
+      this.writer.pass();
+      publish();
+    }
+  }
+
+  @Override
+  public void placeDiscInCell(RowColCoords cell) throws IllegalStateException {
+    synchronized (this.writer) {
+      this.writer.placeDiscInCell(cell);
+      publish();
+    }
+  }
+
+  @Override
+  public UndoRecord makeMove(RowColCoords cell)
+          throws IllegalArgumentException, IllegalStateException {
+    synchronized (this.writer) {
+      UndoRecord record = this.writer.makeMove(cell);
+      publish();
+      return record;
+    }
+  }
+
+  @Override
+  public UndoRecord makePass() throws IllegalStateException {
+    synchronized (this.writer) {
+      UndoRecord record = this.writer.makePass();
+      publish();
+      return record;
+    }
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) throws IllegalArgumentException {
+    synchronized (this.writer) {
+      this.writer.unmakeMove(record);
+      publish();
+    }
+  }
+
+  @Override
+  public boolean isGameOver() {
+    BoardSnapshot current = this.position;
+    return current.getGameState() == GameState.GAMEOVER || current.getPassCounter() >= 2;
+  }
+
+  @Override
+  public GameState getGameState() {
+    return this.position.getGameState();
+  }
+
+  @Override
+  public List<List<DiscColor>> getGrid() {
+    return this.position.getGrid();
+  }
+
+  @Override
+  public BoardView getBoardView() {
+    return this.position;
+  }
+
+  @Override
+  public BoardSnapshot getSnapshot() {
+    return this.position;
+  }
+
+  @Override
+  public DiscColor getActivePlayerColor() throws IllegalStateException {
+    return activePlayer(this.position);
+  }
+
+  @Override
+  public int getPlayerScore(DiscColor c) throws IllegalArgumentException {
+    throwIfInvalidPlayer(c);
+    return this.position.getDiscCount(c);
+  }
+
+  @Override
+  public int getDiscCount(DiscColor c) {
+    return this.position.getDiscCount(c);
+  }
+
+  @Override
+  public DiscColor getColorAt(RowColCoords coords) throws IllegalArgumentException {
+    return this.position.getColorAt(coords);
+  }
+
+  @Override
+  public DiscColor getWinner() throws IllegalStateException {
+    BoardSnapshot current = this.position;
+    if (current.getGameState() != GameState.GAMEOVER) {
+      throw new IllegalStateException("The game is not over yet");
+    }
+    int blackScore = current.getDiscCount(DiscColor.BLACK);
+    int whiteScore = current.getDiscCount(DiscColor.WHITE);
+    if (blackScore > whiteScore) {
+      return DiscColor.BLACK;
+    } else if (whiteScore > blackScore) {
+      return DiscColor.WHITE;
+    } else {
+      return DiscColor.NONE;
+    }
+  }
+
+  @Override
+  public int getEdgeLength() {
+    return this.position.getEdgeLength();
+  }
+
+  @Override
+  public int getPassCounter() {
+    return this.position.getPassCounter();
+  }
+
+  @Override
+  public long getPositionHash() {
+    return this.position.getPositionHash();
+  }
+
+  @Override
+  public boolean anyLegalMoves() throws IllegalStateException {
+    BoardSnapshot current = this.position;
+    DiscColor player = activePlayer(current);
+    BitSet frontier = current.frontier();
+    for (int cell = frontier.nextSetBit(0); cell >= 0; cell = frontier.nextSetBit(cell + 1)) {
+      if (current.flipsAt(cell, player) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public BitSet legalMoves() throws IllegalStateException {
+    BitSet moves = new BitSet();
+    forEachLegalMove((cell, flips) -> moves.set(cell));
+    return moves;
+  }
+
+  @Override
+  public void forEachLegalMove(IntIntConsumer action) throws IllegalStateException {
+    BoardSnapshot current = this.position;
+    DiscColor player = activePlayer(current);
+    BitSet frontier = current.frontier();
+    for (int cell = frontier.nextSetBit(0); cell >= 0; cell = frontier.nextSetBit(cell + 1)) {
+      int flips = current.flipsAt(cell, player);
+      if (flips > 0) {
+        action.accept(cell, flips);
+      }
+    }
+  }
+
+  @Override
+  public int legalMoves(int[] cells, int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    return ParallelMoveGenerator.legalMovesSequentially(this.position, cells, flipCounts);
+  }
+
+  @Override
+  public Map<Boolean, Integer> validMove(RowColCoords coords)
+          throws IllegalArgumentException, IllegalStateException {
+    BoardSnapshot current = this.position;
+    DiscColor player = activePlayer(current);
+    int flips = current.flipsAt(cellIndex(current, coords), player);
+    return Collections.singletonMap(flips != 0, flips);
+  }
+
+  @Override
+  public int countFlips(RowColCoords coords, DiscColor color) throws IllegalArgumentException {
+    BoardSnapshot current = this.position;
+    int cell = cellIndex(current, coords);
+    throwIfInvalidPlayer(color);
+    return current.flipsAt(cell, color);
+  }
+
+  @Override
+  public List<List<RowColCoords>> discsToCapture(RowColCoords coords) {
+    BoardSnapshot current = this.position;
+    HexGeometry geometry = current.geometry();
+    int cell = cellIndex(current, coords);
+    DiscColor player = activePlayer(current);
+    List<List<RowColCoords>> discs = new ArrayList<>();
+    for (Direction dir : DIRECTIONS) {
+      int captured = current.capturedInLine(cell, dir, player);
+      if (captured > 0) {
+        List<RowColCoords> line = new ArrayList<>();
+        for (int step = 0; step < captured; step++) {
+          line.add(geometry.coords(geometry.rayCell(dir, cell, step)));
+        }
+        discs.add(line);
+      }
+    }
+    return discs;
+  }
+
+  /**
+   * Publishes the writer's current position to readers. Only called while holding the writer's
+   * lock.
+   */
+  private void publish() {
+    this.position = this.writer.getSnapshot();
+  }
+
+  private static DiscColor activePlayer(BoardSnapshot current) throws IllegalStateException {
+    switch (current.getGameState()) {
+      case BLACKMOVE:
+        return DiscColor.BLACK;
+      case WHITEMOVE:
+        return DiscColor.WHITE;
+      case UNSTARTED:
+        throw new IllegalStateException("The game hasn't started");
+      default:
+        throw new IllegalStateException("The game has already ended");
+    }
+  }
+
+  private static int cellIndex(BoardSnapshot current, RowColCoords coords)
+          throws IllegalArgumentException {
+    if (!current.geometry().isValid(coords.getRow(), coords.getCol())) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return current.geometry().cellIndex(coords);
+  }
+
+  private static void throwIfInvalidPlayer(DiscColor c) throws IllegalArgumentException {
+    if (c == DiscColor.NONE) {
+      throw new IllegalArgumentException("Invalid player");
+    }
+  }
+
+  /**
+   * Listens to the writer's broadcast, publishing each new position before passing the
+   * broadcast on to this model's own listeners, so they only ever read the position they are
+   * being told about.
+   */
+  private final class Publisher implements ModelCallbackListener {
+    @Override
+    public void updateView() {
+      publish();
+    }
+
+    @Override
+    public void nextPlayerTurn() {
+      ConcurrentReversiModel.this.broadcaster.modelMutated();
+    }
+
+    @Override
+    public void endGame() {
+      publish();
+      ConcurrentReversiModel.this.broadcaster.gameOver();
+    }
+  }
+}
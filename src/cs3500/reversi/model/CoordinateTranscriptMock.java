@@ -90,6 +90,11 @@ public class CoordinateTranscriptMock implements MutableReversiModel {
     return null;
   }
 
+  @Override
+  public int countFlips(RowColCoords coords, DiscColor color) throws IllegalArgumentException {
+    return 0;
+  }
+
   @Override
   public DiscColor getActivePlayerColor() throws IllegalStateException {
     return null;
@@ -130,6 +135,21 @@ public class CoordinateTranscriptMock implements MutableReversiModel {
     // Do nothing
   }
 
+  @Override
+  public UndoRecord makeMove(RowColCoords cell) throws IllegalStateException {
+    return null;
+  }
+
+  @Override
+  public UndoRecord makePass() throws IllegalStateException {
+    return null;
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) throws IllegalArgumentException {
+    // Do nothing
+  }
+
   @Override
   public void setBroadcastListener(ModelCallbackListener controller) {
     // Do nothing
@@ -0,0 +1,13 @@
+package cs3500.reversi.model;
+
+/**
+ * An enum representing the six directions around a pointy-top hexagon.
+ */
+public enum Direction {
+  topLeft,
+  topRight,
+  centerLeft,
+  centerRight,
+  bottomLeft,
+  bottomRight
+}
@@ -33,6 +33,12 @@ public class ForcedMoveMock implements MutableReversiModel {
     }
   }
 
+  @Override
+  public int countFlips(RowColCoords coords, DiscColor color) throws IllegalArgumentException {
+    // Say the forced move is worth 100 points and every other move is worth 0
+    return this.forcedMoveCell.equals(coords) ? 100 : 0;
+  }
+
   @Override
   public List<List<RowColCoords>> discsToCapture(RowColCoords coords) {
     return delegateModel.discsToCapture(coords);
@@ -106,6 +112,21 @@ public class ForcedMoveMock implements MutableReversiModel {
     delegateModel.startGame();
   }
 
+  @Override
+  public UndoRecord makeMove(RowColCoords cell) throws IllegalStateException {
+    return delegateModel.makeMove(cell);
+  }
+
+  @Override
+  public UndoRecord makePass() throws IllegalStateException {
+    return delegateModel.makePass();
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) throws IllegalArgumentException {
+    delegateModel.unmakeMove(record);
+  }
+
   @Override
   public void setBroadcastListener(ModelCallbackListener controller) {
     delegateModel.setBroadcastListener(controller);
@@ -0,0 +1,220 @@
+package cs3500.reversi.model;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Reads the game records written by a GameRecordWriter (see it for the format) one at a time
+ * from a stream, replaying each onto a new model with no views or listeners attached. Only the
+ * record being replayed is ever held in memory, so files of any number of games can be read.
+ */
+public final class GameRecordReader implements AutoCloseable {
+  // The stream the records are read from.
+  private final InputStream in;
+
+  // Creates the model each record is replayed onto, given its edge length.
+  private final IntFunction<MutableReversiModel> factory;
+
+  // The descriptions of the black and white players of the last record read.
+  private String blackPlayer;
+  private String whitePlayer;
+
+  // The turns of the last record read (the cell index of each move, or -1 for a pass), and
+  // how many there were.
+  private int[] turns;
+  private int turnCount;
+
+  // Whether the last record read ended before its game was over, because it was cut off or its
+  // game was abandoned.
+  private boolean truncated;
+
+  /**
+   * Constructs a GameRecordReader.
+   * @param in the stream to read the records from
+   * @param factory creates the model each record is replayed onto, given its edge length
+   */
+  private GameRecordReader(InputStream in, IntFunction<MutableReversiModel> factory) {
+    this.in = new BufferedInputStream(Objects.requireNonNull(in));
+    this.factory = Objects.requireNonNull(factory);
+    this.blackPlayer = "";
+    this.whitePlayer = "";
+    this.turns = new int[64];
+    this.turnCount = 0;
+    this.truncated = false;
+  }
+
+  /**
+   * Creates a GameRecordReader that replays records onto new ReversiModels.
+   * @param in the stream to read the records from
+   * @return a new GameRecordReader
+   */
+  public static GameRecordReader create(InputStream in) {
+    return new GameRecordReader(in, ReversiModel::create);
+  }
+
+  /**
+   * Creates a GameRecordReader that replays records onto models from a factory, such as
+   * BitboardReversiModel::create.
+   * @param in the stream to read the records from
+   * @param factory creates an unstarted model with the given edge length
+   * @return a new GameRecordReader
+   */
+  public static GameRecordReader create(InputStream in,
+                                        IntFunction<MutableReversiModel> factory) {
+    return new GameRecordReader(in, factory);
+  }
+
+  /**
+   * Reads the next record and replays it onto a new model. A record that ends before its game
+   * is over (because it was cut off, is still being written, or its game was abandoned) is
+   * replayed up to its last turn.
+   * @return the model after the last turn of the record, or null if there are no more records
+   * @throws IOException if the stream can't be read or doesn't hold a game record
+   * @throws IllegalStateException if the record has a move that isn't legal
+   */
+  public MutableReversiModel replayNext() throws IOException, IllegalStateException {
+    int first = this.in.read();
+    if (first == -1) {
+      return null;
+    }
+    if (first != GameRecordWriter.MAGIC_1 || this.in.read() != GameRecordWriter.MAGIC_2) {
+      throw new StreamCorruptedException("Not a game record");
+    }
+    if (this.in.read() != GameRecordWriter.VERSION) {
+      throw new StreamCorruptedException("Unknown game record version");
+    }
+    int edgeLength = readVarint(this.in);
+    if (edgeLength < 2 || edgeLength > GameRecordWriter.MAX_EDGE_LENGTH) {
+      throw new StreamCorruptedException("Invalid edge length");
+    }
+    this.blackPlayer = readString(this.in);
+    this.whitePlayer = readString(this.in);
+    this.turnCount = 0;
+    this.truncated = true;
+
+    MutableReversiModel model = this.factory.apply(edgeLength);
+    HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+    model.startGame();
+    while (true) {
+      int value;
+      try {
+        value = readVarint(this.in);
+      } catch (EOFException e) {
+        return model;
+      }
+      if (value == GameRecordWriter.END) {
+        this.truncated = false;
+        return model;
+      } else if (value == GameRecordWriter.ABANDONED) {
+        return model;
+      }
+      int cell = value - GameRecordWriter.MOVE_OFFSET;
+      if (cell >= geometry.cellCount()) {
+        throw new StreamCorruptedException("Cell index out of range");
+      } else if (value == GameRecordWriter.PASS) {
+        cell = -1;
+        model.pass();
+      } else {
+        model.placeDiscInCell(geometry.coords(cell));
+      }
+      if (this.turnCount == this.turns.length) {
+        this.turns = Arrays.copyOf(this.turns, this.turns.length * 2);
+      }
+      this.turns[this.turnCount++] = cell;
+    }
+  }
+
+  /**
+   * Returns the description of a player of the last record read.
+   * @param color the player's color, black or white
+   * @return the description the record was written with
+   * @throws IllegalArgumentException if the color is neither black nor white
+   */
+  public String getPlayer(DiscColor color) throws IllegalArgumentException {
+    if (color == DiscColor.BLACK) {
+      return this.blackPlayer;
+    } else if (color == DiscColor.WHITE) {
+      return this.whitePlayer;
+    } else {
+      throw new IllegalArgumentException("Invalid player color");
+    }
+  }
+
+  /**
+   * Returns the number of moves and passes in the last record read.
+   * @return the number of turns replayed
+   */
+  public int getTurnCount() {
+    return this.turnCount;
+  }
+
+  /**
+   * Returns the turns of the last record read, in the order they were played.
+   * @return the cell index (see HexGeometry) of each move, or -1 for each pass
+   */
+  public int[] getTurns() {
+    return Arrays.copyOf(this.turns, this.turnCount);
+  }
+
+  /**
+   * Determines whether the last record read ended before its game was over.
+   * @return true iff the record was cut off or its game was abandoned
+   */
+  public boolean wasTruncated() {
+    return this.truncated;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.in.close();
+  }
+
+  /**
+   * Reads a varint from a stream.
+   * @param in the stream to read from
+   * @return the number read
+   * @throws EOFException if the stream ends before the varint does
+   * @throws IOException if the stream can't be read or the varint is too long
+   */
+  static int readVarint(InputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.read();
+      if (b == -1) {
+        throw new EOFException();
+      }
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new StreamCorruptedException("Varint too large");
+        }
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("Varint too long");
+  }
+
+  private static String readString(InputStream in) throws IOException {
+    int length = readVarint(in);
+    if (length > GameRecordWriter.MAX_PLAYER_BYTES) {
+      throw new StreamCorruptedException("Player description too long");
+    }
+    byte[] bytes = new byte[length];
+    int read = 0;
+    while (read < length) {
+      int count = in.read(bytes, read, length - read);
+      if (count == -1) {
+        throw new EOFException();
+      }
+      read += count;
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,228 @@
+package cs3500.reversi.model;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Objects;
+
+import cs3500.reversi.controller.ModelCallbackListener;
+
+/**
+ * Writes an append-only record of a game of Reversi by listening to its model's broadcast, so
+ * every game played through the controllers can be archived and replayed later by a
+ * GameRecordReader. Any number of records can be written one after another to the same stream.
+ * A record is the bytes 'R' and 'G', the format version, the edge length as a varint, and the
+ * names of the black and white players (each a varint byte count followed by UTF-8), then one
+ * varint per turn: 1 for a pass or the move's cell index (see HexGeometry) plus 3. It ends with
+ * a 0 once the game is over, or a 2 if the writer was closed before then, so that a record
+ * written after an abandoned game can still be found. Varints are unsigned LEB128: 7 bits per
+ * byte, lowest bits first, with the top bit set on every byte but the last, so boards with edge
+ * length up to 6 take a single byte per turn.
+ * Turns are buffered and only written to the stream once the game ends or the writer is
+ * flushed or closed.
+ */
+public final class GameRecordWriter implements ModelCallbackListener, AutoCloseable {
+  // The bytes every record starts with.
+  static final int MAGIC_1 = 'R';
+  static final int MAGIC_2 = 'G';
+
+  // The version of the format written.
+  static final int VERSION = 1;
+
+  // The varints that end a record, stand for a pass, and end the record of an abandoned game,
+  // and the amount added to a cell index.
+  static final int END = 0;
+  static final int PASS = 1;
+  static final int ABANDONED = 2;
+  static final int MOVE_OFFSET = 3;
+
+  // The largest edge length a record can have (about 3 million cells) and the most bytes a
+  // player's description can take, so that a reader never has to build a board or string from a
+  // corrupt header that doesn't fit in memory.
+  public static final int MAX_EDGE_LENGTH = 1000;
+  public static final int MAX_PLAYER_BYTES = 1 << 16;
+
+  // The game being recorded.
+  private final MutableReversiModel model;
+
+  // The geometry of the model's grid.
+  private final HexGeometry geometry;
+
+  // The stream the record is written to.
+  private final OutputStream out;
+
+  // The cells that were empty the last time the model changed.
+  private final BitSet empty;
+
+  // The model's pass counter the last time it changed.
+  private int passCounter;
+
+  // Whether the end of the record has been written.
+  private boolean ended;
+
+  /**
+   * Constructs a GameRecordWriter and writes the header of the record.
+   * @param model the game to record, which hasn't started yet
+   * @param out the stream to write the record to
+   * @param blackPlayer a description of the black player
+   * @param whitePlayer a description of the white player
+   * @throws IOException if the header can't be written
+   */
+  private GameRecordWriter(MutableReversiModel model, OutputStream out, String blackPlayer,
+                           String whitePlayer) throws IOException {
+    this.model = model;
+    this.geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
+    this.out = new BufferedOutputStream(out);
+    this.empty = new BitSet(this.geometry.cellCount());
+    BoardView view = model.getBoardView();
+    for (int cell = 0; cell < this.geometry.cellCount(); cell++) {
+      if (view.colorAt(this.geometry.rowOf(cell), this.geometry.colOf(cell)) == DiscColor.NONE) {
+        this.empty.set(cell);
+      }
+    }
+    this.passCounter = model.getPassCounter();
+    this.ended = false;
+
+    this.out.write(MAGIC_1);
+    this.out.write(MAGIC_2);
+    this.out.write(VERSION);
+    writeVarint(this.out, model.getEdgeLength());
+    writeString(this.out, blackPlayer);
+    writeString(this.out, whitePlayer);
+  }
+
+  /**
+   * Creates a GameRecordWriter that records every turn of a game from now on, writes the header
+   * of the record, and subscribes it to the model's broadcast.
+   * @param model the game to record, which hasn't started yet
+   * @param out the stream to write the record to
+   * @param blackPlayer a description of the black player
+   * @param whitePlayer a description of the white player
+   * @return a new GameRecordWriter
+   * @throws IllegalArgumentException if the edge length is more than MAX_EDGE_LENGTH or a
+   *                                  description takes more than MAX_PLAYER_BYTES in UTF-8
+   * @throws IllegalStateException if the game has already started
+   * @throws IOException if the header can't be written
+   */
+  public static GameRecordWriter create(MutableReversiModel model, OutputStream out,
+                                        String blackPlayer, String whitePlayer)
+          throws IllegalArgumentException, IllegalStateException, IOException {
+    Objects.requireNonNull(out);
+    if (model.getEdgeLength() > MAX_EDGE_LENGTH) {
+      throw new IllegalArgumentException("Edge length too large to record");
+    }
+    if (blackPlayer.getBytes(StandardCharsets.UTF_8).length > MAX_PLAYER_BYTES
+            || whitePlayer.getBytes(StandardCharsets.UTF_8).length > MAX_PLAYER_BYTES) {
+      throw new IllegalArgumentException("Player description too long to record");
+    }
+    if (model.getGameState() != GameState.UNSTARTED) {
+      throw new IllegalStateException("Game has already started");
+    }
+    GameRecordWriter writer = new GameRecordWriter(model, out, blackPlayer, whitePlayer);
+    model.setBroadcastListener(writer);
+    return writer;
+  }
+
+  @Override
+  public synchronized void updateView() {
+    recordTurn();
+  }
+
+  @Override
+  public void nextPlayerTurn() {
+    // The turn was already recorded when the views were updated
+  }
+
+  @Override
+  public synchronized void endGame() {
+    recordTurn();
+    if (!this.ended) {
+      this.ended = true;
+      write(END);
+      flush();
+    }
+  }
+
+  /**
+   * Writes every buffered turn to the stream.
+   * @throws IllegalStateException if the stream can't be written to
+   */
+  public synchronized void flush() throws IllegalStateException {
+    try {
+      this.out.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write the game record", e);
+    }
+  }
+
+  /**
+   * Stops recording the game, writes every buffered turn, and closes the stream. A record closed
+   * before the game is over is ended as abandoned, and is replayed up to its last turn.
+   * @throws IOException if the stream can't be written to or closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    this.model.removeBroadcastListener(this);
+    if (!this.ended) {
+      this.ended = true;
+      writeVarint(this.out, ABANDONED);
+    }
+    this.out.close();
+  }
+
+  /**
+   * Writes a varint to a stream.
+   * @param out the stream to write to
+   * @param value a non-negative number
+   * @throws IOException if the stream can't be written to
+   */
+  static void writeVarint(OutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static void writeString(OutputStream out, String text) throws IOException {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    writeVarint(out, bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Works out what the last turn was from how the model changed since it was last seen, and
+   * writes it to the record. Placing a disc fills exactly one empty cell, and passing adds one
+   * to the pass counter without changing the grid.
+   */
+  private void recordTurn() {
+    if (this.ended) {
+      return;
+    }
+    BoardView view = this.model.getBoardView();
+    int placed = -1;
+    for (int cell = this.empty.nextSetBit(0); cell >= 0; cell = this.empty.nextSetBit(cell + 1)) {
+      if (view.colorAt(this.geometry.rowOf(cell), this.geometry.colOf(cell)) != DiscColor.NONE) {
+        placed = cell;
+        break;
+      }
+    }
+    if (placed >= 0) {
+      this.empty.clear(placed);
+      write(placed + MOVE_OFFSET);
+    } else if (this.model.getPassCounter() > this.passCounter) {
+      write(PASS);
+    }
+    this.passCounter = this.model.getPassCounter();
+  }
+
+  private void write(int value) throws IllegalStateException {
+    try {
+      writeVarint(this.out, value);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write the game record", e);
+    }
+  }
+}
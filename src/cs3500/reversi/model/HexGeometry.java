@@ -0,0 +1,374 @@
+package cs3500.reversi.model;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The precomputed layout of a regular hexagonal grid with a given edge length. Every cell is
+ * given an index (0-indexed in row-major order, so the cells of row r are numbered from
+ * rowStart(r) up to rowStart(r + 1) - 1), and the index of the adjacent cell and the whole line
+ * of cells in each of the six directions from every cell are stored in tables so that nothing
+ * has to be computed while walking across the grid.
+ * A HexGeometry is immutable, so there is only ever one for each edge length in use and it is
+ * shared by every model, strategy, and view that works on a grid of that size. Small geometries
+ * are kept for as long as the program runs, but big ones take about 100 bytes per cell (hundreds
+ * of megabytes for an edge length of 1000), so they are only kept while memory allows once
+ * nothing is using them.
+ */
+public final class HexGeometry {
+  // The most cells a geometry can have to be kept for as long as the program runs (an edge
+  // length of 37), and to have a table of the coordinates of its cells (an edge length of 148).
+  private static final int KEPT_CELLS = 1 << 12;
+  private static final int COORDS_TABLE_CELLS = 1 << 16;
+
+  // The small geometries for every edge length that has been asked for so far, and the big
+  // ones, which the garbage collector can clear once nothing else uses them.
+  private static final Map<Integer, HexGeometry> REGISTRY = new ConcurrentHashMap<>();
+  private static final Map<Integer, SoftReference<HexGeometry>> LARGE_REGISTRY =
+      new ConcurrentHashMap<>();
+
+  // The three lines through a cell, each made of two opposite directions.
+  private static final int ROW_AXIS = 0;
+  private static final int FALLING_AXIS = 1;
+  private static final int RISING_AXIS = 2;
+
+  // The axis of each direction, indexed by Direction ordinal. The first three directions point
+  // toward the start of their lines and the last three point toward the end.
+  private static final int[] AXES = {
+      FALLING_AXIS, RISING_AXIS, ROW_AXIS, ROW_AXIS, RISING_AXIS, FALLING_AXIS};
+
+  // How many cells are in each edge of the hexagonal grid.
+  private final int edgeLength;
+
+  // The number of rows in the grid.
+  private final int rowCount;
+
+  // The total number of cells in the grid.
+  private final int cellCount;
+
+  // The index of the first cell of each row, plus cellCount at the end.
+  private final int[] rowStarts;
+
+  // The row and column of each cell.
+  private final int[] rows;
+  private final int[] cols;
+
+  // The coordinates of each cell, so that looking them up never allocates, or null if the grid
+  // has more than COORDS_TABLE_CELLS cells.
+  private final RowColCoords[] coords;
+
+  // The index of the adjacent cell in each direction from each cell (or -1 if that would be
+  // off the grid), indexed by Direction ordinal and then by cell.
+  private final int[][] neighbours;
+
+  // For each of the three axes, every cell of the grid ordered line by line so that the cells of
+  // each line are contiguous and ordered in the axis' positive direction (center right, bottom
+  // right, or bottom left). The ray from a cell in some direction is then just the cells before or
+  // after that cell in its line.
+  private final int[][] lineOrder;
+
+  // For each axis, the position of each cell in lineOrder.
+  private final int[][] linePosition;
+
+  // For each axis, the position in lineOrder of the first cell of each cell's line and the
+  // position just past the last cell of each cell's line.
+  private final int[][] lineStart;
+  private final int[][] lineEnd;
+
+  /**
+   * Constructs a HexGeometry and fills in all of its tables.
+   * @param edgeLength the number of cells per edge of the grid
+   */
+  private HexGeometry(int edgeLength) {
+    this.edgeLength = edgeLength;
+    this.rowCount = edgeLength * 2 - 1;
+
+    this.rowStarts = new int[this.rowCount + 1];
+    for (int row = 0; row < this.rowCount; row++) {
+      this.rowStarts[row + 1] = this.rowStarts[row] + computeRowLength(row);
+    }
+    this.cellCount = this.rowStarts[this.rowCount];
+
+    this.rows = new int[this.cellCount];
+    this.cols = new int[this.cellCount];
+    for (int row = 0; row < this.rowCount; row++) {
+      for (int cell = this.rowStarts[row]; cell < this.rowStarts[row + 1]; cell++) {
+        this.rows[cell] = row;
+        this.cols[cell] = cell - this.rowStarts[row];
+      }
+    }
+    if (this.cellCount <= COORDS_TABLE_CELLS) {
+      this.coords = new RowColCoords[this.cellCount];
+      for (int cell = 0; cell < this.cellCount; cell++) {
+        this.coords[cell] = RowColCoords.of(this.rows[cell], this.cols[cell]);
+      }
+    } else {
+      this.coords = null;
+    }
+
+    this.neighbours = new int[Direction.values().length][this.cellCount];
+    for (Direction dir : Direction.values()) {
+      for (int cell = 0; cell < this.cellCount; cell++) {
+        this.neighbours[dir.ordinal()][cell] = computeNeighbour(cell, dir);
+      }
+    }
+
+    this.lineOrder = new int[3][this.cellCount];
+    this.linePosition = new int[3][this.cellCount];
+    this.lineStart = new int[3][this.cellCount];
+    this.lineEnd = new int[3][this.cellCount];
+    fillLines(ROW_AXIS, Direction.centerLeft, Direction.centerRight);
+    fillLines(FALLING_AXIS, Direction.topLeft, Direction.bottomRight);
+    fillLines(RISING_AXIS, Direction.topRight, Direction.bottomLeft);
+  }
+
+  /**
+   * Returns the geometry of a grid with the given edge length, creating it the first time
+   * it is asked for (or, for a big grid, again if it has since been cleared).
+   * @param edgeLength the number of cells per edge of the grid
+   * @return the shared geometry for that edge length
+   * @throws IllegalArgumentException if edgeLength is less than 2
+   */
+  public static HexGeometry forEdgeLength(int edgeLength) throws IllegalArgumentException {
+    if (edgeLength < 2) {
+      throw new IllegalArgumentException("Invalid edge length");
+    }
+    if (3L * edgeLength * (edgeLength - 1) + 1 <= KEPT_CELLS) {
+      return REGISTRY.computeIfAbsent(edgeLength, HexGeometry::new);
+    }
+    HexGeometry[] geometry = new HexGeometry[1];
+    LARGE_REGISTRY.compute(edgeLength, (key, reference) -> {
+      geometry[0] = reference == null ? null : reference.get();
+      if (geometry[0] == null) {
+        geometry[0] = new HexGeometry(key);
+        return new SoftReference<>(geometry[0]);
+      }
+      return reference;
+    });
+    return geometry[0];
+  }
+
+  /**
+   * Returns the number of cells per edge of the grid.
+   * @return the edge length
+   */
+  public int getEdgeLength() {
+    return this.edgeLength;
+  }
+
+  /**
+   * Returns the number of rows in the grid.
+   * @return the number of rows
+   */
+  public int rowCount() {
+    return this.rowCount;
+  }
+
+  /**
+   * Returns the number of cells in the grid.
+   * @return the number of cells
+   */
+  public int cellCount() {
+    return this.cellCount;
+  }
+
+  /**
+   * Returns the index of the first cell in a row.
+   * @param row a row of the grid, or rowCount() to get the total number of cells
+   * @return the index of the leftmost cell of that row
+   */
+  public int rowStart(int row) {
+    return this.rowStarts[row];
+  }
+
+  /**
+   * Returns the number of cells in a row.
+   * @param row a row of the grid
+   * @return the length of that row
+   */
+  public int rowLength(int row) {
+    return this.rowStarts[row + 1] - this.rowStarts[row];
+  }
+
+  /**
+   * Determines whether some coordinates specify a cell in the grid.
+   * @param row the row (0-indexed from the top)
+   * @param col the column (0-indexed from the left)
+   * @return true iff there is a cell at those coordinates
+   */
+  public boolean isValid(int row, int col) {
+    return row >= 0 && row < this.rowCount && col >= 0 && col < rowLength(row);
+  }
+
+  /**
+   * Returns the index of the cell at some coordinates.
+   * @param row the row (0-indexed from the top)
+   * @param col the column (0-indexed from the left)
+   * @return the index of that cell
+   * @throws IllegalArgumentException if the coordinates do not specify a cell in the grid
+   */
+  public int cellIndex(int row, int col) throws IllegalArgumentException {
+    if (!isValid(row, col)) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return this.rowStarts[row] + col;
+  }
+
+  /**
+   * Returns the index of the cell at some coordinates.
+   * @param coords the row/column coordinates of a cell
+   * @return the index of that cell
+   * @throws IllegalArgumentException if the coordinates do not specify a cell in the grid
+   */
+  public int cellIndex(RowColCoords coords) throws IllegalArgumentException {
+    return cellIndex(coords.getRow(), coords.getCol());
+  }
+
+  /**
+   * Returns the row of a cell.
+   * @param cell the index of a cell
+   * @return its row (0-indexed from the top)
+   */
+  public int rowOf(int cell) {
+    return this.rows[cell];
+  }
+
+  /**
+   * Returns the column of a cell.
+   * @param cell the index of a cell
+   * @return its column (0-indexed from the left)
+   */
+  public int colOf(int cell) {
+    return this.cols[cell];
+  }
+
+  /**
+   * Returns the row/column coordinates of a cell.
+   * @param cell the index of a cell
+   * @return the coordinates of that cell (the same instance every time, on grids with at most
+   *         2^16 cells)
+   */
+  public RowColCoords coords(int cell) {
+    if (this.coords == null) {
+      return RowColCoords.of(this.rows[cell], this.cols[cell]);
+    }
+    return this.coords[cell];
+  }
+
+  /**
+   * Returns the cell adjacent to a cell.
+   * @param dir the direction of the adjacent cell
+   * @param cell the index of a cell
+   * @return the index of the adjacent cell, or -1 if the cell is on that edge of the grid
+   */
+  public int neighbour(Direction dir, int cell) {
+    return this.neighbours[dir.ordinal()][cell];
+  }
+
+  /**
+   * Returns the number of cells in a straight line from a cell (not counting the cell itself)
+   * to the edge of the grid.
+   * @param dir the direction of the line
+   * @param cell the index of a cell
+   * @return the number of cells in the ray
+   */
+  public int rayLength(Direction dir, int cell) {
+    int axis = axisOf(dir);
+    if (isPositive(dir)) {
+      return this.lineEnd[axis][cell] - this.linePosition[axis][cell] - 1;
+    } else {
+      return this.linePosition[axis][cell] - this.lineStart[axis][cell];
+    }
+  }
+
+  /**
+   * Returns one of the cells in a straight line from a cell.
+   * @param dir the direction of the line
+   * @param cell the index of a cell
+   * @param step which cell of the ray to get (0 is the adjacent cell), less than rayLength
+   * @return the index of the cell that many steps past the adjacent cell
+   */
+  public int rayCell(Direction dir, int cell, int step) {
+    int axis = axisOf(dir);
+    int position = this.linePosition[axis][cell];
+    return this.lineOrder[axis][isPositive(dir) ? position + 1 + step : position - 1 - step];
+  }
+
+  /**
+   * Finds the number of cells in a row.
+   * @param row a row of the grid
+   * @return the number of cells in that row
+   */
+  private int computeRowLength(int row) {
+    return this.rowCount - Math.abs(row - (this.edgeLength - 1));
+  }
+
+  /**
+   * Finds the cell adjacent to a cell. Rows above the middle row are shifted right of the row
+   * below them and rows below the middle row are shifted left of the row above them, so the
+   * column of the adjacent cell in the rows above and below depends on which half the cell is in.
+   * @param cell the index of a cell
+   * @param dir the direction of the adjacent cell
+   * @return the index of the adjacent cell or -1 if it would be off the grid
+   */
+  private int computeNeighbour(int cell, Direction dir) {
+    int row = this.rows[cell];
+    int col = this.cols[cell];
+    int middle = this.edgeLength - 1;
+    switch (dir) {
+      case topLeft:
+        return indexOrNone(row - 1, row > middle ? col : col - 1);
+      case topRight:
+        return indexOrNone(row - 1, row > middle ? col + 1 : col);
+      case centerLeft:
+        return indexOrNone(row, col - 1);
+      case centerRight:
+        return indexOrNone(row, col + 1);
+      case bottomLeft:
+        return indexOrNone(row + 1, row >= middle ? col - 1 : col);
+      case bottomRight:
+        return indexOrNone(row + 1, row >= middle ? col : col + 1);
+      default:
+        throw new IllegalStateException("No 7th direction");
+    }
+  }
+
+  private int indexOrNone(int row, int col) {
+    return isValid(row, col) ? this.rowStarts[row] + col : -1;
+  }
+
+  /**
+   * Fills in the line tables for one axis by starting a new line at every cell with no
+   * neighbour in the negative direction and following the positive direction to the edge.
+   * @param axis the axis being filled in
+   * @param negative the direction toward the start of each line
+   * @param positive the direction toward the end of each line
+   */
+  private void fillLines(int axis, Direction negative, Direction positive) {
+    int position = 0;
+    for (int first = 0; first < this.cellCount; first++) {
+      if (neighbour(negative, first) != -1) {
+        continue;
+      }
+      int start = position;
+      for (int cell = first; cell != -1; cell = neighbour(positive, cell)) {
+        this.lineOrder[axis][position] = cell;
+        this.linePosition[axis][cell] = position;
+        position++;
+      }
+      for (int i = start; i < position; i++) {
+        this.lineStart[axis][this.lineOrder[axis][i]] = start;
+        this.lineEnd[axis][this.lineOrder[axis][i]] = position;
+      }
+    }
+  }
+
+  private static int axisOf(Direction dir) {
+    return AXES[dir.ordinal()];
+  }
+
+  private static boolean isPositive(Direction dir) {
+    return dir.ordinal() >= Direction.centerRight.ordinal();
+  }
+}
@@ -0,0 +1,238 @@
+package cs3500.reversi.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The 12 symmetries of a regular hexagonal grid with a given edge length: the 6 rotations by a
+ * multiple of 60 degrees, each with or without a reflection. The rules of Reversi look the same
+ * in every direction, so a position and its 11 symmetric copies are worth the same and their
+ * best moves are the same move seen from a different angle. Caches, opening books, and
+ * position databases can store all 12 as one canonical position to take up to 12 times less
+ * room and find more of what they look up.
+ * Symmetries are numbered from 0 to 11, where symmetry s reflects the grid if s is at least 6
+ * and then rotates it by 60 degrees (s % 6) times, so symmetry 0 leaves it as it is. Where
+ * each symmetry moves each cell is stored in precomputed tables, so like a HexGeometry there
+ * is only ever one HexSymmetry for each edge length.
+ * The canonical form of a position is the symmetric copy with the smallest hash (see
+ * ZobristKeys), and its canonical hash is that hash.
+ */
+public final class HexSymmetry {
+  // The number of symmetries of a regular hexagon.
+  public static final int COUNT = 12;
+
+  // The symmetries for every edge length that has been asked for so far.
+  private static final Map<Integer, HexSymmetry> REGISTRY = new ConcurrentHashMap<>();
+
+  // The layout of the grid.
+  private final HexGeometry geometry;
+
+  // The cell each cell is moved to by each symmetry, indexed by symmetry and then by cell.
+  private final int[][] permutations;
+
+  // The symmetry that undoes each symmetry.
+  private final int[] inverses;
+
+  // The Zobrist key of a black or white disc on each cell.
+  private final long[] blackKeys;
+  private final long[] whiteKeys;
+
+  /**
+   * Constructs a HexSymmetry and fills in all of its tables.
+   * @param edgeLength the number of cells per edge of the grid
+   */
+  private HexSymmetry(int edgeLength) {
+    this.geometry = HexGeometry.forEdgeLength(edgeLength);
+    int cellCount = this.geometry.cellCount();
+    int radius = edgeLength - 1;
+
+    // Each cell as cube coordinates x (along the row), y (the row), and z, which add up to 0
+    this.permutations = new int[COUNT][cellCount];
+    for (int cell = 0; cell < cellCount; cell++) {
+      int y = this.geometry.rowOf(cell) - radius;
+      int x = this.geometry.colOf(cell) + Math.max(-radius, -radius - y);
+      int z = -x - y;
+      for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+        int[] cube = symmetry < 6 ? new int[] {x, y, z} : new int[] {y, x, z};
+        for (int turn = 0; turn < symmetry % 6; turn++) {
+          cube = new int[] {-cube[2], -cube[0], -cube[1]};
+        }
+        int row = cube[1] + radius;
+        int col = cube[0] - Math.max(-radius, -radius - cube[1]);
+        this.permutations[symmetry][cell] = this.geometry.cellIndex(row, col);
+      }
+    }
+
+    this.inverses = new int[COUNT];
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      int[] inverse = new int[cellCount];
+      for (int cell = 0; cell < cellCount; cell++) {
+        inverse[this.permutations[symmetry][cell]] = cell;
+      }
+      for (int other = 0; other < COUNT; other++) {
+        if (Arrays.equals(inverse, this.permutations[other])) {
+          this.inverses[symmetry] = other;
+          break;
+        }
+      }
+    }
+
+    this.blackKeys = new long[cellCount];
+    this.whiteKeys = new long[cellCount];
+    for (int cell = 0; cell < cellCount; cell++) {
+      this.blackKeys[cell] = ZobristKeys.discKey(edgeLength, cell, DiscColor.BLACK);
+      this.whiteKeys[cell] = ZobristKeys.discKey(edgeLength, cell, DiscColor.WHITE);
+    }
+  }
+
+  /**
+   * Returns the symmetries of a grid with the given edge length, creating them the first time
+   * they are asked for.
+   * @param edgeLength the number of cells per edge of the grid
+   * @return the shared symmetries for that edge length
+   * @throws IllegalArgumentException if edgeLength is less than 2
+   */
+  public static HexSymmetry forEdgeLength(int edgeLength) throws IllegalArgumentException {
+    if (edgeLength < 2) {
+      throw new IllegalArgumentException("Invalid edge length");
+    }
+    return REGISTRY.computeIfAbsent(edgeLength, HexSymmetry::new);
+  }
+
+  /**
+   * Returns the cell a symmetry moves a cell to.
+   * @param symmetry a symmetry from 0 to 11
+   * @param cell the index (see HexGeometry) of a cell
+   * @return the index of the cell it is moved to
+   */
+  public int mapCell(int symmetry, int cell) {
+    return this.permutations[symmetry][cell];
+  }
+
+  /**
+   * Returns the cell a symmetry moves a cell to.
+   * @param symmetry a symmetry from 0 to 11
+   * @param coords the coordinates of a cell
+   * @return the coordinates of the cell it is moved to
+   * @throws IllegalArgumentException if the coordinates aren't a cell of the grid
+   */
+  public RowColCoords map(int symmetry, RowColCoords coords) throws IllegalArgumentException {
+    return this.geometry.coords(mapCell(symmetry, this.geometry.cellIndex(coords)));
+  }
+
+  /**
+   * Returns the symmetry that moves every cell back to where a symmetry found it.
+   * @param symmetry a symmetry from 0 to 11
+   * @return the inverse symmetry
+   */
+  public int inverse(int symmetry) {
+    return this.inverses[symmetry];
+  }
+
+  /**
+   * Computes the hash the position of a game would have after a symmetry.
+   * @param model some game of Reversi with this edge length
+   * @param symmetry a symmetry from 0 to 11
+   * @return the Zobrist hash of the symmetric position
+   */
+  public long hash(ROReversiModel model, int symmetry) {
+    long hash = ZobristKeys.stateKey(model.getGameState(), model.getPassCounter());
+    int[] permutation = this.permutations[symmetry];
+    List<DiscColor> cells = model.getBoardView().rawCells();
+    for (int cell = 0; cell < cells.size(); cell++) {
+      DiscColor color = cells.get(cell);
+      if (color == DiscColor.BLACK) {
+        hash ^= this.blackKeys[permutation[cell]];
+      } else if (color == DiscColor.WHITE) {
+        hash ^= this.whiteKeys[permutation[cell]];
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Finds the symmetry that turns the position of a game into its canonical form, reading the
+   * grid only once.
+   * @param model some game of Reversi with this edge length
+   * @return the symmetry from 0 to 11 giving the smallest hash (the lowest such symmetry if
+   *         several do, because the position is symmetric)
+   */
+  public int canonicalSymmetry(ROReversiModel model) {
+    long[] hashes = hashes(model);
+    int best = 0;
+    for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+      if (hashes[symmetry] < hashes[best]) {
+        best = symmetry;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Computes the hash of the canonical form of the position of a game, which is the same for
+   * all 12 symmetric copies of the position.
+   * @param model some game of Reversi with this edge length
+   * @return the smallest hash of any symmetric copy of the position
+   */
+  public long canonicalHash(ROReversiModel model) {
+    long[] hashes = hashes(model);
+    long best = hashes[0];
+    for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+      best = Math.min(best, hashes[symmetry]);
+    }
+    return best;
+  }
+
+  /**
+   * Takes a snapshot of the position of a game after a symmetry.
+   * @param model some game of Reversi with this edge length
+   * @param symmetry a symmetry from 0 to 11
+   * @return the symmetric position, with the same game state and pass counter
+   */
+  public BoardSnapshot transform(ROReversiModel model, int symmetry) {
+    int[] permutation = this.permutations[symmetry];
+    DiscColor[][] rows = new DiscColor[this.geometry.rowCount()][];
+    for (int row = 0; row < rows.length; row++) {
+      rows[row] = new DiscColor[this.geometry.rowLength(row)];
+    }
+    List<DiscColor> cells = model.getBoardView().rawCells();
+    for (int cell = 0; cell < cells.size(); cell++) {
+      int moved = permutation[cell];
+      rows[this.geometry.rowOf(moved)][this.geometry.colOf(moved)] = cells.get(cell);
+    }
+    return BoardSnapshot.fromRows(this.geometry, rows, model.getGameState(),
+            model.getPassCounter());
+  }
+
+  /**
+   * Takes a snapshot of the canonical form of the position of a game.
+   * @param model some game of Reversi with this edge length
+   * @return the symmetric copy of the position with the smallest hash
+   */
+  public BoardSnapshot canonicalForm(ROReversiModel model) {
+    return transform(model, canonicalSymmetry(model));
+  }
+
+  /**
+   * Computes the hash the position of a game would have after each symmetry.
+   * @param model some game of Reversi with this edge length
+   * @return the hash after each symmetry, indexed by symmetry
+   */
+  private long[] hashes(ROReversiModel model) {
+    long[] hashes = new long[COUNT];
+    Arrays.fill(hashes, ZobristKeys.stateKey(model.getGameState(), model.getPassCounter()));
+    List<DiscColor> cells = model.getBoardView().rawCells();
+    for (int cell = 0; cell < cells.size(); cell++) {
+      DiscColor color = cells.get(cell);
+      if (color != DiscColor.NONE) {
+        long[] keys = color == DiscColor.BLACK ? this.blackKeys : this.whiteKeys;
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+          hashes[symmetry] ^= keys[this.permutations[symmetry][cell]];
+        }
+      }
+    }
+    return hashes;
+  }
+}
@@ -0,0 +1,15 @@
+package cs3500.reversi.model;
+
+/**
+ * An operation that accepts two int arguments and returns nothing, used to pass cells
+ * and numbers about them around without boxing.
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+  /**
+   * Performs this operation on the given arguments.
+   * @param first the first argument
+   * @param second the second argument
+   */
+  void accept(int first, int second);
+}
@@ -22,4 +22,31 @@ public interface MutableReversiModel extends ROReversiModel, ModelBroadcaster {
    * @throws IllegalStateException if the game has already started
    */
   void startGame() throws IllegalStateException;
+
+  /**
+   * Places a disc for the active player on the selected cell the same way placeDiscInCell does,
+   * but without telling any listeners, so that strategies can search ahead on a model and then
+   * take the move back with unmakeMove. Runs in time proportional to the number of discs flipped.
+   * @param cell the row/column coordinates of the cell to play
+   * @return a record of the move that can be passed to unmakeMove
+   * @throws IllegalArgumentException if the coordinates do not specify a cell in the grid
+   * @throws IllegalStateException if the game hasn't started, is over, or the move is invalid
+   */
+  UndoRecord makeMove(RowColCoords cell) throws IllegalArgumentException, IllegalStateException;
+
+  /**
+   * Passes the active player's turn the same way pass does, but without telling any listeners.
+   * @return a record of the pass that can be passed to unmakeMove
+   * @throws IllegalStateException if the game hasn't started or is over
+   */
+  UndoRecord makePass() throws IllegalStateException;
+
+  /**
+   * Takes back the most recent move made with makeMove or makePass that hasn't been taken back
+   * yet, restoring the grid, game state, and pass counter. Moves made with placeDiscInCell or
+   * pass can't be taken back, and making one forgets every earlier record.
+   * @param record the record returned when the move was made
+   * @throws IllegalArgumentException if the record isn't for the most recent move
+   */
+  void unmakeMove(UndoRecord record) throws IllegalArgumentException;
 }
@@ -0,0 +1,319 @@
+package cs3500.reversi.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds every legal move of a position on several threads at once. The rows of the grid are
+ * split into fork-join tasks that each look at the frontier cells (see BoardSnapshot) of their
+ * rows, reading an immutable snapshot so no thread ever sees the model change under it.
+ * Splitting the work only pays off once the board is big enough, so boards with fewer cells
+ * than the threshold are left to the model's own sequential move generation. The threshold can
+ * be set directly or chosen by calibrate, which times both ways on crowded boards of
+ * increasing size on the machine it is running on. Calibrating takes a few seconds, so it is
+ * only done when asked for (by a benchmark, or by an application at startup). Only models
+ * whose snapshots don't copy the grid (ReversiModel and ConcurrentReversiModel) are ever
+ * searched in parallel, since copying it would cost more than splitting the search saves.
+ */
+public final class ParallelMoveGenerator {
+  // The threshold used until calibrate or setThreshold is called: the number of cells of a
+  // board with edge length 30, or never if there is only one core to run on.
+  public static final int DEFAULT_THRESHOLD =
+      Runtime.getRuntime().availableProcessors() > 1 ? 2611 : Integer.MAX_VALUE;
+
+  // The edge lengths calibrate tries, from smallest to largest.
+  private static final int[] CALIBRATION_EDGE_LENGTHS = {10, 15, 20, 30, 40, 60};
+
+  // How many times calibrate times each way on each board (the fastest time is kept).
+  private static final int CALIBRATION_ROUNDS = 30;
+
+  // How much faster the parallel generator must be before calibrate uses it.
+  private static final double REQUIRED_SPEEDUP = 1.1;
+
+  // The fewest rows a task looks at without splitting.
+  private static final int MIN_ROWS_PER_TASK = 2;
+
+  // The number of cells at and above which moves are generated in parallel.
+  private static volatile int threshold = DEFAULT_THRESHOLD;
+
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private ParallelMoveGenerator() {
+  }
+
+  /**
+   * Returns the number of cells at and above which moves are generated in parallel.
+   * @return the threshold in cells
+   */
+  public static int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Sets the number of cells at and above which moves are generated in parallel.
+   * @param cells the threshold in cells (Integer.MAX_VALUE to never run in parallel)
+   * @throws IllegalArgumentException if cells is negative
+   */
+  public static void setThreshold(int cells) throws IllegalArgumentException {
+    if (cells < 0) {
+      throw new IllegalArgumentException("Threshold can't be negative");
+    }
+    threshold = cells;
+  }
+
+  /**
+   * Fills the given arrays with every legal move the active player has, in order of cell index,
+   * the same way ROReversiModel.legalMoves does, splitting the work across the common fork-join
+   * pool if the board has at least as many cells as the threshold and the model's snapshots
+   * don't copy its grid.
+   * @param model some game of Reversi
+   * @param cells the array to put the index of each legal move's cell in
+   * @param flipCounts the array to put the number of discs each legal move captures in
+   * @return the number of legal moves
+   * @throws IllegalStateException if the game hasn't started or is over
+   * @throws IndexOutOfBoundsException if the arrays are too short to hold every legal move
+   */
+  public static int legalMoves(ROReversiModel model, int[] cells, int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    if (!inParallel(model)) {
+      return model.legalMoves(cells, flipCounts);
+    }
+    return legalMovesInParallel(model.getSnapshot(), cells, flipCounts);
+  }
+
+  /**
+   * Hands every legal move the active player has to an action, in order of cell index, the
+   * same way ROReversiModel.forEachLegalMove does, finding them across the common fork-join
+   * pool under the same conditions as legalMoves.
+   * @param model some game of Reversi
+   * @param action the action to perform with each legal move's cell index and number of
+   *               captured discs
+   * @throws IllegalStateException if the game hasn't started or is over
+   */
+  public static void forEachLegalMove(ROReversiModel model, IntIntConsumer action)
+          throws IllegalStateException {
+    if (!inParallel(model)) {
+      model.forEachLegalMove(action);
+      return;
+    }
+    BoardSnapshot position = model.getSnapshot();
+    int[] moves = ForkJoinPool.commonPool().invoke(
+            new RowsTask(position, activePlayer(position), 0, position.geometry().rowCount()));
+    for (int i = 0; i < moves.length; i += 2) {
+      action.accept(moves[i], moves[i + 1]);
+    }
+  }
+
+  /**
+   * Finds every legal move of a snapshot on the common fork-join pool, however small the board.
+   * @param position the position to find the moves of
+   * @param cells the array to put the index of each legal move's cell in
+   * @param flipCounts the array to put the number of discs each legal move captures in
+   * @return the number of legal moves
+   * @throws IllegalStateException if it isn't either player's turn in the position
+   * @throws IndexOutOfBoundsException if the arrays are too short to hold every legal move
+   */
+  public static int legalMovesInParallel(BoardSnapshot position, int[] cells, int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    int[] moves = ForkJoinPool.commonPool().invoke(
+            new RowsTask(position, activePlayer(position), 0, position.geometry().rowCount()));
+    return unpack(moves, cells, flipCounts);
+  }
+
+  /**
+   * Finds every legal move of a snapshot on the calling thread alone, the same way each task
+   * of the parallel generator does for its rows.
+   * @param position the position to find the moves of
+   * @param cells the array to put the index of each legal move's cell in
+   * @param flipCounts the array to put the number of discs each legal move captures in
+   * @return the number of legal moves
+   * @throws IllegalStateException if it isn't either player's turn in the position
+   * @throws IndexOutOfBoundsException if the arrays are too short to hold every legal move
+   */
+  public static int legalMovesSequentially(BoardSnapshot position, int[] cells,
+                                           int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    int[] moves = movesInRows(position, activePlayer(position), 0,
+            position.geometry().rowCount());
+    return unpack(moves, cells, flipCounts);
+  }
+
+  /**
+   * Chooses the threshold by timing the sequential and parallel generators on crowded random
+   * positions of increasing size, and uses the smallest board on which the parallel generator
+   * is clearly faster. If it never is, or the common pool has a single thread, moves are never
+   * generated in parallel. Takes up to a few seconds.
+   * @return the new threshold in cells
+   */
+  public static int calibrate() {
+    int chosen = Integer.MAX_VALUE;
+    for (int edgeLength : CALIBRATION_EDGE_LENGTHS) {
+      if (ForkJoinPool.getCommonPoolParallelism() < 2) {
+        break;
+      }
+      BoardSnapshot position = crowdedPosition(edgeLength, new Random(3500));
+      long[] times = time(position, CALIBRATION_ROUNDS);
+      if (times[0] >= times[1] * REQUIRED_SPEEDUP) {
+        chosen = position.geometry().cellCount();
+        break;
+      }
+    }
+    setThreshold(chosen);
+    return chosen;
+  }
+
+  /**
+   * Times the sequential and parallel generators on a position.
+   * @param position a position where it is either player's turn
+   * @param rounds how many times to time each generator (the fastest time is kept)
+   * @return the fastest sequential and parallel times, in nanoseconds
+   */
+  public static long[] time(BoardSnapshot position, int rounds) {
+    int cellCount = position.geometry().cellCount();
+    int[] cells = new int[cellCount];
+    int[] flips = new int[cellCount];
+    long sequential = Long.MAX_VALUE;
+    long parallel = Long.MAX_VALUE;
+    for (int round = 0; round < rounds; round++) {
+      long start = System.nanoTime();
+      int expected = legalMovesSequentially(position, cells, flips);
+      long middle = System.nanoTime();
+      int actual = legalMovesInParallel(position, cells, flips);
+      long end = System.nanoTime();
+      if (expected != actual) {
+        throw new IllegalStateException("The generators disagree");
+      }
+      sequential = Math.min(sequential, middle - start);
+      parallel = Math.min(parallel, end - middle);
+    }
+    return new long[] {sequential, parallel};
+  }
+
+  /**
+   * Plays random moves on a new board until three quarters of it is full or the player to
+   * move has no moves.
+   * @param edgeLength the number of cells per edge of the grid
+   * @param rand the source of the random moves
+   * @return a snapshot of the position reached
+   */
+  public static BoardSnapshot crowdedPosition(int edgeLength, Random rand) {
+    MutableReversiModel model = ReversiModel.create(edgeLength);
+    model.startGame();
+    HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+    int[] moves = new int[geometry.cellCount()];
+    int[] flips = new int[geometry.cellCount()];
+    int count = model.legalMoves(moves, flips);
+    while (count > 0 && model.getDiscCount(DiscColor.NONE) > geometry.cellCount() / 4) {
+      model.makeMove(geometry.coords(moves[rand.nextInt(count)]));
+      count = model.legalMoves(moves, flips);
+    }
+    return model.getSnapshot();
+  }
+
+  /**
+   * Finds the legal moves in a range of rows.
+   * @param position the position to find the moves of
+   * @param player the player whose moves are wanted
+   * @param fromRow the first row to look at
+   * @param toRow the row after the last row to look at
+   * @return the cell index and number of captured discs of each move, one after the other,
+   *         in order of cell index
+   */
+  private static int[] movesInRows(BoardSnapshot position, DiscColor player, int fromRow,
+                                   int toRow) {
+    HexGeometry geometry = position.geometry();
+    BitSet frontier = position.frontier();
+    int end = geometry.rowStart(toRow);
+    int[] moves = new int[16];
+    int count = 0;
+    for (int cell = frontier.nextSetBit(geometry.rowStart(fromRow)); cell >= 0 && cell < end;
+         cell = frontier.nextSetBit(cell + 1)) {
+      int flips = position.flipsAt(cell, player);
+      if (flips > 0) {
+        if (count + 2 > moves.length) {
+          moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[count++] = cell;
+        moves[count++] = flips;
+      }
+    }
+    return Arrays.copyOf(moves, count);
+  }
+
+  /**
+   * Determines whether the legal moves of a model should be found in parallel.
+   * @param model some game of Reversi
+   * @return true iff the model's snapshots don't copy its grid and it has at least as many
+   *         cells as the threshold
+   */
+  private static boolean inParallel(ROReversiModel model) {
+    if (!(model instanceof ReversiModel || model instanceof ConcurrentReversiModel)) {
+      return false;
+    }
+    return HexGeometry.forEdgeLength(model.getEdgeLength()).cellCount() >= threshold;
+  }
+
+  private static DiscColor activePlayer(BoardSnapshot position) throws IllegalStateException {
+    if (position.getGameState() == GameState.BLACKMOVE) {
+      return DiscColor.BLACK;
+    } else if (position.getGameState() == GameState.WHITEMOVE) {
+      return DiscColor.WHITE;
+    } else {
+      throw new IllegalStateException("It isn't either player's turn");
+    }
+  }
+
+  private static int unpack(int[] moves, int[] cells, int[] flipCounts) {
+    int count = moves.length / 2;
+    for (int i = 0; i < count; i++) {
+      cells[i] = moves[i * 2];
+      flipCounts[i] = moves[i * 2 + 1];
+    }
+    return count;
+  }
+
+  /**
+   * A task that finds the legal moves in a range of rows, splitting the range in half until
+   * there are few enough rows to share evenly between the threads of the pool.
+   */
+  private static final class RowsTask extends RecursiveTask<int[]> {
+    private static final long serialVersionUID = 1L;
+
+    // The position, the player whose moves are wanted, and the rows to look at (toRow is the
+    // row after the last one).
+    private final BoardSnapshot position;
+    private final DiscColor player;
+    private final int fromRow;
+    private final int toRow;
+
+    RowsTask(BoardSnapshot position, DiscColor player, int fromRow, int toRow) {
+      this.position = position;
+      this.player = player;
+      this.fromRow = fromRow;
+      this.toRow = toRow;
+    }
+
+    @Override
+    protected int[] compute() {
+      int rows = this.toRow - this.fromRow;
+      int leafRows = Math.max(MIN_ROWS_PER_TASK, this.position.geometry().rowCount()
+              / (ForkJoinPool.getCommonPoolParallelism() * 4));
+      if (rows <= leafRows) {
+        return movesInRows(this.position, this.player, this.fromRow, this.toRow);
+      }
+      int middle = this.fromRow + rows / 2;
+      RowsTask top = new RowsTask(this.position, this.player, this.fromRow, middle);
+      RowsTask bottom = new RowsTask(this.position, this.player, middle, this.toRow);
+      top.fork();
+      int[] bottomMoves = bottom.compute();
+      int[] topMoves = top.join();
+      int[] moves = Arrays.copyOf(topMoves, topMoves.length + bottomMoves.length);
+      System.arraycopy(bottomMoves, 0, moves, topMoves.length, bottomMoves.length);
+      return moves;
+    }
+  }
+}
@@ -0,0 +1,283 @@
+package cs3500.reversi.model;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Converts Reversi positions to and from a compact binary encoding and a one-line text
+ * notation, so positions can be sent between processes and stored in bulk.
+ * The binary encoding is the edge length as an unsigned 16-bit number, then one byte holding
+ * the game state (its ordinal, in the upper bits) and the pass counter (in the lowest 2 bits),
+ * then 2 bits per cell in order of cell index (see HexGeometry), four cells to a byte starting
+ * from the lowest bits, where 0 is empty, 1 is black, and 2 is white. A board with edge length
+ * 8 takes 3 + 43 bytes.
+ * The text notation lists the rows from top to bottom separated by '/', where X is a black
+ * disc, O is a white disc, and a number is that many empty cells in a row, between the edge
+ * length and the side to move (X, O, - if the game hasn't started, or # if it is over)
+ * followed by the pass counter. The starting position with edge length 3 is
+ * "3 3/1XO1/1O1X1/1XO1/3 X0".
+ */
+public final class PositionCodec {
+  // The largest edge length that can be encoded: the largest whose number of cells fits in an
+  // int, as HexGeometry counts them.
+  public static final int MAX_EDGE_LENGTH = 26_755;
+
+  // The number of bytes before the cells in the binary encoding.
+  private static final int HEADER_BYTES = 3;
+
+  // The color stored for each 2-bit code.
+  private static final DiscColor[] COLORS = {DiscColor.NONE, DiscColor.BLACK, DiscColor.WHITE};
+
+  // The character used for each game state in the text notation, indexed by GameState ordinal.
+  private static final char[] STATE_CHARS = {'-', 'X', 'O', '#'};
+
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private PositionCodec() {
+  }
+
+  /**
+   * Returns the number of bytes the binary encoding of a position takes.
+   * @param edgeLength the number of cells per edge of the grid
+   * @return the size of the encoding in bytes
+   * @throws IllegalArgumentException if the edge length is less than 2 or more than
+   *                                  MAX_EDGE_LENGTH
+   */
+  public static int encodedSize(int edgeLength) throws IllegalArgumentException {
+    checkEdgeLength(edgeLength);
+    long cells = 3L * edgeLength * (edgeLength - 1) + 1;
+    return (int) (HEADER_BYTES + (cells + 3) / 4);
+  }
+
+  /**
+   * Writes the binary encoding of a position into a buffer, starting at its position and
+   * moving its position past the encoding. Nothing is written if the encoding doesn't fit.
+   * @param model some game of Reversi
+   * @param out the buffer to write to
+   * @throws BufferOverflowException if the buffer has fewer than encodedSize bytes remaining
+   * @throws IllegalArgumentException if the edge length is more than MAX_EDGE_LENGTH or the
+   *                                  pass counter is more than 3
+   */
+  public static void encode(ROReversiModel model, ByteBuffer out)
+          throws BufferOverflowException, IllegalArgumentException {
+    int edgeLength = model.getEdgeLength();
+    int passCounter = model.getPassCounter();
+    checkEdgeLength(edgeLength);
+    if (passCounter > 3) {
+      throw new IllegalArgumentException("Pass counter too large to encode");
+    }
+    if (out.remaining() < encodedSize(edgeLength)) {
+      throw new BufferOverflowException();
+    }
+
+    out.putShort((short) edgeLength);
+    out.put((byte) (model.getGameState().ordinal() << 2 | passCounter));
+    BoardView view = model.getBoardView();
+    int packed = 0;
+    int cell = 0;
+    for (int row = 0; row < view.rowCount(); row++) {
+      for (int col = 0; col < view.rowLength(row); col++) {
+        packed |= codeOf(view.colorAt(row, col)) << ((cell & 3) << 1);
+        cell++;
+        if ((cell & 3) == 0) {
+          out.put((byte) packed);
+          packed = 0;
+        }
+      }
+    }
+    if ((cell & 3) != 0) {
+      out.put((byte) packed);
+    }
+  }
+
+  /**
+   * Reads the binary encoding of a position from a buffer, starting at its position and moving
+   * its position past the encoding.
+   * @param in the buffer to read from
+   * @return a new ReversiModel with the encoded grid, game state, and pass counter
+   * @throws BufferUnderflowException if the buffer ends before the encoding does
+   * @throws IllegalArgumentException if the bytes aren't the encoding of a position
+   */
+  public static ReversiModel decode(ByteBuffer in)
+          throws BufferUnderflowException, IllegalArgumentException {
+    int edgeLength = in.getShort() & 0xFFFF;
+    int header = in.get() & 0xFF;
+    checkEdgeLength(edgeLength);
+    if (header >>> 2 >= GameState.values().length) {
+      throw new IllegalArgumentException("Invalid game state");
+    }
+    if (in.remaining() < encodedSize(edgeLength) - HEADER_BYTES) {
+      throw new BufferUnderflowException();
+    }
+
+    HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+    DiscColor[][] rows = new DiscColor[geometry.rowCount()][];
+    int packed = 0;
+    int cell = 0;
+    for (int row = 0; row < rows.length; row++) {
+      rows[row] = new DiscColor[geometry.rowLength(row)];
+      for (int col = 0; col < rows[row].length; col++) {
+        if ((cell & 3) == 0) {
+          packed = in.get() & 0xFF;
+        }
+        int code = packed >>> ((cell & 3) << 1) & 3;
+        if (code == 3) {
+          throw new IllegalArgumentException("Invalid cell");
+        }
+        rows[row][col] = COLORS[code];
+        cell++;
+      }
+    }
+    return ReversiModel.fromSnapshot(BoardSnapshot.fromRows(geometry, rows,
+            GameState.values()[header >>> 2], header & 3));
+  }
+
+  /**
+   * Writes a position in the one-line text notation.
+   * @param model some game of Reversi
+   * @return the notation of the model's current position
+   */
+  public static String toNotation(ROReversiModel model) {
+    BoardView view = model.getBoardView();
+    StringBuilder notation = new StringBuilder();
+    notation.append(model.getEdgeLength()).append(' ');
+    for (int row = 0; row < view.rowCount(); row++) {
+      if (row > 0) {
+        notation.append('/');
+      }
+      int empty = 0;
+      for (int col = 0; col < view.rowLength(row); col++) {
+        DiscColor color = view.colorAt(row, col);
+        if (color == DiscColor.NONE) {
+          empty++;
+          continue;
+        }
+        if (empty > 0) {
+          notation.append(empty);
+          empty = 0;
+        }
+        notation.append(color == DiscColor.BLACK ? 'X' : 'O');
+      }
+      if (empty > 0) {
+        notation.append(empty);
+      }
+    }
+    notation.append(' ').append(STATE_CHARS[model.getGameState().ordinal()])
+            .append(model.getPassCounter());
+    return notation.toString();
+  }
+
+  /**
+   * Reads a position written in the one-line text notation.
+   * @param notation the notation of a position
+   * @return a new ReversiModel with that grid, game state, and pass counter
+   * @throws IllegalArgumentException if the text isn't the notation of a position
+   */
+  public static ReversiModel fromNotation(String notation) throws IllegalArgumentException {
+    String[] parts = notation.trim().split(" ");
+    if (parts.length != 3 || parts[2].length() != 2) {
+      throw new IllegalArgumentException("Expected an edge length, rows, and side to move");
+    }
+    int edgeLength;
+    try {
+      edgeLength = Integer.parseInt(parts[0]);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid edge length");
+    }
+    checkEdgeLength(edgeLength);
+    String[] rowTexts = parts[1].split("/", -1);
+    if (rowTexts.length != 2 * edgeLength - 1) {
+      throw new IllegalArgumentException("Wrong number of rows");
+    }
+    // Check every row before building anything the size of the grid, which a short text can
+    // claim to be huge
+    for (int row = 0; row < rowTexts.length; row++) {
+      parseRow(rowTexts[row], edgeLength + Math.min(row, rowTexts.length - 1 - row), null);
+    }
+    HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+
+    DiscColor[][] rows = new DiscColor[geometry.rowCount()][];
+    for (int row = 0; row < rows.length; row++) {
+      rows[row] = new DiscColor[geometry.rowLength(row)];
+      parseRow(rowTexts[row], rows[row].length, rows[row]);
+    }
+
+    int state = new String(STATE_CHARS).indexOf(parts[2].charAt(0));
+    int passCounter = parts[2].charAt(1) - '0';
+    if (state == -1 || passCounter < 0 || passCounter > 3) {
+      throw new IllegalArgumentException("Invalid side to move");
+    }
+    return ReversiModel.fromSnapshot(BoardSnapshot.fromRows(geometry, rows,
+            GameState.values()[state], passCounter));
+  }
+
+  /**
+   * Reads one row of the text notation.
+   * @param text the notation of the row
+   * @param length the number of cells in the row
+   * @param cells the array to put the colors of the cells of the row in, or null to only check
+   *              the row
+   * @throws IllegalArgumentException if the text doesn't describe exactly that many cells
+   */
+  private static void parseRow(String text, int length, DiscColor[] cells)
+          throws IllegalArgumentException {
+    int col = 0;
+    int i = 0;
+    while (i < text.length()) {
+      char c = text.charAt(i);
+      int run = 1;
+      DiscColor color;
+      if (c == 'X') {
+        color = DiscColor.BLACK;
+        i++;
+      } else if (c == 'O') {
+        color = DiscColor.WHITE;
+        i++;
+      } else if (c >= '1' && c <= '9') {
+        color = DiscColor.NONE;
+        run = 0;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) {
+          run = run * 10 + text.charAt(i) - '0';
+          i++;
+          if (run > length) {
+            throw new IllegalArgumentException("Row too long");
+          }
+        }
+      } else {
+        throw new IllegalArgumentException("Invalid character '" + c + "'");
+      }
+      if (col + run > length) {
+        throw new IllegalArgumentException("Row too long");
+      }
+      if (cells != null) {
+        Arrays.fill(cells, col, col + run, color);
+      }
+      col += run;
+    }
+    if (col != length) {
+      throw new IllegalArgumentException("Row too short");
+    }
+  }
+
+  /**
+   * Checks that an edge length can be encoded, before anything the size of its grid is built.
+   * @param edgeLength the number of cells per edge of the grid
+   * @throws IllegalArgumentException if the edge length is less than 2 or more than
+   *                                  MAX_EDGE_LENGTH
+   */
+  private static void checkEdgeLength(int edgeLength) throws IllegalArgumentException {
+    if (edgeLength < 2) {
+      throw new IllegalArgumentException("Invalid edge length");
+    }
+    if (edgeLength > MAX_EDGE_LENGTH) {
+      throw new IllegalArgumentException("Edge length too large to encode");
+    }
+  }
+
+  private static int codeOf(DiscColor color) {
+    return color == DiscColor.BLACK ? 1 : color == DiscColor.WHITE ? 2 : 0;
+  }
+}
@@ -0,0 +1,467 @@
+package cs3500.reversi.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An on-disk table from position hashes (see ZobristKeys) to what is known about each position:
+ * how many times it was reached, how many of those times the player to move went on to win,
+ * the best known move, and an evaluation. The file is memory-mapped, so looking a position up
+ * reads straight from the operating system's page cache without copying the table onto the
+ * heap, and opening even a file of several gigabytes takes no time. Any number of threads can
+ * look positions up at once as long as nothing is being written.
+ * The file is a 64 byte header followed by an open-addressing table with a power of two number
+ * of slots, each holding the hash (0 for an empty slot), the visit count, the win count, the
+ * cell index of the best move (-1 if there is none), and the evaluation (NaN if there is none),
+ * in big-endian order. A position's first slot is given by the low bits of its hash, and
+ * collisions go to the next slot. Lookups slow down as the table fills up, so it should have
+ * at least twice as many slots as positions.
+ * Databases are meant to be built offline, for example from archived game records with
+ * addGames, and then opened read-only by every player that consults them. Positions added
+ * from games and looked up by model are stored in their canonical form (see HexSymmetry), so
+ * all 12 symmetric copies of a position share one slot and its best move is turned to match
+ * the position being looked up.
+ */
+public final class PositionDatabase implements AutoCloseable {
+  // The bytes every database file starts with ("RVPOSDB1").
+  private static final long MAGIC = 0x5256_504F_5344_4231L;
+
+  // The size of the header and of each slot, in bytes.
+  private static final int HEADER_BYTES = 64;
+  private static final int SLOT_BYTES = 24;
+
+  // Where each field is within the header and within a slot.
+  private static final int CAPACITY_OFFSET = 8;
+  private static final int SIZE_OFFSET = 16;
+  private static final int VISITS_OFFSET = 8;
+  private static final int WINS_OFFSET = 12;
+  private static final int MOVE_OFFSET = 16;
+  private static final int EVALUATION_OFFSET = 20;
+
+  // The most slots a table can have (24 TB of them).
+  private static final long MAX_CAPACITY = 1L << 40;
+
+  // The hash stored for a position whose hash is 0, since 0 marks an empty slot.
+  private static final long ZERO_HASH = 0x3500_0000_0000_0001L;
+
+  // The log of the number of slots mapped at once. A single mapping can't be larger than 2 GB,
+  // so bigger tables are mapped in several segments of this many slots (1.5 GB each).
+  private static final int SEGMENT_SLOTS_LOG2 = 26;
+
+  // The file the table is stored in.
+  private final FileChannel channel;
+
+  // The mapped header, and the mapped slots split into segments.
+  private final MappedByteBuffer header;
+  private final MappedByteBuffer[] segments;
+
+  // The log of the number of slots in each segment.
+  private final int segmentSlotsLog2;
+
+  // The number of slots in the table, minus one.
+  private final long mask;
+
+  // Whether positions can be added to the database.
+  private final boolean writable;
+
+  /**
+   * Constructs a PositionDatabase by mapping an open file.
+   * @param channel the database file
+   * @param capacity the number of slots in the table, a power of two
+   * @param writable whether the file was opened for writing
+   * @param segmentSlotsLog2 the log of the number of slots to map at once
+   * @throws IOException if the file can't be mapped
+   */
+  private PositionDatabase(FileChannel channel, long capacity, boolean writable,
+                           int segmentSlotsLog2) throws IOException {
+    FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE
+            : FileChannel.MapMode.READ_ONLY;
+    this.channel = channel;
+    this.writable = writable;
+    this.mask = capacity - 1;
+    this.segmentSlotsLog2 = Math.min(segmentSlotsLog2, Long.numberOfTrailingZeros(capacity));
+    this.header = channel.map(mode, 0, HEADER_BYTES);
+    long segmentSlots = 1L << this.segmentSlotsLog2;
+    this.segments = new MappedByteBuffer[(int) (capacity / segmentSlots)];
+    for (int i = 0; i < this.segments.length; i++) {
+      this.segments[i] = channel.map(mode, HEADER_BYTES + i * segmentSlots * SLOT_BYTES,
+              segmentSlots * SLOT_BYTES);
+    }
+  }
+
+  /**
+   * Creates a new empty database file, replacing any file already at the path, and opens it for
+   * writing.
+   * @param path where to put the file
+   * @param capacity the number of positions the table should have room for, rounded up to a
+   *                 power of two
+   * @return the new database
+   * @throws IllegalArgumentException if the capacity isn't positive or is too large
+   * @throws IOException if the file can't be created
+   */
+  public static PositionDatabase create(Path path, long capacity)
+          throws IllegalArgumentException, IOException {
+    return create(path, capacity, SEGMENT_SLOTS_LOG2);
+  }
+
+  /**
+   * Creates a new empty database file that is mapped in segments of the given size.
+   * @param path where to put the file
+   * @param capacity the number of positions the table should have room for
+   * @param segmentSlotsLog2 the log of the number of slots to map at once
+   * @return the new database
+   * @throws IllegalArgumentException if the capacity isn't positive or is too large
+   * @throws IOException if the file can't be created
+   */
+  static PositionDatabase create(Path path, long capacity, int segmentSlotsLog2)
+          throws IllegalArgumentException, IOException {
+    if (capacity <= 0 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Invalid capacity");
+    }
+    long slots = Long.highestOneBit(capacity);
+    if (slots < capacity) {
+      slots <<= 1;
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    try {
+      // Growing the file leaves every slot zeroed, which is empty
+      channel.write(ByteBuffer.allocate(1), HEADER_BYTES + slots * SLOT_BYTES - 1);
+      PositionDatabase database = new PositionDatabase(channel, slots, true, segmentSlotsLog2);
+      database.header.putLong(0, MAGIC);
+      database.header.putLong(CAPACITY_OFFSET, slots);
+      database.header.putLong(SIZE_OFFSET, 0);
+      return database;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens an existing database file for looking positions up.
+   * @param path the database file
+   * @return the database
+   * @throws IOException if the file can't be opened or isn't a position database
+   */
+  public static PositionDatabase open(Path path) throws IOException {
+    return open(path, false, SEGMENT_SLOTS_LOG2);
+  }
+
+  /**
+   * Opens an existing database file for looking positions up and adding more.
+   * @param path the database file
+   * @return the database
+   * @throws IOException if the file can't be opened or isn't a position database
+   */
+  public static PositionDatabase openForUpdate(Path path) throws IOException {
+    return open(path, true, SEGMENT_SLOTS_LOG2);
+  }
+
+  /**
+   * Opens an existing database file that is mapped in segments of the given size.
+   * @param path the database file
+   * @param writable whether positions can be added
+   * @param segmentSlotsLog2 the log of the number of slots to map at once
+   * @return the database
+   * @throws IOException if the file can't be opened or isn't a position database
+   */
+  static PositionDatabase open(Path path, boolean writable, int segmentSlotsLog2)
+          throws IOException {
+    FileChannel channel = writable
+            ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer start = ByteBuffer.allocate(HEADER_BYTES);
+      channel.read(start, 0);
+      long capacity = start.getLong(CAPACITY_OFFSET);
+      if (start.getLong(0) != MAGIC || capacity <= 0 || capacity > MAX_CAPACITY
+              || Long.bitCount(capacity) != 1
+              || channel.size() < HEADER_BYTES + capacity * SLOT_BYTES) {
+        throw new IOException("Not a position database");
+      }
+      return new PositionDatabase(channel, capacity, writable, segmentSlotsLog2);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of positions in the database.
+   * @return the number of slots in use
+   */
+  public long size() {
+    return this.header.getLong(SIZE_OFFSET);
+  }
+
+  /**
+   * Returns the number of positions the database has room for.
+   * @return the number of slots in the table
+   */
+  public long capacity() {
+    return this.mask + 1;
+  }
+
+  /**
+   * Looks up a model's current position by its canonical hash.
+   * @param model some game of Reversi
+   * @return what is known about the position or any of its symmetric copies, with the best
+   *         move turned to match the model's position, or null if it isn't in the database
+   */
+  public Entry lookup(ROReversiModel model) {
+    HexSymmetry symmetries = HexSymmetry.forEdgeLength(model.getEdgeLength());
+    int symmetry = symmetries.canonicalSymmetry(model);
+    Entry entry = lookup(symmetries.hash(model, symmetry));
+    int cellCount = HexGeometry.forEdgeLength(model.getEdgeLength()).cellCount();
+    if (entry == null || entry.getBestMove() < 0 || entry.getBestMove() >= cellCount) {
+      return entry;
+    }
+    return Entry.create(entry.getVisits(), entry.getWins(),
+            symmetries.mapCell(symmetries.inverse(symmetry), entry.getBestMove()),
+            entry.getEvaluation());
+  }
+
+  /**
+   * Looks up a position by its hash.
+   * @param hash the position's hash (see ZobristKeys)
+   * @return what is known about the position, or null if it isn't in the database
+   */
+  public Entry lookup(long hash) {
+    long slot = find(key(hash));
+    ByteBuffer segment = segment(slot);
+    int offset = offset(slot);
+    if (segment.getLong(offset) == 0) {
+      return null;
+    }
+    return Entry.create(segment.getInt(offset + VISITS_OFFSET),
+            segment.getInt(offset + WINS_OFFSET), segment.getInt(offset + MOVE_OFFSET),
+            segment.getFloat(offset + EVALUATION_OFFSET));
+  }
+
+  /**
+   * Stores what is known about a position, replacing anything already stored for it.
+   * @param hash the position's hash (see ZobristKeys)
+   * @param entry what is known about the position
+   * @throws IllegalStateException if the database is read-only or full
+   */
+  public void put(long hash, Entry entry) throws IllegalStateException {
+    long slot = claim(hash);
+    ByteBuffer segment = segment(slot);
+    int offset = offset(slot);
+    segment.putInt(offset + VISITS_OFFSET, entry.getVisits());
+    segment.putInt(offset + WINS_OFFSET, entry.getWins());
+    segment.putInt(offset + MOVE_OFFSET, entry.getBestMove());
+    segment.putFloat(offset + EVALUATION_OFFSET, entry.getEvaluation());
+  }
+
+  /**
+   * Counts one more visit to a position. If the player to move went on to win, the move they
+   * played becomes the position's best move.
+   * @param hash the position's hash (see ZobristKeys)
+   * @param won whether the player to move went on to win the game
+   * @param move the cell index (see HexGeometry) of the move played, or -1 for a pass
+   * @throws IllegalStateException if the database is read-only or full
+   */
+  public void recordVisit(long hash, boolean won, int move) throws IllegalStateException {
+    long slot = claim(hash);
+    ByteBuffer segment = segment(slot);
+    int offset = offset(slot);
+    segment.putInt(offset + VISITS_OFFSET, segment.getInt(offset + VISITS_OFFSET) + 1);
+    if (won) {
+      segment.putInt(offset + WINS_OFFSET, segment.getInt(offset + WINS_OFFSET) + 1);
+      segment.putInt(offset + MOVE_OFFSET, move);
+    }
+  }
+
+  /**
+   * Replays every finished game in a stream of game records (see GameRecordWriter) and counts a
+   * visit to the canonical form of each position a move was played in. Records cut off before
+   * their game was over are skipped.
+   * @param reader the records to add
+   * @return the number of games added
+   * @throws IOException if the records can't be read
+   * @throws IllegalStateException if the database is read-only or fills up
+   */
+  public int addGames(GameRecordReader reader) throws IOException, IllegalStateException {
+    int games = 0;
+    for (ROReversiModel result = reader.replayNext(); result != null;
+         result = reader.replayNext()) {
+      if (reader.wasTruncated()) {
+        continue;
+      }
+      DiscColor winner = result.getWinner();
+      HexGeometry geometry = HexGeometry.forEdgeLength(result.getEdgeLength());
+      HexSymmetry symmetries = HexSymmetry.forEdgeLength(result.getEdgeLength());
+      MutableReversiModel model = BitboardReversiModel.create(result.getEdgeLength());
+      model.startGame();
+      for (int cell : reader.getTurns()) {
+        if (cell < 0) {
+          model.pass();
+        } else {
+          int symmetry = symmetries.canonicalSymmetry(model);
+          recordVisit(symmetries.hash(model, symmetry), model.getActivePlayerColor() == winner,
+                  symmetries.mapCell(symmetry, cell));
+          model.placeDiscInCell(geometry.coords(cell));
+        }
+      }
+      games++;
+    }
+    return games;
+  }
+
+  /**
+   * Writes every change to the database to the file.
+   */
+  public void force() {
+    if (this.writable) {
+      this.header.force();
+      for (MappedByteBuffer segment : this.segments) {
+        segment.force();
+      }
+    }
+  }
+
+  /**
+   * Writes every change to the file and closes it. The mapping itself is only released once
+   * the database is garbage collected.
+   * @throws IOException if the file can't be closed
+   */
+  @Override
+  public void close() throws IOException {
+    force();
+    this.channel.close();
+  }
+
+  /**
+   * Finds the slot a key is stored in, or the empty slot it would be stored in.
+   * @param key a nonzero key
+   * @return the index of the slot
+   * @throws IllegalStateException if the key isn't stored and there are no empty slots
+   */
+  private long find(long key) throws IllegalStateException {
+    long slot = key & this.mask;
+    for (long probes = 0; probes <= this.mask; probes++) {
+      long stored = segment(slot).getLong(offset(slot));
+      if (stored == key || stored == 0) {
+        return slot;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    throw new IllegalStateException("Position database is full");
+  }
+
+  /**
+   * Finds the slot of a position, giving it an empty slot if it isn't stored yet.
+   * @param hash the position's hash
+   * @return the index of the slot
+   * @throws IllegalStateException if the database is read-only or full
+   */
+  private long claim(long hash) throws IllegalStateException {
+    if (!this.writable) {
+      throw new IllegalStateException("Position database is read-only");
+    }
+    long key = key(hash);
+    long slot = find(key);
+    ByteBuffer segment = segment(slot);
+    int offset = offset(slot);
+    if (segment.getLong(offset) == 0) {
+      segment.putLong(offset, key);
+      segment.putInt(offset + MOVE_OFFSET, -1);
+      segment.putFloat(offset + EVALUATION_OFFSET, Float.NaN);
+      this.header.putLong(SIZE_OFFSET, size() + 1);
+    }
+    return slot;
+  }
+
+  private ByteBuffer segment(long slot) {
+    return this.segments[(int) (slot >>> this.segmentSlotsLog2)];
+  }
+
+  private int offset(long slot) {
+    return (int) (slot & ((1L << this.segmentSlotsLog2) - 1)) * SLOT_BYTES;
+  }
+
+  private static long key(long hash) {
+    return hash == 0 ? ZERO_HASH : hash;
+  }
+
+  /**
+   * What the database knows about a position.
+   */
+  public static final class Entry {
+    // The number of times the position was reached.
+    private final int visits;
+
+    // The number of those times the player to move went on to win.
+    private final int wins;
+
+    // The cell index (see HexGeometry) of the best known move, or -1 if there is none.
+    private final int bestMove;
+
+    // How good the position is for the player to move, or NaN if it hasn't been evaluated.
+    private final float evaluation;
+
+    private Entry(int visits, int wins, int bestMove, float evaluation) {
+      this.visits = visits;
+      this.wins = wins;
+      this.bestMove = bestMove;
+      this.evaluation = evaluation;
+    }
+
+    /**
+     * Creates an Entry.
+     * @param visits the number of times the position was reached
+     * @param wins the number of those times the player to move went on to win
+     * @param bestMove the cell index of the best known move, or -1 if there is none
+     * @param evaluation how good the position is for the player to move, or NaN
+     * @return a new Entry
+     * @throws IllegalArgumentException if the counts are negative or there are more wins
+     *                                  than visits
+     */
+    public static Entry create(int visits, int wins, int bestMove, float evaluation)
+            throws IllegalArgumentException {
+      if (visits < 0 || wins < 0 || wins > visits || bestMove < -1) {
+        throw new IllegalArgumentException("Invalid entry");
+      }
+      return new Entry(visits, wins, bestMove, evaluation);
+    }
+
+    /**
+     * Returns the number of times the position was reached.
+     * @return the visit count
+     */
+    public int getVisits() {
+      return this.visits;
+    }
+
+    /**
+     * Returns the number of visits after which the player to move went on to win.
+     * @return the win count
+     */
+    public int getWins() {
+      return this.wins;
+    }
+
+    /**
+     * Returns the best known move from the position.
+     * @return the cell index (see HexGeometry) of the move, or -1 if there is none
+     */
+    public int getBestMove() {
+      return this.bestMove;
+    }
+
+    /**
+     * Returns how good the position is for the player to move.
+     * @return the evaluation, or NaN if the position hasn't been evaluated
+     */
+    public float getEvaluation() {
+      return this.evaluation;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package cs3500.reversi.model;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -20,13 +21,24 @@ public interface ROReversiModel {
   GameState getGameState();
 
   /**
-   * Returns the grid used by the model.
+   * Returns the grid used by the model. Kept for callers written against lists; getBoardView
+   * reads the same cells without going through a list per row.
    * @return all the contents of the cells in the grid in a 0-indexed list of 0-indexed lists
    *         where the inner lists represent each row of the grid
    *         (Ex. listOfList.get(2).get(3) would get the 4th hexagon in the 3rd row)
    */
   List<List<DiscColor>> getGrid();
 
+  /**
+   * Returns a read only view of the grid that reads the model's current cells whenever it is
+   * accessed. Models that keep one view for their whole life (as ReversiModel and
+   * BitboardReversiModel do) hand out the same view every time, so callers never copy the grid.
+   * @return a view of the cells of the grid
+   */
+  default BoardView getBoardView() {
+    return BoardViewLists.fromGrid(getGrid());
+  }
+
   /**
    * Returns the color of the player whose turn it is.
    * @return the color of the player whose turn it is
@@ -42,6 +54,20 @@ public interface ROReversiModel {
    */
   int getPlayerScore(DiscColor c) throws IllegalArgumentException;
 
+  /**
+   * Returns the number of cells holding a color. Unlike getPlayerScore, NONE is allowed and
+   * gives the number of empty cells. Models that keep running counts answer in constant time.
+   * @param c black, white, or none
+   * @return the number of cells on the grid holding that color
+   */
+  default int getDiscCount(DiscColor c) {
+    if (c != DiscColor.NONE) {
+      return getPlayerScore(c);
+    }
+    return HexGeometry.forEdgeLength(getEdgeLength()).cellCount()
+            - getPlayerScore(DiscColor.BLACK) - getPlayerScore(DiscColor.WHITE);
+  }
+
   /**
    * Returns the color of the disc (or NONE if no disc) specified by the coordinates.
    * @param coords the row (0-indexed from the top) and column (0-indexed from
@@ -80,8 +106,7 @@ public interface ROReversiModel {
 
   /**
    * Determines whether it would be valid for the active player to place
-   * a disc at the given cell by checking that the list of discs to capture
-   * is not empty.
+   * a disc at the given cell by checking that it would capture at least one disc.
    * @param coords a cell in the grid
    * @return true/false if the move is valid/invalid mapped to the number of discs
    *         that would be captured if that move is played (0 if invalid)
@@ -98,4 +123,108 @@ public interface ROReversiModel {
    * @return the list of all the discs that would be captured
    */
   List<List<RowColCoords>> discsToCapture(RowColCoords coords);
+
+  /**
+   * Counts the discs that would be captured if the active player placed their disc on
+   * the given cell, without finding which discs they are.
+   * @param coords a cell in the grid
+   * @return the number of discs that would be flipped (0 if the cell isn't empty or the
+   *         move is invalid)
+   * @throws IllegalArgumentException if the coordinates do not specify a valid cell in the grid
+   * @throws IllegalStateException if the game hasn't started or is over
+   */
+  default int countFlips(RowColCoords coords)
+          throws IllegalArgumentException, IllegalStateException {
+    return countFlips(coords, getActivePlayerColor());
+  }
+
+  /**
+   * Counts the discs that would be captured if a player of the given color placed their
+   * disc on the given cell, whether or not it is that player's turn.
+   * @param coords a cell in the grid
+   * @param color the color of the disc that would be placed (black or white)
+   * @return the number of discs that would be flipped (0 if the cell isn't empty or the
+   *         move is invalid)
+   * @throws IllegalArgumentException if the coordinates do not specify a valid cell in the grid
+   *                                  or if the color isn't black or white
+   */
+  int countFlips(RowColCoords coords, DiscColor color) throws IllegalArgumentException;
+
+  /**
+   * Calls the given action once for every legal move the active player has, in order of
+   * cell index (see HexGeometry), without allocating anything per move.
+   * @param action the action to perform, given the index of a cell the active player could
+   *               place a disc on and the number of discs that move would capture
+   * @throws IllegalStateException if the game hasn't started or is over
+   */
+  default void forEachLegalMove(IntIntConsumer action) throws IllegalStateException {
+    BoardView view = getBoardView();
+    int cell = 0;
+    for (int row = 0; row < view.rowCount(); row++) {
+      for (int col = 0; col < view.rowLength(row); col++) {
+        Map<Boolean, Integer> valid = validMove(RowColCoords.of(row, col));
+        if (valid.containsKey(true)) {
+          action.accept(cell, valid.get(true));
+        }
+        cell++;
+      }
+    }
+  }
+
+  /**
+   * Finds every legal move the active player has in one pass over the board.
+   * @return a bitmask of the cells the active player could place a disc on, where bit i is
+   *         set iff the cell with index i (see HexGeometry) is a legal move. The caller owns
+   *         the bitmask, so it doesn't change when the model does.
+   * @throws IllegalStateException if the game hasn't started or is over
+   */
+  default BitSet legalMoves() throws IllegalStateException {
+    BitSet moves = new BitSet();
+    forEachLegalMove((cell, flips) -> moves.set(cell));
+    return moves;
+  }
+
+  /**
+   * Fills the given arrays with every legal move the active player has, in order of
+   * cell index (see HexGeometry).
+   * @param cells the array to put the index of each legal move's cell in
+   * @param flipCounts the array to put the number of discs each legal move would capture in
+   *                   (at the same position as its cell)
+   * @return the number of legal moves that were put in the arrays
+   * @throws IllegalStateException if the game hasn't started or is over
+   * @throws IndexOutOfBoundsException if the arrays don't have room for every legal move
+   *                                   (arrays as long as the number of cells always do)
+   */
+  default int legalMoves(int[] cells, int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    int[] count = new int[1];
+    forEachLegalMove((cell, flips) -> {
+      cells[count[0]] = cell;
+      flipCounts[count[0]] = flips;
+      count[0]++;
+    });
+    return count[0];
+  }
+
+  /**
+   * Returns the 64-bit Zobrist hash (see ZobristKeys) of the current position: the discs on the
+   * grid, the side to move, and the pass counter. Equal positions always have equal hashes, even
+   * between different implementations of the model, so the hash can be used as the key of a
+   * cache or database of positions. Models that update the hash as discs are placed and
+   * flipped answer in constant time.
+   * @return the hash of the current position
+   */
+  default long getPositionHash() {
+    return ZobristKeys.hashOf(this);
+  }
+
+  /**
+   * Returns an immutable snapshot of the current position that later moves don't change.
+   * Models that store their grid copy-on-write hand out a snapshot that shares their storage
+   * without copying it, and give out the same snapshot until the position changes.
+   * @return a snapshot of the grid, game state, and pass counter
+   */
+  default BoardSnapshot getSnapshot() {
+    return BoardSnapshot.of(this);
+  }
 }
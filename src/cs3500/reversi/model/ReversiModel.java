@@ -1,12 +1,13 @@
 package cs3500.reversi.model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
 
 import cs3500.reversi.controller.ModelCallbackListener;
 
@@ -15,18 +16,61 @@ import cs3500.reversi.controller.ModelCallbackListener;
  * of variable size.
  */
 public class ReversiModel implements MutableReversiModel {
+  // The six directions, stored once so that walking around a cell doesn't copy the array
+  // returned by Direction.values().
+  private static final Direction[] DIRECTIONS = Direction.values();
+
   // How many cells are in each edge of the hexagonal grid.
   private final int edgeLength;
 
+  // The shared layout of every grid with this edge length, used to walk across the grid
+  // by cell index.
+  private final HexGeometry geometry;
+
   // The regular hexagonal grid of cells.
-  // The grid is a list of rows (0-indexed from the top) where each row is a
-  // list of colors (0-indexed from the left).
-  // The grid is a List<List<Color>> because it seems as though the only pieces
-  // of information from a cell that matter are whether it has a disc placed on it
-  // and whether the disc placed on it is black or white. The enum Color represents
+  // The grid is an array of rows (0-indexed from the top) where each row is an
+  // array of colors (0-indexed from the left).
+  // The only pieces of information from a cell that matter are whether it has a disc placed
+  // on it and whether the disc placed on it is black or white. The enum DiscColor represents
   // all three of those options. The grid is a coordinate system of rows and columns,
-  // so it makes the most sense to represent it as a 2D list.
-  private final List<List<DiscColor>> grid;
+  // so it makes the most sense to represent it as a 2D array.
+  // Rows are copy-on-write: a row that is shared with a BoardSnapshot is copied the first time
+  // it is written to, so snapshots never see later moves.
+  private final DiscColor[][] rows;
+
+  // Whether each row is shared with a snapshot (and so must be copied before it is written to).
+  private final boolean[] rowShared;
+
+  // A read only view of the board that reads the rows whenever it is accessed, and the lists
+  // of rows (handed out by getGrid) built on it.
+  private final BoardView boardView;
+  private final List<List<DiscColor>> gridView;
+
+  // The most recent snapshot of the board, or null if the board has changed since it was taken.
+  private BoardSnapshot snapshot;
+
+  // The number of cells holding each color, indexed by DiscColor ordinal (NONE counts the
+  // empty cells), kept up to date by setCell so that scores never need a scan of the grid.
+  private final int[] discCounts;
+
+  // The XOR of the Zobrist keys of every disc on the grid, kept up to date by setCell.
+  // The key of the game state and pass counter is added when the hash is asked for.
+  private long discHash;
+
+  // The frontier: every empty cell adjacent to at least one disc, indexed by cell. A move can
+  // only capture discs next to it, so these are the only cells that can be legal moves, and
+  // move generation looks at them instead of every cell of the grid. Kept up to date whenever
+  // a cell is filled or emptied, and copy-on-write like the rows.
+  private BitSet frontier;
+
+  // Whether the frontier is shared with a snapshot.
+  private boolean frontierShared;
+
+  // The cells the player in legalPlayer could place a disc on, worked out in one sweep of the
+  // frontier the first time they are needed and reused until a cell changes, so one turn of an
+  // AI player scans the board once however many times it asks. Null when out of date.
+  private BitSet legal;
+  private DiscColor legalPlayer;
 
   // The state of the game (one of BLACKMOVE, WHITEMOVE, or GAMEOVER).
   private GameState gameState;
@@ -39,6 +83,10 @@ public class ReversiModel implements MutableReversiModel {
   // The object that broadcasts to its listeners when the model is mutated.
   private final ModelCallback broadcaster;
 
+  // The records of the moves made with makeMove or makePass that can still be taken back,
+  // most recent first.
+  private final Deque<UndoRecord> undoStack;
+
   /**
    * Constructs a ReversiModel with a variable edge length.
    * @param edgeLength the number of cells per edge of the grid
@@ -49,29 +97,48 @@ public class ReversiModel implements MutableReversiModel {
       throw new IllegalArgumentException("Invalid edge length");
     }
     this.edgeLength = edgeLength;
-    this.grid = new ArrayList<>();
+    this.geometry = HexGeometry.forEdgeLength(edgeLength);
+    this.rows = new DiscColor[this.geometry.rowCount()][];
+    this.rowShared = new boolean[this.geometry.rowCount()];
+    this.boardView = new RowsView();
+    this.gridView = BoardViewLists.grid(this.boardView);
+    this.discCounts = new int[DiscColor.values().length];
+    this.frontier = new BitSet(this.geometry.cellCount());
     this.passCounter = 0;
     this.gameState = GameState.UNSTARTED;
     this.broadcaster = new ModelMutatedBroadcaster();
+    this.undoStack = new ArrayDeque<>();
     setupGame();
   }
 
   /**
-   * Constructs a ReversiModel with all the fields specified.
-   * @param edgeLength the number of cells per edge of the grid
-   * @param grid the game board
-   * @param gameState the state of the game
-   * @param passCounter the number of passes in a row
+   * Constructs a ReversiModel that starts from a snapshot, sharing the snapshot's rows until
+   * they are written to.
+   * @param snapshot the position to start from
    */
-  private ReversiModel(int edgeLength,
-                       List<List<DiscColor>> grid,
-                       GameState gameState,
-                       int passCounter) {
-    this.edgeLength = edgeLength;
-    this.grid = grid;
-    this.gameState = gameState;
-    this.passCounter = passCounter;
+  private ReversiModel(BoardSnapshot snapshot) {
+    this.geometry = snapshot.geometry();
+    this.edgeLength = this.geometry.getEdgeLength();
+    this.rows = new DiscColor[this.geometry.rowCount()][];
+    for (int row = 0; row < this.rows.length; row++) {
+      this.rows[row] = snapshot.row(row);
+    }
+    this.rowShared = new boolean[this.rows.length];
+    Arrays.fill(this.rowShared, true);
+    this.boardView = new RowsView();
+    this.gridView = BoardViewLists.grid(this.boardView);
+    this.snapshot = snapshot;
+    this.discCounts = new int[DiscColor.values().length];
+    for (DiscColor color : DiscColor.values()) {
+      this.discCounts[color.ordinal()] = snapshot.getDiscCount(color);
+    }
+    this.discHash = snapshot.discHash();
+    this.frontier = snapshot.frontier();
+    this.frontierShared = true;
+    this.gameState = snapshot.getGameState();
+    this.passCounter = snapshot.getPassCounter();
     this.broadcaster = new ModelMutatedBroadcaster();
+    this.undoStack = new ArrayDeque<>();
   }
 
   /**
@@ -85,20 +152,22 @@ public class ReversiModel implements MutableReversiModel {
   }
 
   /**
-   * Creates a copy of a Reversi game.
+   * Creates a copy of a Reversi game. Copying another ReversiModel shares its rows until
+   * either model writes to them, so it only takes time proportional to the number of rows.
    * @param model a ROReversiModel to be copied
    * @return a new ReversiModel with all the fields of the given model
    */
   public static ReversiModel createCopy(ROReversiModel model) {
-    List<List<DiscColor>> gridCopy = new ArrayList<>();
-    for (List<DiscColor> row : model.getGrid()) {
-      gridCopy.add(new ArrayList<>(row));
-    }
-    return new ReversiModel(
-            model.getEdgeLength(),
-            gridCopy,
-            model.getGameState(),
-            model.getPassCounter());
+    return new ReversiModel(model.getSnapshot());
+  }
+
+  /**
+   * Creates a game that starts from a snapshot of a position.
+   * @param snapshot the position to start from
+   * @return a new ReversiModel with the snapshot's grid, game state, and pass counter
+   */
+  public static ReversiModel fromSnapshot(BoardSnapshot snapshot) {
+    return new ReversiModel(snapshot);
   }
 
   @Override
@@ -117,14 +186,14 @@ public class ReversiModel implements MutableReversiModel {
       return false;
     }
     ReversiModel that = (ReversiModel) other;
-    return this.grid.equals(that.grid)
+    return Arrays.deepEquals(this.rows, that.rows)
             && this.gameState == that.gameState
             && this.passCounter == that.passCounter;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.edgeLength, this.grid, this.gameState, this.passCounter);
+    return Long.hashCode(getPositionHash());
   }
 
   /**
@@ -142,14 +211,11 @@ public class ReversiModel implements MutableReversiModel {
    * Sets up the grid that the game will be played on.
    */
   private void setupGrid() {
-    for (int row = 0; row < this.edgeLength * 2 - 1; row++) {
-      int rowLength = ((2 * edgeLength) - 1) - Math.abs(row - (this.edgeLength - 1));
-      List<DiscColor> gridRow = new ArrayList<>();
-      for (int col = 0; col < rowLength; col++) {
-        gridRow.add(DiscColor.NONE);
-      }
-      this.grid.add(gridRow);
+    for (int row = 0; row < this.geometry.rowCount(); row++) {
+      this.rows[row] = new DiscColor[this.geometry.rowLength(row)];
+      Arrays.fill(this.rows[row], DiscColor.NONE);
     }
+    this.discCounts[DiscColor.NONE.ordinal()] = this.geometry.cellCount();
   }
 
   /**
@@ -157,22 +223,22 @@ public class ReversiModel implements MutableReversiModel {
    */
   private void placeStartingPieces() {
     // Getting the coordinate of the center cell
-    RowColCoords gridCenter = new RowColCoords(
+    RowColCoords gridCenter = RowColCoords.of(
             this.edgeLength - 1,
             this.edgeLength - 1);
 
     // Getting all the coordinates adjacent to the center
-    RowColCoords topLeft = new RowColCoords(
+    RowColCoords topLeft = RowColCoords.of(
             gridCenter.getRow() - 1, gridCenter.getCol() - 1);
-    RowColCoords topRight = new RowColCoords(
+    RowColCoords topRight = RowColCoords.of(
             gridCenter.getRow() - 1, gridCenter.getCol());
-    RowColCoords centerLeft = new RowColCoords(
+    RowColCoords centerLeft = RowColCoords.of(
             gridCenter.getRow(), gridCenter.getCol() - 1);
-    RowColCoords centerRight = new RowColCoords(
+    RowColCoords centerRight = RowColCoords.of(
             gridCenter.getRow(), gridCenter.getCol() + 1);
-    RowColCoords bottomLeft = new RowColCoords(
+    RowColCoords bottomLeft = RowColCoords.of(
             gridCenter.getRow() + 1, gridCenter.getCol() - 1);
-    RowColCoords bottomRight = new RowColCoords(
+    RowColCoords bottomRight = RowColCoords.of(
             gridCenter.getRow() + 1, gridCenter.getCol());
 
     // Placing the starting discs on adjacent cells
@@ -194,6 +260,7 @@ public class ReversiModel implements MutableReversiModel {
   public void pass() throws IllegalStateException {
     throwIfGameUnstarted();
     throwIfGameOver();
+    this.undoStack.clear();
     this.passCounter++;
     if (isGameOver()) {
       this.broadcaster.gameOver();
@@ -208,24 +275,118 @@ public class ReversiModel implements MutableReversiModel {
     throwIfGameOver();
     throwIfInvalidCoords(cell);
     throwIfInvalidMove(cell);
-    placeDisc(cell, getActivePlayerColor());
-    captureDiscs(cell);
+    this.undoStack.clear();
+    int index = this.geometry.cellIndex(cell);
+    DiscColor player = getActivePlayerColor();
+    setCell(index, player);
+    captureDiscs(index, player);
     this.passCounter = 0;
     nextPlayerTurn();
   }
 
   @Override
-  public boolean anyLegalMoves() throws IllegalStateException {
+  public UndoRecord makeMove(RowColCoords coords)
+          throws IllegalArgumentException, IllegalStateException {
     throwIfGameUnstarted();
     throwIfGameOver();
-    for (int row = 0; row < this.grid.size(); row++) {
-      for (int col = 0; col < this.grid.get(row).size(); col++) {
-        if (validMove(new RowColCoords(row, col)).containsKey(true)) {
-          return true;
-        }
+    throwIfInvalidCoords(coords);
+    int cell = this.geometry.cellIndex(coords);
+    DiscColor player = getActivePlayerColor();
+    int flips = flipsAt(cell, player);
+    if (flips == 0) {
+      throw new IllegalStateException("Invalid move");
+    }
+
+    // Find every captured disc before flipping any of them
+    int[] flipped = new int[flips];
+    int count = 0;
+    for (Direction dir : DIRECTIONS) {
+      int captured = discsToCaptureInLine(cell, dir, player);
+      for (int step = 0; step < captured; step++) {
+        flipped[count++] = this.geometry.rayCell(dir, cell, step);
       }
     }
-    return false;
+    UndoRecord record = new UndoRecord(cell, flipped, this.gameState, this.passCounter);
+
+    setCell(cell, player);
+    for (int disc : flipped) {
+      setCell(disc, player);
+    }
+    this.passCounter = 0;
+    switchGameState();
+    this.undoStack.push(record);
+    return record;
+  }
+
+  @Override
+  public UndoRecord makePass() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    UndoRecord record = new UndoRecord(-1, new int[0], this.gameState, this.passCounter);
+    this.passCounter++;
+    if (!isGameOver()) {
+      switchGameState();
+    }
+    this.undoStack.push(record);
+    return record;
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord record) throws IllegalArgumentException {
+    if (this.undoStack.peek() != record) {
+      throw new IllegalArgumentException("Only the most recent move can be taken back");
+    }
+    this.undoStack.pop();
+    if (!record.isPass()) {
+      DiscColor opponent = DiscColor.oppositeColor(record.getPlayer());
+      for (int i = 0; i < record.getFlipCount(); i++) {
+        setCell(record.getFlipped(i), opponent);
+      }
+      setCell(record.getMove(), DiscColor.NONE);
+    }
+    this.gameState = record.getPreviousState();
+    this.passCounter = record.getPreviousPassCounter();
+  }
+
+  @Override
+  public boolean anyLegalMoves() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    return !legalMask().isEmpty();
+  }
+
+  @Override
+  public BitSet legalMoves() throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    return (BitSet) legalMask().clone();
+  }
+
+  @Override
+  public void forEachLegalMove(IntIntConsumer action) throws IllegalStateException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    DiscColor player = getActivePlayerColor();
+    BitSet moves = legalMask();
+    for (int cell = moves.nextSetBit(0); cell >= 0; cell = moves.nextSetBit(cell + 1)) {
+      action.accept(cell, flipsAt(cell, player));
+    }
+  }
+
+  @Override
+  public int legalMoves(int[] cells, int[] flipCounts)
+          throws IllegalStateException, IndexOutOfBoundsException {
+    throwIfGameUnstarted();
+    throwIfGameOver();
+    DiscColor player = getActivePlayerColor();
+    BitSet moves = legalMask();
+    int count = 0;
+    for (int cell = moves.nextSetBit(0); cell >= 0; cell = moves.nextSetBit(cell + 1)) {
+      cells[count] = cell;
+      flipCounts[count] = flipsAt(cell, player);
+      count++;
+    }
+    return count;
   }
 
   @Override
@@ -238,236 +399,98 @@ public class ReversiModel implements MutableReversiModel {
     if (!getColorAt(coords).equals(DiscColor.NONE)) {
       return Collections.singletonMap(false, 0);
     } else {
-      List<List<RowColCoords>> toCapture = discsToCapture(coords);
-      boolean empty = true;
-      for (List<RowColCoords> line : toCapture) {
-        if (!line.isEmpty()) {
-          empty = false;
-          break;
-        }
-      }
-      return Collections.singletonMap(!empty, toCapture.size());
+      int flips = flipsAt(this.geometry.cellIndex(coords), getActivePlayerColor());
+      return Collections.singletonMap(flips != 0, flips);
     }
   }
 
-  /**
-   * An enum representing the six directions around a pointy-top hexagon.
-   */
-  private enum Direction {
-    topLeft,
-    topRight,
-    centerLeft,
-    centerRight,
-    bottomLeft,
-    bottomRight
+  @Override
+  public int countFlips(RowColCoords coords, DiscColor color) throws IllegalArgumentException {
+    throwIfInvalidCoords(coords);
+    throwIfInvalidPlayer(color);
+    return flipsAt(this.geometry.cellIndex(coords), color);
   }
 
   @Override
   public List<List<RowColCoords>> discsToCapture(RowColCoords coords) {
     List<List<RowColCoords>> discs = new ArrayList<>();
-    // Check all cells adjacent to the given cell for discs of the opposite color
-    Map<RowColCoords, Direction> adjacentOppositeColor = checkAdjacent(coords);
-    // For each of those adjacent cells, go down the line
-    for (RowColCoords cell : adjacentOppositeColor.keySet()) {
-      List<RowColCoords> discsInLine = discsToCaptureInLine(cell, cell,
-              adjacentOppositeColor, new ArrayList<>());
-      if (!discsInLine.isEmpty()) {
-        discs.add(discsInLine);
+    int cell = this.geometry.cellIndex(coords);
+    DiscColor player = getActivePlayerColor();
+    // Go down the line in each of the six directions
+    for (Direction dir : DIRECTIONS) {
+      int captured = discsToCaptureInLine(cell, dir, player);
+      if (captured > 0) {
+        List<RowColCoords> line = new ArrayList<>();
+        for (int step = 0; step < captured; step++) {
+          line.add(this.geometry.coords(this.geometry.rayCell(dir, cell, step)));
+        }
+        discs.add(line);
       }
     }
     return discs;
   }
 
   /**
-   * Finds all the discs to capture in a single line from the given cell.
-   * @param adjacentCell one of the six cells adjacent to the given cell
-   * @param currentCell the current cell in the line (starting from adjacentCell)
-   * @param allAdjacent the map of all adjacent cells to their direction from the
-   *                    given cell
-   * @param tempDiscs the running total list of discs that will be captured if the
-   *                  line of enemy discs ends in the player's own disc rather than
-   *                  an empty cell or going off the board
-   * @return the list of all cells in one line from the given cell to be captured
+   * Counts all the discs that would be captured if the player placed a disc on the given cell.
+   * @param cell the index of a cell
+   * @param player the color of the disc that would be placed
+   * @return the number of discs that would be flipped, or 0 if the cell isn't empty or the
+   *         move wouldn't capture anything
    */
-  private List<RowColCoords> discsToCaptureInLine(RowColCoords adjacentCell,
-                                                  RowColCoords currentCell, 
-                                                  Map<RowColCoords, Direction> allAdjacent,
-                                                  List<RowColCoords> tempDiscs) {
-    // Get the coordinates of the next cell in the line
-    RowColCoords nextCell = nextInLine(currentCell, allAdjacent.get(adjacentCell));
-    
-    // Get the color of the disc corresponding to that cell
-    DiscColor nextColor;
-    try {
-      nextColor = getColorAt(nextCell);
-    } catch (IllegalArgumentException e) { // If nextCell is not a valid cell
-      return new ArrayList<>();
-    }
-    
-    // If the next cell has no disc, ignore tempDiscs and return nothing
-    if (nextColor == DiscColor.NONE) {
-      return new ArrayList<>();
-    }
-    // If the next disc's color is the color of the active player, the line is complete,
-    // so add all the enemy discs in that line (tempDiscs) to the list of discs to capture
-    // and return that list
-    else if (nextColor == getActivePlayerColor()) {
-      tempDiscs.add(adjacentCell);
-      return tempDiscs;
-    }
-    // If the next disc's color is opposite of the active player's, the line is continuing,
-    // so add the next cell to tempDiscs and then return discsToCaptureInLine, setting
-    // "currentCell" to nextCell
-    else if (nextColor == DiscColor.oppositeColor(getActivePlayerColor())) {
-      tempDiscs.add(nextCell);
-      return discsToCaptureInLine(adjacentCell, nextCell, allAdjacent, tempDiscs);
-    } else {
-      throw new IllegalStateException("No 4th color");
+  private int flipsAt(int cell, DiscColor player) {
+    if (colorOf(cell) != DiscColor.NONE) {
+      return 0;
     }
-  }
-
-  /**
-   * Finds all cells adjacent to the given cell that contain discs
-   * of the color opposite to that of the active player, and then
-   * maps those cells to the direction they are in relation to the
-   * given cell.
-   * @param coords a cell in grid
-   * @return The map of adjacent cells to their direction from the
-   *         given cell
-   */
-  private Map<RowColCoords, Direction> checkAdjacent(RowColCoords coords) {
-    Map<RowColCoords, Direction> coordsWithDirections = new HashMap<>();
-
-    // Center Left
-    addAdjacentDirection(coordsWithDirections, Direction.centerLeft, coords);
-
-    // Center Right
-    addAdjacentDirection(coordsWithDirections, Direction.centerRight, coords);
-
-    // Top Left
-    addAdjacentDirection(coordsWithDirections, Direction.topLeft, coords);
-
-    // Top Right
-    addAdjacentDirection(coordsWithDirections, Direction.topRight, coords);
-
-    // Bottom Left
-    addAdjacentDirection(coordsWithDirections, Direction.bottomLeft, coords);
-
-    // Bottom Right
-    addAdjacentDirection(coordsWithDirections, Direction.bottomRight, coords);
-
-    return coordsWithDirections;
-  }
-
-  /**
-   * Gets the coordinates of a single direction adjacent to the given cell and then
-   * puts them into the map of adjacent cells along with the direction they are from 
-   * the given cell.
-   * @param adjacentCells the map of all cells adjacent to the given cell to the
-   *                      direction they are from the given cell
-   * @param direction the direction specifying which of the six adjacent coordinates
-   *                  to add to the map
-   * @param coords a cell in grid
-   */
-  private void addAdjacentDirection(Map<RowColCoords, Direction> adjacentCells,
-                                      Direction direction, RowColCoords coords) {
-    RowColCoords adjacentModifiers = adjacentModifier(direction, coords);
-    Optional<RowColCoords> coordinate = addToAdjacent(
-            adjacentModifiers.getRow(), adjacentModifiers.getCol(), coords);
-    coordinate.ifPresent(cell -> adjacentCells.put(cell, direction));
-  }
-
-  /**
-   * Finds the proper modifiers to the given cell for each of the six directions.
-   * @param direction the direction from the given cell to one of the six adjacent cells
-   * @return the coordinates of one of the six adjacent cells
-   */
-  private RowColCoords adjacentModifier(Direction direction, RowColCoords coords) {
-    switch (direction) {
-      case topLeft:
-        if (coords.getRow() > this.edgeLength - 1) {
-          return new RowColCoords(-1, 0);
-        } else {
-          return new RowColCoords(-1, -1);
-        }
-      case topRight:
-        if (coords.getRow() <= this.edgeLength - 1) {
-          return new RowColCoords(-1, 0);
-        } else {
-          return new RowColCoords(-1, 1);
-        }
-      case centerLeft:
-        return new RowColCoords(0, -1);
-      case centerRight:
-        return new RowColCoords(0, 1);
-      case bottomLeft:
-        if (coords.getRow() >= this.edgeLength - 1) {
-          return new RowColCoords(1, -1);
-        } else {
-          return new RowColCoords(1, 0);
-        }
-      case bottomRight:
-        if (coords.getRow() >= this.edgeLength - 1) {
-          return new RowColCoords(1, 0);
-        } else {
-          return new RowColCoords(1, 1);
-        }
-      default:
-        throw new IllegalStateException("No 7th direction");
+    int flips = 0;
+    for (Direction dir : DIRECTIONS) {
+      flips += discsToCaptureInLine(cell, dir, player);
     }
+    return flips;
   }
 
   /**
-   * Finds a cell adjacent to the given cell and returns its coordinates if it
-   * contains a disc of the color opposite to that of the active player.
-   * @param rowMod what the row of the given cell is modified by to find
-   *               an adjacent cell (-1, 0, 1)
-   * @param colMod what the column of the given cell is modified by to find
-   *               an adjacent cell (-1, 0, 1)
-   * @return the coordinates of the adjacent cell if it contains a disc with the
-   *         correct color or Optional.empty() if the disc is the wrong color or the cell is empty.
+   * Counts the discs that would be captured in a single line from the given cell.
+   * @param cell the index of the cell a disc would be placed on
+   * @param dir the direction of the line from that cell
+   * @param player the color of the disc that would be placed
+   * @return the number of the opponent's discs in a row starting next to the cell if that
+   *         row ends in one of the player's discs, or 0 if it ends in an empty cell or
+   *         goes off the board
    */
-  private Optional<RowColCoords> addToAdjacent(int rowMod, int colMod, RowColCoords coords) {
-    RowColCoords cell = new RowColCoords(
-            coords.getRow() + rowMod,
-            coords.getCol() + colMod);
-
-    DiscColor oppositePlayerColor = DiscColor.oppositeColor(getActivePlayerColor());
-    DiscColor colorAtCoords;
-    try {
-      colorAtCoords = getColorAt(cell);
-    } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
-      return Optional.empty();
-    }
-
-    if (oppositePlayerColor == colorAtCoords) {
-      return Optional.of(cell);
-    } else {
-      return Optional.empty();
+  private int discsToCaptureInLine(int cell, Direction dir, DiscColor player) {
+    int rayLength = this.geometry.rayLength(dir, cell);
+    for (int step = 0; step < rayLength; step++) {
+      DiscColor nextColor = colorOf(this.geometry.rayCell(dir, cell, step));
+      if (nextColor == DiscColor.NONE) {
+        return 0;
+      } else if (nextColor == player) {
+        return step;
+      }
     }
+    return 0;
   }
 
   /**
-   * Finds the next cell in the line starting from the given cell and moving
-   * in one of the six possible directions.
-   * @param cell the most recent cell in the line from selectedCell to cell
-   * @param dir the direction from selectedCell to cell
-   * @return the coordinates of the next cell in the line
+   * Finds the color of a cell in the grid.
+   * @param cell the index of the cell
+   * @return the color of the disc on that cell or NONE if it is empty
    */
-  private RowColCoords nextInLine(RowColCoords cell, Direction dir) {
-    RowColCoords modifiers = adjacentModifier(dir, cell);
-    return new RowColCoords(cell.getRow() + modifiers.getRow(),
-            cell.getCol() + modifiers.getCol());
+  private DiscColor colorOf(int cell) {
+    return this.rows[this.geometry.rowOf(cell)][this.geometry.colOf(cell)];
   }
 
   /**
-   * Captures all valid enemy discs after a move is played.
+   * Captures all valid enemy discs after a move is played by flipping each captured line in
+   * place. The lines in different directions never share a cell, so flipping one line doesn't
+   * change what the others capture.
+   * @param cell the index of the cell the disc was placed on
+   * @param player the color of the disc that was placed
    */
-  private void captureDiscs(RowColCoords coords) {
-    List<List<RowColCoords>> discs = discsToCapture(coords);
-    for (List<RowColCoords> line : discs) {
-      for (RowColCoords disc : line) {
-        flipDisc(disc);
+  private void captureDiscs(int cell, DiscColor player) {
+    for (Direction dir : DIRECTIONS) {
+      int captured = discsToCaptureInLine(cell, dir, player);
+      for (int step = 0; step < captured; step++) {
+        setCell(this.geometry.rayCell(dir, cell, step), player);
       }
     }
   }
@@ -487,11 +510,27 @@ public class ReversiModel implements MutableReversiModel {
 
   @Override
   public List<List<DiscColor>> getGrid() {
-    List<List<DiscColor>> gridCopy = new ArrayList<>();
-    for (List<DiscColor> row : this.grid) {
-      gridCopy.add(Collections.unmodifiableList(row));
+    return this.gridView;
+  }
+
+  @Override
+  public BoardView getBoardView() {
+    return this.boardView;
+  }
+
+  @Override
+  public BoardSnapshot getSnapshot() {
+    if (this.snapshot == null || this.snapshot.getGameState() != this.gameState
+            || this.snapshot.getPassCounter() != this.passCounter) {
+      // From now on every row and the frontier belong to the snapshot as well
+      Arrays.fill(this.rowShared, true);
+      this.frontierShared = true;
+      this.snapshot = new BoardSnapshot(this.geometry, this.rows.clone(),
+              this.discCounts[DiscColor.BLACK.ordinal()],
+              this.discCounts[DiscColor.WHITE.ordinal()],
+              this.discHash, this.frontier, this.gameState, this.passCounter);
     }
-    return Collections.unmodifiableList(gridCopy);
+    return this.snapshot;
   }
 
   @Override
@@ -510,28 +549,25 @@ public class ReversiModel implements MutableReversiModel {
   @Override
   public int getPlayerScore(DiscColor c) throws IllegalArgumentException {
     throwIfInvalidPlayer(c);
-    int playerScore = 0;
-    for (int row = 0; row < this.grid.size(); row++) {
-      for (int col = 0; col < this.grid.get(row).size(); col++) {
-        if (getColorAt(new RowColCoords(row, col)) == c) {
-          playerScore++;
-        }
-      }
-    }
-    return playerScore;
+    return this.discCounts[c.ordinal()];
+  }
+
+  @Override
+  public int getDiscCount(DiscColor c) {
+    return this.discCounts[c.ordinal()];
   }
 
   @Override
   public DiscColor getColorAt(RowColCoords coords) throws IllegalArgumentException {
     throwIfInvalidCoords(coords);
-    return this.grid.get(coords.getRow()).get(coords.getCol());
+    return this.rows[coords.getRow()][coords.getCol()];
   }
 
   @Override
   public DiscColor getWinner() throws IllegalStateException {
     throwIfGameNotOver();
-    int p1Score = getPlayerScore(DiscColor.BLACK);
-    int p2Score = getPlayerScore(DiscColor.WHITE);
+    int p1Score = this.discCounts[DiscColor.BLACK.ordinal()];
+    int p2Score = this.discCounts[DiscColor.WHITE.ordinal()];
     if (p1Score > p2Score) {
       return DiscColor.BLACK;
     } else if (p2Score > p1Score) {
@@ -541,6 +577,11 @@ public class ReversiModel implements MutableReversiModel {
     }
   }
 
+  @Override
+  public long getPositionHash() {
+    return this.discHash ^ ZobristKeys.stateKey(this.gameState, this.passCounter);
+  }
+
   @Override
   public int getEdgeLength() {
     return this.edgeLength;
@@ -580,22 +621,90 @@ public class ReversiModel implements MutableReversiModel {
    * @param c the color of the disc to be placed
    */
   private void placeDisc(RowColCoords coords, DiscColor c) {
-    this.grid.get(coords.getRow()).set(coords.getCol(), c);
+    setCell(this.geometry.cellIndex(coords), c);
   }
 
   /**
-   * Flips the color of a cell in the grid.
-   * @param coords the row (0-indexed from the top) and column (0-indexed from
-   *              the left) coordinates specifying a cell in grid
-   * @throws IllegalArgumentException if the coordinates do not specify a valid
-   *                                  cell in the grid or if the specified cell
-   *                                  does not contain a disc
+   * Sets the color of a cell in the grid.
+   * @param cell the index of the cell
+   * @param c the color of the disc to be placed, or NONE to empty the cell
    */
-  private void flipDisc(RowColCoords coords) throws IllegalArgumentException {
-    throwIfInvalidCoords(coords);
-    DiscColor discColor = getColorAt(coords);
-    throwIfNoDisc(discColor);
-    placeDisc(coords, DiscColor.oppositeColor(discColor));
+  private void setCell(int cell, DiscColor c) {
+    int row = this.geometry.rowOf(cell);
+    if (this.rowShared[row]) {
+      this.rows[row] = this.rows[row].clone();
+      this.rowShared[row] = false;
+    }
+    DiscColor previous = this.rows[row][this.geometry.colOf(cell)];
+    this.rows[row][this.geometry.colOf(cell)] = c;
+    this.snapshot = null;
+    this.legal = null;
+    this.discCounts[previous.ordinal()]--;
+    this.discCounts[c.ordinal()]++;
+    if (previous != DiscColor.NONE) {
+      this.discHash ^= ZobristKeys.discKey(this.edgeLength, cell, previous);
+    }
+    if (c != DiscColor.NONE) {
+      this.discHash ^= ZobristKeys.discKey(this.edgeLength, cell, c);
+    }
+
+    // Only filling or emptying a cell changes the frontier, flipping a disc never does
+    if ((previous == DiscColor.NONE) != (c == DiscColor.NONE) && this.frontierShared) {
+      this.frontier = (BitSet) this.frontier.clone();
+      this.frontierShared = false;
+    }
+    if (previous == DiscColor.NONE && c != DiscColor.NONE) {
+      this.frontier.clear(cell);
+      addNeighboursToFrontier(cell);
+    } else if (previous != DiscColor.NONE && c == DiscColor.NONE) {
+      removeNeighboursFromFrontier(cell);
+      if (hasAdjacentDisc(cell)) {
+        this.frontier.set(cell);
+      }
+    }
+  }
+
+  /**
+   * Adds the empty cells around a newly filled cell to the frontier.
+   * @param cell the index of a cell with a disc on it
+   */
+  private void addNeighboursToFrontier(int cell) {
+    for (Direction dir : DIRECTIONS) {
+      int neighbour = this.geometry.neighbour(dir, cell);
+      if (neighbour != -1 && colorOf(neighbour) == DiscColor.NONE) {
+        this.frontier.set(neighbour);
+      }
+    }
+  }
+
+  /**
+   * Removes the empty cells around a newly emptied cell from the frontier if they are no longer
+   * next to any disc.
+   * @param cell the index of a cell that was just emptied
+   */
+  private void removeNeighboursFromFrontier(int cell) {
+    for (Direction dir : DIRECTIONS) {
+      int neighbour = this.geometry.neighbour(dir, cell);
+      if (neighbour != -1 && colorOf(neighbour) == DiscColor.NONE
+              && !hasAdjacentDisc(neighbour)) {
+        this.frontier.clear(neighbour);
+      }
+    }
+  }
+
+  /**
+   * Determines whether any cell adjacent to a cell has a disc on it.
+   * @param cell the index of a cell
+   * @return true iff at least one neighbour of the cell isn't empty
+   */
+  private boolean hasAdjacentDisc(int cell) {
+    for (Direction dir : DIRECTIONS) {
+      int neighbour = this.geometry.neighbour(dir, cell);
+      if (neighbour != -1 && colorOf(neighbour) != DiscColor.NONE) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private void throwIfGameStarted() throws IllegalStateException {
@@ -628,24 +737,69 @@ public class ReversiModel implements MutableReversiModel {
     }
   }
 
-  private void throwIfNoDisc(DiscColor c) {
-    if (c == DiscColor.NONE) {
-      throw new IllegalStateException("No disc");
+  private void throwIfInvalidCoords(RowColCoords coords) {
+    if (!this.geometry.isValid(coords.getRow(), coords.getCol())) {
+      throw new IllegalArgumentException("Invalid coordinates");
     }
   }
 
-  private void throwIfInvalidCoords(RowColCoords coords) {
-    if (coords.getRow() < 0
-            || coords.getRow() >= this.grid.size()
-            || coords.getCol() < 0
-            || coords.getCol() >= this.grid.get(coords.getRow()).size()) {
-      throw new IllegalArgumentException("Invalid coordinates");
+  /**
+   * Finds every cell the active player could place a disc on, sweeping the frontier once
+   * unless no cell has changed since the last sweep for the same player.
+   * @return the legal moves by cell index (owned by this model and never written to once
+   *         returned, so it stays valid after the model changes)
+   */
+  private BitSet legalMask() {
+    DiscColor player = getActivePlayerColor();
+    if (this.legal == null || this.legalPlayer != player) {
+      BitSet moves = new BitSet(this.geometry.cellCount());
+      for (int cell = this.frontier.nextSetBit(0); cell >= 0;
+           cell = this.frontier.nextSetBit(cell + 1)) {
+        if (flipsAt(cell, player) > 0) {
+          moves.set(cell);
+        }
+      }
+      this.legal = moves;
+      this.legalPlayer = player;
     }
+    return this.legal;
   }
 
   private void throwIfInvalidMove(RowColCoords coords) {
-    if (validMove(coords).containsKey(false)) {
+    if (flipsAt(this.geometry.cellIndex(coords), getActivePlayerColor()) == 0) {
       throw new IllegalStateException("Invalid move");
     }
   }
+
+  /**
+   * A view of the board that reads the model's current rows whenever it is accessed, so it
+   * stays up to date after rows are copied on write.
+   */
+  private class RowsView implements BoardView {
+    // A list of every cell, made the first time it is asked for.
+    private List<DiscColor> cells;
+
+    @Override
+    public int rowCount() {
+      return ReversiModel.this.rows.length;
+    }
+
+    @Override
+    public int rowLength(int row) {
+      return ReversiModel.this.rows[row].length;
+    }
+
+    @Override
+    public DiscColor colorAt(int row, int col) {
+      return ReversiModel.this.rows[row][col];
+    }
+
+    @Override
+    public List<DiscColor> rawCells() {
+      if (this.cells == null) {
+        this.cells = BoardViewLists.cells(this, ReversiModel.this.geometry);
+      }
+      return this.cells;
+    }
+  }
 }
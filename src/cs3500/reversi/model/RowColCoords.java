@@ -1,14 +1,32 @@
 package cs3500.reversi.model;
 
-import java.util.Objects;
-
 /**
  * Represents a coordinate system of (row, column) rather than (x, y).
+ * Coordinates are immutable, so the ones every board up to edge length 32 uses are made once
+ * and handed out by RowColCoords.of (and by HexGeometry.coords) instead of being allocated for
+ * every probe.
  */
 public class RowColCoords {
+  // The number of rows and columns (starting at 0) that have a shared instance.
+  private static final int CACHE_SIZE = 64;
+
+  // The shared instances, indexed by row * CACHE_SIZE + col.
+  private static final RowColCoords[] CACHE = new RowColCoords[CACHE_SIZE * CACHE_SIZE];
+
+  static {
+    for (int row = 0; row < CACHE_SIZE; row++) {
+      for (int col = 0; col < CACHE_SIZE; col++) {
+        CACHE[row * CACHE_SIZE + col] = new RowColCoords(row, col);
+      }
+    }
+  }
+
   private final int row;
   private final int col;
 
+  // The hash code, worked out once (the same value Objects.hash(row, col) gives).
+  private final int hash;
+
   /**
    * Constructs a RowColCoords object.
    * @param row the row of the coordinate system
@@ -17,6 +35,20 @@ public class RowColCoords {
   public RowColCoords(int row, int col) {
     this.row = row;
     this.col = col;
+    this.hash = 31 * (31 + row) + col;
+  }
+
+  /**
+   * Returns the coordinates of a cell, reusing a shared instance when there is one.
+   * @param row the row of the coordinate system
+   * @param col the column of the coordinate system
+   * @return coordinates equal to new RowColCoords(row, col)
+   */
+  public static RowColCoords of(int row, int col) {
+    if (row >= 0 && row < CACHE_SIZE && col >= 0 && col < CACHE_SIZE) {
+      return CACHE[row * CACHE_SIZE + col];
+    }
+    return new RowColCoords(row, col);
   }
 
   /**
@@ -37,6 +69,9 @@ public class RowColCoords {
 
   @Override
   public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
     if (!(other instanceof RowColCoords)) {
       return false;
     }
@@ -47,6 +82,6 @@ public class RowColCoords {
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.row, this.col);
+    return this.hash;
   }
 }
@@ -0,0 +1,93 @@
+package cs3500.reversi.model;
+
+/**
+ * Everything needed to take back one move made with MutableReversiModel.makeMove or makePass:
+ * the cell that was played, the cells whose discs were flipped, and the game state and pass
+ * counter from before the move. Cells are stored as indices (see HexGeometry) so that a record
+ * takes space proportional to the number of flips rather than the size of the board.
+ * Records are only created by models, and can only be undone on the model that created them.
+ */
+public final class UndoRecord {
+  // The index of the cell the disc was placed on, or -1 if the move was a pass.
+  private final int move;
+
+  // The indices of the cells whose discs were flipped by the move.
+  private final int[] flipped;
+
+  // The state of the game before the move was made.
+  private final GameState previousState;
+
+  // The pass counter before the move was made.
+  private final int previousPassCounter;
+
+  /**
+   * Constructs an UndoRecord.
+   * @param move the index of the cell played, or -1 for a pass
+   * @param flipped the indices of the cells flipped by the move
+   * @param previousState the state of the game before the move
+   * @param previousPassCounter the pass counter before the move
+   */
+  UndoRecord(int move, int[] flipped, GameState previousState, int previousPassCounter) {
+    this.move = move;
+    this.flipped = flipped;
+    this.previousState = previousState;
+    this.previousPassCounter = previousPassCounter;
+  }
+
+  /**
+   * Determines whether the move was a pass.
+   * @return true iff no disc was placed
+   */
+  public boolean isPass() {
+    return this.move == -1;
+  }
+
+  /**
+   * Returns the cell that was played.
+   * @return the index of the cell the disc was placed on, or -1 if the move was a pass
+   */
+  public int getMove() {
+    return this.move;
+  }
+
+  /**
+   * Returns the number of discs flipped by the move.
+   * @return the number of flipped discs
+   */
+  public int getFlipCount() {
+    return this.flipped.length;
+  }
+
+  /**
+   * Returns one of the cells flipped by the move.
+   * @param i which flipped cell to get, less than getFlipCount()
+   * @return the index of that cell
+   */
+  public int getFlipped(int i) {
+    return this.flipped[i];
+  }
+
+  /**
+   * Returns the color of the player who made the move.
+   * @return black or white
+   */
+  public DiscColor getPlayer() {
+    return this.previousState == GameState.BLACKMOVE ? DiscColor.BLACK : DiscColor.WHITE;
+  }
+
+  /**
+   * Returns the state of the game before the move was made.
+   * @return the previous game state
+   */
+  public GameState getPreviousState() {
+    return this.previousState;
+  }
+
+  /**
+   * Returns the pass counter from before the move was made.
+   * @return the previous pass counter
+   */
+  public int getPreviousPassCounter() {
+    return this.previousPassCounter;
+  }
+}
@@ -0,0 +1,89 @@
+package cs3500.reversi.model;
+
+import java.util.List;
+
+/**
+ * The random keys used to give every Reversi position a 64-bit Zobrist hash. The hash of a
+ * position is the XOR of the key of each disc on the grid (one key per cell and color) and the
+ * key of the game state and pass counter, so placing, flipping, or removing a disc changes the
+ * hash with a single XOR and models can keep it up to date as the game is played.
+ * Keys are computed from their cell, color, and edge length with a fixed seed instead of being
+ * stored in a table, so every model on every machine gives the same position the same hash no
+ * matter how big the grid is, and positions on grids of different sizes get unrelated hashes.
+ */
+public final class ZobristKeys {
+  // The seed every key is computed from. Changing it changes every stored hash.
+  private static final long SEED = 0x3500_5E7E_A5E5_1DEAL;
+
+  // The increment of the SplitMix64 sequence (2^64 divided by the golden ratio).
+  private static final long GOLDEN_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+
+  /**
+   * Prevents this class from being instantiated.
+   */
+  private ZobristKeys() {
+  }
+
+  /**
+   * Returns the key for a disc on a cell.
+   * @param edgeLength the number of cells per edge of the grid
+   * @param cell the index (see HexGeometry) of the cell
+   * @param color the color of the disc, black or white
+   * @return the key to XOR into the hash when the disc is placed or removed
+   */
+  public static long discKey(int edgeLength, int cell, DiscColor color) {
+    long index = ((long) edgeLength << 32) | ((long) cell << 1) | color.ordinal();
+    return mix(SEED + GOLDEN_GAMMA * index);
+  }
+
+  /**
+   * Returns the key for flipping the disc on a cell, which is the same whichever way it flips.
+   * @param edgeLength the number of cells per edge of the grid
+   * @param cell the index (see HexGeometry) of the cell
+   * @return the key to XOR into the hash when the disc is flipped
+   */
+  public static long flipKey(int edgeLength, int cell) {
+    return discKey(edgeLength, cell, DiscColor.BLACK) ^ discKey(edgeLength, cell, DiscColor.WHITE);
+  }
+
+  /**
+   * Returns the key for the side to move and the number of passes in a row.
+   * @param state the state of the game
+   * @param passCounter the number of consecutive passes
+   * @return the key to XOR into the hash of the discs on the grid
+   */
+  public static long stateKey(GameState state, int passCounter) {
+    long index = -1 - (state.ordinal() * 3L + Math.min(passCounter, 2));
+    return mix(SEED + GOLDEN_GAMMA * index);
+  }
+
+  /**
+   * Computes the hash of a position from scratch by reading every cell of the grid.
+   * @param model some game of Reversi
+   * @return the Zobrist hash of the model's current position
+   */
+  public static long hashOf(ROReversiModel model) {
+    int edgeLength = model.getEdgeLength();
+    long hash = stateKey(model.getGameState(), model.getPassCounter());
+    List<DiscColor> cells = model.getBoardView().rawCells();
+    for (int cell = 0; cell < cells.size(); cell++) {
+      DiscColor color = cells.get(cell);
+      if (color != DiscColor.NONE) {
+        hash ^= discKey(edgeLength, cell, color);
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Scrambles the bits of a number (the SplitMix64 finalizer) so that consecutive inputs give
+   * unrelated outputs.
+   * @param z the number to scramble
+   * @return the scrambled number
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -4,6 +4,20 @@ package cs3500.reversi.provider.model;
  * represents the 3D axial coordinates in a hexagonal board.
  */
 public class CubicPosn {
+  // the coordinates from -CACHE_RADIUS to CACHE_RADIUS - 1 on both axes have a shared instance
+  private static final int CACHE_RADIUS = 32;
+
+  // the shared instances, indexed by (x + CACHE_RADIUS) * 2 * CACHE_RADIUS + y + CACHE_RADIUS
+  private static final CubicPosn[] CACHE = new CubicPosn[4 * CACHE_RADIUS * CACHE_RADIUS];
+
+  static {
+    for (int x = -CACHE_RADIUS; x < CACHE_RADIUS; x++) {
+      for (int y = -CACHE_RADIUS; y < CACHE_RADIUS; y++) {
+        CACHE[(x + CACHE_RADIUS) * 2 * CACHE_RADIUS + y + CACHE_RADIUS] = new CubicPosn(x, y);
+      }
+    }
+  }
+
   public final int x;
   public final int y;
 
@@ -18,6 +32,20 @@ public class CubicPosn {
     this.y = y;
   }
 
+  /**
+   * returns a CubicPosn, reusing a shared instance for coordinates near the center.
+   *
+   * @param x x-coordinate
+   * @param y y-coordinate
+   * @return a CubicPosn equal to new CubicPosn(x, y)
+   */
+  public static CubicPosn of(int x, int y) {
+    if (x >= -CACHE_RADIUS && x < CACHE_RADIUS && y >= -CACHE_RADIUS && y < CACHE_RADIUS) {
+      return CACHE[(x + CACHE_RADIUS) * 2 * CACHE_RADIUS + y + CACHE_RADIUS];
+    }
+    return new CubicPosn(x, y);
+  }
+
   /**
    * overrides definition of equality for CubicPosn.
    *
@@ -1,6 +1,9 @@
 package cs3500.reversi.provider.strategy;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import cs3500.reversi.provider.model.CubicPosn;
 import cs3500.reversi.provider.model.DiskState;
@@ -19,24 +22,26 @@ public class AvoidSecondRing extends CaptureMostPieces {
   @Override
   public void filter(List<CubicPosn> coords, DiskState player, ReadOnlyReversiModel model) {
     int size = model.getBoardSize();
-    coords.removeIf(coord -> coord.equals(new CubicPosn(size, -1))
-            || coord.equals(new CubicPosn(size - 1, 0))
-            || coord.equals(new CubicPosn(size - 1, 1))
-            || coord.equals(new CubicPosn(1, size - 1))
-            || coord.equals(new CubicPosn(0, size - 1))
-            || coord.equals(new CubicPosn(-1, size))
-            || coord.equals(new CubicPosn(-size, size - 1))
-            || coord.equals(new CubicPosn(-size + 1, size - 1))
-            || coord.equals(new CubicPosn(-size + 1, size))
-            || coord.equals(new CubicPosn(-size, 1))
-            || coord.equals(new CubicPosn(-size + 1, 0))
-            || coord.equals(new CubicPosn(-size + 1, -1))
-            || coord.equals(new CubicPosn(0, -size + 1))
-            || coord.equals(new CubicPosn(-1, -size + 1))
-            || coord.equals(new CubicPosn(1, -size))
-            || coord.equals(new CubicPosn(size, -size + 1))
-            || coord.equals(new CubicPosn(size, -size + 1))
-            || coord.equals(new CubicPosn(size - 1, -size))
-            || coord.equals(new CubicPosn(size - 1, -size + 1)));
+    // the ring is built once per call instead of once per candidate
+    Set<CubicPosn> secondRing = new HashSet<>(Arrays.asList(
+            CubicPosn.of(size, -1),
+            CubicPosn.of(size - 1, 0),
+            CubicPosn.of(size - 1, 1),
+            CubicPosn.of(1, size - 1),
+            CubicPosn.of(0, size - 1),
+            CubicPosn.of(-1, size),
+            CubicPosn.of(-size, size - 1),
+            CubicPosn.of(-size + 1, size - 1),
+            CubicPosn.of(-size + 1, size),
+            CubicPosn.of(-size, 1),
+            CubicPosn.of(-size + 1, 0),
+            CubicPosn.of(-size + 1, -1),
+            CubicPosn.of(0, -size + 1),
+            CubicPosn.of(-1, -size + 1),
+            CubicPosn.of(1, -size),
+            CubicPosn.of(size, -size + 1),
+            CubicPosn.of(size - 1, -size),
+            CubicPosn.of(size - 1, -size + 1)));
+    coords.removeIf(secondRing::contains);
   }
 }
@@ -23,12 +23,12 @@ public class PrioritizeCorners extends CaptureMostPieces {
     CubicPosn corner = null;
     boolean foundCorner = false;
     for (CubicPosn coord : coords) {
-      if (coord.equals(new CubicPosn(size, 0))
-              || coord.equals(new CubicPosn(0, size))
-              || coord.equals(new CubicPosn(-size, size))
-              || coord.equals(new CubicPosn(-size, 0))
-              || coord.equals(new CubicPosn(0, -size))
-              || coord.equals(new CubicPosn(size, -size))) {
+      if (coord.equals(CubicPosn.of(size, 0))
+              || coord.equals(CubicPosn.of(0, size))
+              || coord.equals(CubicPosn.of(-size, size))
+              || coord.equals(CubicPosn.of(-size, 0))
+              || coord.equals(CubicPosn.of(0, -size))
+              || coord.equals(CubicPosn.of(size, -size))) {
         corner = coord;
         foundCorner = true;
       }
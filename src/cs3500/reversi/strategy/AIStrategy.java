@@ -41,10 +41,10 @@ public class AIStrategy implements ReversiStrategy {
     Objects.requireNonNull(model);
     Objects.requireNonNull(player);
     throwIfNotPlayersTurn(model, player);
-    throwIfNoLegalMoves(model);
 
     // Get all valid moves
     Map<RowColCoords, Integer> filteredMoves = StrategyUtils.getAllValidMoves(model);
+    throwIfNoLegalMoves(filteredMoves);
 
     // Apply each strategy to the map of valid moves, refining the available options
     for (FilteringReversiStrategy strategy : this.strategiesToApply) {
@@ -80,9 +80,9 @@ public class AIStrategy implements ReversiStrategy {
   }
 
 
-  private static void throwIfNoLegalMoves(ROReversiModel model)
+  private static void throwIfNoLegalMoves(Map<RowColCoords, Integer> legalMoves)
           throws IllegalStateException {
-    if (!model.anyLegalMoves()) {
+    if (legalMoves.isEmpty()) {
       throw new IllegalStateException("HumanPlayer has no moves and must pass");
     }
   }
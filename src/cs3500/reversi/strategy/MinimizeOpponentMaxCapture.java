@@ -2,12 +2,12 @@ package cs3500.reversi.strategy;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 import cs3500.reversi.model.MutableReversiModel;
 import cs3500.reversi.model.ROReversiModel;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.model.RowColCoords;
+import cs3500.reversi.model.UndoRecord;
 
 /**
  * A FilteringReversiStrategy that filters out all the moves that, if the opponent
@@ -18,68 +18,62 @@ public class MinimizeOpponentMaxCapture implements FilteringReversiStrategy {
   @Override
   public Map<RowColCoords, Integer> filterMoves(Map<RowColCoords, Integer> possibleMoves,
                                                 ROReversiModel model) {
-    Map<RowColCoords, Map<RowColCoords, Integer>>
-            allOpponentMovesForEachPlayerMove = getAllOpponentMoves(possibleMoves, model);
-    int minMaxOpponentCapture = getMinMaxOpponentCapture(allOpponentMovesForEachPlayerMove);
+    Map<RowColCoords, Integer> opponentMaxCaptureForEachPlayerMove =
+            getOpponentMaxCaptures(possibleMoves, model);
+    int minMaxOpponentCapture = getMinMaxOpponentCapture(opponentMaxCaptureForEachPlayerMove);
     removeNonMinimizingMoves(possibleMoves,
-            allOpponentMovesForEachPlayerMove, minMaxOpponentCapture);
+            opponentMaxCaptureForEachPlayerMove, minMaxOpponentCapture);
     return possibleMoves;
   }
 
   /**
-   * Creates a map from each of the given possible move coordinates to a map of all the opponent's
-   * possible moves if that move was played.
+   * Creates a map from each of the given possible move coordinates to the most discs the
+   * opponent could capture on their turn if that move was played.
    * @param possibleMoves the current map of legal moves to the number of discs that move captures
    * @param model the model for the game being played
    * @return a map with all the values inserted
    */
-  private Map<RowColCoords, Map<RowColCoords, Integer>> getAllOpponentMoves(
-          Map<RowColCoords, Integer> possibleMoves, 
+  private Map<RowColCoords, Integer> getOpponentMaxCaptures(
+          Map<RowColCoords, Integer> possibleMoves,
           ROReversiModel model) {
-    Map<RowColCoords, Map<RowColCoords, Integer>> map = new HashMap<>();
+    Map<RowColCoords, Integer> map = new HashMap<>();
+    MutableReversiModel copyModel = ReversiModel.createCopy(model);
     for (RowColCoords cell : possibleMoves.keySet()) {
-      // For each move in the current set of moves, make that move on a copy of the model
-      MutableReversiModel copyModel = ReversiModel.createCopy(model);
-      copyModel.placeDiscInCell(cell);
+      // For each move in the current set of moves, make that move on the copy of the model
+      UndoRecord move = copyModel.makeMove(cell);
 
-      // Then get all the valid moves the opponent can make
-      Map<RowColCoords, Integer> opponentPossibleMoves = StrategyUtils.getAllValidMoves(copyModel);
-      map.put(cell, opponentPossibleMoves);
+      // Then find the most discs any of the opponent's moves would capture
+      // (0 if they have no moves)
+      int[] opponentMax = new int[1];
+      copyModel.forEachLegalMove((opponentCell, flips) ->
+              opponentMax[0] = Math.max(opponentMax[0], flips));
+      map.put(cell, opponentMax[0]);
+
+      // Take the move back so the copy can be reused for the next move
+      copyModel.unmakeMove(move);
     }
-    
+
     return map;
   }
 
   /**
    * Finds the smallest number of discs the opponent could capture if they were trying to capture
    * the most discs possible.
-   * @param allOpponentMovesForEachPlayerMove a map from each of the player's moves to a map of
-   *                                          each of the opponent's moves if the player were to
-   *                                          play the corresponding move
+   * @param opponentMaxCaptureForEachPlayerMove a map from each of the player's moves to the most
+   *                                            discs the opponent could capture if the player
+   *                                            were to play the corresponding move
    * @return the smallest maximum number of discs that could be captured on the opponent's turn
    *         depending on the player's move
    */
   private int getMinMaxOpponentCapture(
-          Map<RowColCoords, Map<RowColCoords, Integer>> allOpponentMovesForEachPlayerMove) {
+          Map<RowColCoords, Integer> opponentMaxCaptureForEachPlayerMove) {
     int minMaxOpponentCapture = -1;
-    for (RowColCoords playerMove : allOpponentMovesForEachPlayerMove.keySet()) {
-      // For each of the player's available moves, get all of the opponent's available moves and
-      // find the maximum number of discs the opponent could capture from their options
-      Map<RowColCoords, Integer> opponentMoves = allOpponentMovesForEachPlayerMove.get(playerMove);
-      Optional<Integer> maxValue = opponentMoves.values().stream().max(Integer::compareTo);
-
-      if (maxValue.isPresent()) {
-        // The opponent has at least one move to play
-        if (minMaxOpponentCapture == -1) {
-          minMaxOpponentCapture = maxValue.get();
-        } else {
-          // Find the smallest maximum capture
-          minMaxOpponentCapture = Math.min(minMaxOpponentCapture, maxValue.get());
-        }
+    for (int maxValue : opponentMaxCaptureForEachPlayerMove.values()) {
+      if (minMaxOpponentCapture == -1) {
+        minMaxOpponentCapture = maxValue;
       } else {
-        // The opponent has no possible moves
-        // They can't have less than 0, so that is the minimum max capture
-        return 0;
+        // Find the smallest maximum capture
+        minMaxOpponentCapture = Math.min(minMaxOpponentCapture, maxValue);
       }
     }
     return minMaxOpponentCapture;
@@ -89,29 +83,20 @@ public class MinimizeOpponentMaxCapture implements FilteringReversiStrategy {
    * Removes all of the player's moves that would allow the opponent to capture more
    * than minMaxOpponentCapture.
    * @param possibleMoves the current map of legal moves to the number of discs that move captures
-   * @param allOpponentMovesForEachPlayerMove a map from each of the player's moves to a map of
-   *                                          each of the opponent's moves if the player were to
-   *                                          play the corresponding move
+   * @param opponentMaxCaptureForEachPlayerMove a map from each of the player's moves to the most
+   *                                            discs the opponent could capture if the player
+   *                                            were to play the corresponding move
    * @param minMaxOpponentCapture the smallest maximum number of discs that could be captured on
    *                              the opponent's turn depending on the player's move
    */
   private void removeNonMinimizingMoves(
-          Map<RowColCoords, Integer> possibleMoves, Map<RowColCoords,
-          Map<RowColCoords, Integer>> allOpponentMovesForEachPlayerMove,
+          Map<RowColCoords, Integer> possibleMoves,
+          Map<RowColCoords, Integer> opponentMaxCaptureForEachPlayerMove,
           int minMaxOpponentCapture) {
-    for (RowColCoords playerMove : allOpponentMovesForEachPlayerMove.keySet()) {
-      // Gets the max capture number for each of the player's moves
-      Optional<Integer> maxValue = allOpponentMovesForEachPlayerMove.get(playerMove)
-              .values().stream().max(Integer::compareTo);
-
-      // If there's no max value, the opponent has no moves to play
-      if (maxValue.isEmpty()) {
-        maxValue = Optional.of(0);
-      }
-
+    for (RowColCoords playerMove : opponentMaxCaptureForEachPlayerMove.keySet()) {
       // If the opponent's move max value is greater than the minMax value, remove the player's
       // move that would allow the opponent to capture those discs
-      if (maxValue.get() > minMaxOpponentCapture) {
+      if (opponentMaxCaptureForEachPlayerMove.get(playerMove) > minMaxOpponentCapture) {
         possibleMoves.remove(playerMove);
       }
     }
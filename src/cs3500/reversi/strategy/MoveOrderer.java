@@ -0,0 +1,160 @@
+package cs3500.reversi.strategy;
+
+import java.util.Arrays;
+
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.ROReversiModel;
+import cs3500.reversi.model.RowColCoords;
+
+/**
+ * Sorts the legal moves of each position of a search so that the moves most likely to be best
+ * are searched first, which lets alpha-beta pruning skip more of the others. Moves are tried in
+ * this order:
+ * 1. the best move stored in the TranspositionTable for the position (the hash move),
+ * 2. the two moves that most recently caused a cutoff at the same ply (the killer moves),
+ * 3. corners, then every other cell, then cells next to corners (see StrategyUtils), and
+ *    within each of those the cells whose moves have caused the most cutoffs so far, weighted
+ *    by the depth left when they did (the history heuristic).
+ * What the orderer learns lasts for every iteration of one search, and it is only used by the
+ * thread doing that search.
+ */
+final class MoveOrderer {
+  // How many killer moves are kept for each ply.
+  private static final int KILLERS = 2;
+
+  // The ranks of moves that aren't the hash move or a killer move.
+  private static final int NEXT_TO_CORNER_RANK = 0;
+  private static final int OTHER_RANK = 1;
+  private static final int CORNER_RANK = 2;
+
+  // The ranks of the killer moves, best first, and of the hash move.
+  private static final int FIRST_KILLER_RANK = 4;
+  private static final int HASH_MOVE_RANK = 5;
+
+  // Once any history score gets this big, every score is halved so that they keep fitting.
+  // A move's priority is its rank above its history score, which fits in 31 bits.
+  private static final int HISTORY_BITS = 28;
+  private static final int HISTORY_LIMIT = 1 << HISTORY_BITS;
+
+  // Each sort key is the move's priority, inverted so that the best move sorts first, above
+  // the move's index among the moves being sorted, which keeps ties in their original order.
+  private static final int INDEX_BITS = 31;
+  private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+  // The most moves sorted by insertion sort. More than that are sorted by Arrays.sort, since
+  // on big boards positions can have hundreds of moves.
+  private static final int INSERTION_SORT_LIMIT = 16;
+
+  // The rank of each cell before anything is learned, indexed by cell.
+  private final int[] priors;
+
+  // How many cutoffs each cell's move has caused, weighted by depth, indexed by cell.
+  private final int[] history;
+
+  // The killer moves of each ply, most recent first, or -1.
+  private int[][] killers;
+
+  // The sort key of each move being sorted, and the moves in their original order, reused for
+  // every position.
+  private final long[] keys;
+  private final int[] unsorted;
+
+  /**
+   * Constructs a MoveOrderer for the grid of a game.
+   * @param model the game being searched
+   */
+  MoveOrderer(ROReversiModel model) {
+    HexGeometry geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
+    this.priors = new int[geometry.cellCount()];
+    Arrays.fill(this.priors, OTHER_RANK);
+    // On the smallest grids some cells next to one corner are other corners
+    for (RowColCoords cell : StrategyUtils.getCellsAdjacentToCorners(model)) {
+      this.priors[geometry.cellIndex(cell)] = NEXT_TO_CORNER_RANK;
+    }
+    for (RowColCoords cell : StrategyUtils.getCornerCells(model)) {
+      this.priors[geometry.cellIndex(cell)] = CORNER_RANK;
+    }
+    this.history = new int[geometry.cellCount()];
+    this.killers = new int[0][];
+    this.keys = new long[geometry.cellCount()];
+    this.unsorted = new int[geometry.cellCount()];
+  }
+
+  /**
+   * Sorts the legal moves of a position, best first.
+   * @param moves the cell indexes of the moves
+   * @param count how many moves there are
+   * @param ply how many moves the position is from the root of the search
+   * @param hashMove the cell index of the hash move, or -1 if there is none
+   */
+  void order(int[] moves, int count, int ply, int hashMove) {
+    ensurePly(ply);
+    int[] plyKillers = this.killers[ply];
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      int rank = this.priors[move];
+      if (move == hashMove) {
+        rank = HASH_MOVE_RANK;
+      } else {
+        for (int k = 0; k < KILLERS; k++) {
+          if (plyKillers[k] == move) {
+            rank = FIRST_KILLER_RANK - k;
+            break;
+          }
+        }
+      }
+      int priority = (rank << HISTORY_BITS) | this.history[move];
+      this.keys[i] = ((long) (Integer.MAX_VALUE - priority) << INDEX_BITS) | i;
+    }
+
+    if (count <= INSERTION_SORT_LIMIT) {
+      for (int i = 1; i < count; i++) {
+        long key = this.keys[i];
+        int j = i - 1;
+        while (j >= 0 && this.keys[j] > key) {
+          this.keys[j + 1] = this.keys[j];
+          j--;
+        }
+        this.keys[j + 1] = key;
+      }
+    } else {
+      Arrays.sort(this.keys, 0, count);
+    }
+    System.arraycopy(moves, 0, this.unsorted, 0, count);
+    for (int i = 0; i < count; i++) {
+      moves[i] = this.unsorted[(int) (this.keys[i] & INDEX_MASK)];
+    }
+  }
+
+  /**
+   * Learns from a move that was good enough to cut off the search of its position.
+   * @param move the cell index of the move
+   * @param ply how many moves the position is from the root of the search
+   * @param depth how many moves ahead the position was being searched
+   */
+  void cutoff(int move, int ply, int depth) {
+    ensurePly(ply);
+    int[] plyKillers = this.killers[ply];
+    if (plyKillers[0] != move) {
+      System.arraycopy(plyKillers, 0, plyKillers, 1, KILLERS - 1);
+      plyKillers[0] = move;
+    }
+    this.history[move] += depth * depth;
+    if (this.history[move] >= HISTORY_LIMIT) {
+      for (int cell = 0; cell < this.history.length; cell++) {
+        this.history[cell] /= 2;
+      }
+    }
+  }
+
+  private void ensurePly(int ply) {
+    if (this.killers.length <= ply) {
+      int[][] grown = Arrays.copyOf(this.killers, ply + 1);
+      for (int i = this.killers.length; i < grown.length; i++) {
+        grown[i] = new int[KILLERS];
+        Arrays.fill(grown[i], -1);
+      }
+      this.killers = grown;
+    }
+  }
+}
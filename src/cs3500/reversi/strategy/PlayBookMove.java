@@ -0,0 +1,52 @@
+package cs3500.reversi.strategy;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.PositionDatabase;
+import cs3500.reversi.model.ROReversiModel;
+import cs3500.reversi.model.RowColCoords;
+
+/**
+ * A FilteringReversiStrategy that looks the current position up in a PositionDatabase and
+ * filters out every move but the best move stored for it, if there is one and it is legal.
+ */
+public class PlayBookMove implements FilteringReversiStrategy {
+  // The database of positions to consult
+  private final PositionDatabase book;
+
+  // The fewest visits a position needs before its best move is trusted
+  private final int minVisits;
+
+  /**
+   * Constructs a PlayBookMove strategy.
+   * @param book the database of positions to consult
+   * @param minVisits the fewest visits a position needs before its best move is played
+   */
+  public PlayBookMove(PositionDatabase book, int minVisits) {
+    this.book = Objects.requireNonNull(book);
+    this.minVisits = minVisits;
+  }
+
+  @Override
+  public Map<RowColCoords, Integer> filterMoves(Map<RowColCoords, Integer> possibleMoves,
+                                                ROReversiModel model) {
+    PositionDatabase.Entry entry = this.book.lookup(model);
+    if (entry == null || entry.getBestMove() < 0 || entry.getVisits() < this.minVisits) {
+      return possibleMoves;
+    }
+
+    // Positions with the same hash could still be different, so the move has to be legal here
+    HexGeometry geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
+    if (entry.getBestMove() >= geometry.cellCount()) {
+      return possibleMoves;
+    }
+    RowColCoords move = geometry.coords(entry.getBestMove());
+    if (possibleMoves.containsKey(move)) {
+      return Collections.singletonMap(move, possibleMoves.get(move));
+    }
+    return possibleMoves;
+  }
+}
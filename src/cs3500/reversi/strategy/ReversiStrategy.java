@@ -1,5 +1,7 @@
 package cs3500.reversi.strategy;
 
+import java.time.Duration;
+
 import cs3500.reversi.model.IPlayer;
 import cs3500.reversi.model.ROReversiModel;
 import cs3500.reversi.model.RowColCoords;
@@ -16,4 +18,40 @@ public interface ReversiStrategy {
    * @throws IllegalStateException if the player is not the active player or has no valid moves
    */
   RowColCoords chooseCell(ROReversiModel model, IPlayer player) throws IllegalStateException;
+
+  /**
+   * Chooses a cell to place the player's disc at using some strategy, taking no longer than the
+   * time limit. Strategies that can stop early and still choose a move override this; by
+   * default the time limit is ignored.
+   * @param model the model for the game being played
+   * @param player the player who is choosing a move
+   * @param timeLimit how long the strategy may take
+   * @return the cell chosen to be played by the active player
+   * @throws IllegalStateException if the player is not the active player or has no valid moves
+   */
+  default RowColCoords chooseCell(ROReversiModel model, IPlayer player, Duration timeLimit)
+          throws IllegalStateException {
+    return chooseCell(model, player);
+  }
+
+  /**
+   * Chooses a cell to place the player's disc at using some strategy, taking no longer than the
+   * time limit and using up to the given number of threads. Strategies that can search on
+   * several threads override this; by default only the calling thread is used.
+   * @param model the model for the game being played
+   * @param player the player who is choosing a move
+   * @param timeLimit how long the strategy may take
+   * @param threads how many threads the strategy may use, including the calling thread
+   * @return the cell chosen to be played by the active player
+   * @throws IllegalArgumentException if threads is less than 1
+   * @throws IllegalStateException if the player is not the active player or has no valid moves
+   */
+  default RowColCoords chooseCell(ROReversiModel model, IPlayer player, Duration timeLimit,
+                                  int threads)
+          throws IllegalArgumentException, IllegalStateException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("There must be at least 1 thread");
+    }
+    return chooseCell(model, player, timeLimit);
+  }
 }
@@ -0,0 +1,641 @@
+package cs3500.reversi.strategy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import cs3500.reversi.model.BitboardReversiModel;
+import cs3500.reversi.model.DiscColor;
+import cs3500.reversi.model.GameState;
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.IPlayer;
+import cs3500.reversi.model.MutableReversiModel;
+import cs3500.reversi.model.ROReversiModel;
+import cs3500.reversi.model.RowColCoords;
+import cs3500.reversi.model.UndoRecord;
+
+/**
+ * A strategy that looks ahead a fixed number of moves, choosing the move that leaves the player
+ * in the best position if both players keep playing their best moves. Positions are searched
+ * with negamax (scoring every position for the player to move, so one player's best score is
+ * the other's worst) and alpha-beta pruning, which skips the moves that can no longer change
+ * the result. After the first move of each position, every other move is first searched with
+ * a zero-width window just to prove it is no better (principal variation search), and only
+ * searched again properly if it is.
+ * The search plays the moves on its own BitboardReversiModel with makeMove and unmakeMove, so
+ * the model of the game being played is never changed. Positions at the end of the search are
+ * scored by the difference in discs, with corners worth more and cells next to corners worth
+ * less, and finished games are scored as a win or loss by their final disc difference.
+ * Given a time limit, the strategy deepens iteratively instead: it searches 1 move ahead, then
+ * 2, and so on up to its depth, each time trying the best move of the last search first. It
+ * always holds the best move of the deepest finished search, and stops as soon as the time is
+ * up, so it answers within the time limit whatever the size of the board. It also stops once a
+ * search reaches the end of the game along every line, since looking further can't change it.
+ * Given a TranspositionTable, the search remembers the score of every position it finishes,
+ * and uses it instead of searching the position again when it is reached by another order of
+ * moves, in a later search of the deepening, or on a later turn.
+ * Unless told not to, the search sorts the moves of each position with a MoveOrderer, trying
+ * the table's best move, then the moves that caused cutoffs at the same ply or anywhere, and
+ * corners before cells next to corners, so that pruning skips more of the tree.
+ */
+public class SearchStrategy implements ReversiStrategy {
+  // The score of a finished game that the player to move has won, before adding the disc
+  // difference. Bigger than any score of an unfinished game.
+  static final int WIN_SCORE = 1_000_000;
+
+  // A score that no position can reach.
+  static final int INFINITY = 2 * WIN_SCORE;
+
+  // How much more a disc on a corner is worth than any other disc.
+  private static final int CORNER_WEIGHT = 10;
+
+  // How much less a disc next to a corner is worth than any other disc.
+  private static final int NEXT_TO_CORNER_WEIGHT = -3;
+
+  // The size of the table threads share when the strategy has none of its own, in megabytes.
+  private static final int SHARED_TABLE_MEGABYTES = 16;
+
+  // About how many cells the search looks at between looks at the clock, since visiting a
+  // position takes time in proportion to the size of the board: 128 positions on a board with
+  // edge length 8, and every position on boards with edge length 75 or more.
+  private static final int CLOCK_CHECK_CELLS = 1 << 15;
+
+  // How many moves ahead to look, or at most how many with a time limit.
+  private final int depth;
+
+  // What earlier searches learned about positions, or null to not remember anything.
+  private final TranspositionTable table;
+
+  // Whether to sort the moves of each position before searching them.
+  private final boolean orderMoves;
+
+  // The number of positions visited by the last search.
+  private long nodes;
+
+  // How many moves ahead the last search finished looking.
+  private int depthCompleted;
+
+  /**
+   * Constructs a SearchStrategy.
+   * @param depth how many moves ahead to look (at least 1), or at most how many when given a
+   *              time limit
+   * @throws IllegalArgumentException if depth is less than 1
+   */
+  public SearchStrategy(int depth) throws IllegalArgumentException {
+    this(depth, null, true);
+  }
+
+  /**
+   * Constructs a SearchStrategy that remembers what it learns about positions in a table,
+   * which can be shared with other strategies.
+   * @param depth how many moves ahead to look (at least 1), or at most how many when given a
+   *              time limit
+   * @param table the table to remember positions in
+   * @throws IllegalArgumentException if depth is less than 1
+   */
+  public SearchStrategy(int depth, TranspositionTable table) throws IllegalArgumentException {
+    this(depth, Objects.requireNonNull(table), true);
+  }
+
+  /**
+   * Constructs a SearchStrategy, choosing whether it remembers positions and whether it sorts
+   * moves, such as to measure how much each saves.
+   * @param depth how many moves ahead to look (at least 1), or at most how many when given a
+   *              time limit
+   * @param table the table to remember positions in, or null to not remember anything
+   * @param orderMoves whether to sort the moves of each position before searching them, or to
+   *                   search them in the order of their cells
+   * @throws IllegalArgumentException if depth is less than 1
+   */
+  public SearchStrategy(int depth, TranspositionTable table, boolean orderMoves)
+          throws IllegalArgumentException {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1");
+    }
+    this.depth = depth;
+    this.table = table;
+    this.orderMoves = orderMoves;
+  }
+
+  @Override
+  public RowColCoords chooseCell(ROReversiModel model, IPlayer player)
+          throws IllegalStateException {
+    Objects.requireNonNull(model);
+    Objects.requireNonNull(player);
+    throwIfNotPlayersTurn(model, player);
+    if (this.table != null) {
+      this.table.newSearch();
+    }
+
+    Searcher searcher = new Searcher(model, this.table, this.orderMoves, 0, null, 0);
+    int move = searcher.searchRoot(this.depth, -1);
+    this.nodes = searcher.nodes;
+    this.depthCompleted = this.depth;
+    return HexGeometry.forEdgeLength(model.getEdgeLength()).coords(move);
+  }
+
+  /**
+   * Chooses a cell by searching deeper and deeper until the depth of this strategy is reached
+   * or the time is up.
+   * @param model the model for the game being played
+   * @param player the player who is choosing a move
+   * @param timeLimit how long the strategy may take
+   * @return the best move of the deepest search finished in time, or the first legal move if
+   *         not even a search 1 move ahead finished
+   * @throws IllegalStateException if the player is not the active player or has no valid moves
+   */
+  @Override
+  public RowColCoords chooseCell(ROReversiModel model, IPlayer player, Duration timeLimit)
+          throws IllegalStateException {
+    return chooseCell(model, player, timeLimit, 1);
+  }
+
+  /**
+   * Chooses a cell by searching deeper and deeper on several threads at once until the depth
+   * of this strategy is reached or the time is up (Lazy SMP). Every thread searches the whole
+   * position, sharing what it learns through the TranspositionTable, so each one finds more of
+   * the tree already searched. To keep them from all searching the same moves at the same
+   * depth, every helper thread tries the moves of the position in a different order, and every
+   * other one searches one move deeper. The answer is the best move of the deepest search any
+   * thread finished, and every thread stops as soon as one finishes searching to the depth of
+   * this strategy. Without a table of its own, the strategy shares a new one between the
+   * threads.
+   * @param model the model for the game being played
+   * @param player the player who is choosing a move
+   * @param timeLimit how long the strategy may take
+   * @param threads how many threads to search on, including the calling thread
+   * @return the best move of the deepest search finished in time, or the first legal move if
+   *         not even a search 1 move ahead finished
+   * @throws IllegalArgumentException if threads is less than 1
+   * @throws IllegalStateException if the player is not the active player or has no valid moves
+   */
+  @Override
+  public RowColCoords chooseCell(ROReversiModel model, IPlayer player, Duration timeLimit,
+                                 int threads)
+          throws IllegalArgumentException, IllegalStateException {
+    Objects.requireNonNull(model);
+    Objects.requireNonNull(player);
+    Objects.requireNonNull(timeLimit);
+    long deadline = System.nanoTime() + timeLimit.toNanos();
+    if (threads < 1) {
+      throw new IllegalArgumentException("There must be at least 1 thread");
+    }
+    throwIfNotPlayersTurn(model, player);
+    TranspositionTable shared = this.table;
+    if (shared == null && threads > 1) {
+      shared = TranspositionTable.create(SHARED_TABLE_MEGABYTES);
+    }
+    if (shared != null) {
+      shared.newSearch();
+    }
+
+    // Every searcher copies the model on this thread, before any of them start
+    AtomicBoolean abort = new AtomicBoolean(false);
+    Searcher[] searchers = new Searcher[threads];
+    for (int i = 0; i < threads; i++) {
+      searchers[i] = new Searcher(model, shared, this.orderMoves, deadline, abort, i);
+    }
+    Thread[] helpers = new Thread[threads - 1];
+    for (int i = 1; i < threads; i++) {
+      Searcher helper = searchers[i];
+      int firstDepth = Math.min(1 + i % 2, this.depth);
+      helpers[i - 1] = new Thread(() -> helper.deepen(this.depth, firstDepth),
+              "search-helper-" + i);
+      helpers[i - 1].setDaemon(true);
+      helpers[i - 1].start();
+    }
+    searchers[0].deepen(this.depth, 1);
+    abort.set(true);
+    for (Thread helper : helpers) {
+      joinUninterruptibly(helper);
+    }
+
+    Searcher deepest = searchers[0];
+    this.nodes = 0;
+    for (Searcher searcher : searchers) {
+      this.nodes += searcher.nodes;
+      if (searcher.depthCompleted > deepest.depthCompleted) {
+        deepest = searcher;
+      }
+    }
+    this.depthCompleted = deepest.depthCompleted;
+    return HexGeometry.forEdgeLength(model.getEdgeLength()).coords(deepest.best);
+  }
+
+  /**
+   * Returns the number of positions the last call to chooseCell visited, on every thread.
+   * @return the number of nodes searched
+   */
+  public long getNodesSearched() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns how many moves ahead the last call to chooseCell finished looking, which with a
+   * time limit can be less than the depth of this strategy.
+   * @return the depth of the deepest finished search
+   */
+  public int getDepthCompleted() {
+    return this.depthCompleted;
+  }
+
+  private static void joinUninterruptibly(Thread thread) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        thread.join();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void throwIfNotPlayersTurn(ROReversiModel model, IPlayer player)
+          throws IllegalStateException {
+    if (model.getGameState() != GameState.BLACKMOVE
+            && model.getGameState() != GameState.WHITEMOVE) {
+      throw new IllegalStateException("It isn't either player's turn");
+    }
+    if (model.getActivePlayerColor() != player.getColor()) {
+      throw new IllegalStateException("It is not this player's turn");
+    }
+  }
+
+  /**
+   * One search of one position, with the board it plays moves on and the arrays it generates
+   * moves into, so that nothing is allocated per position but the undo records.
+   */
+  private static final class Searcher {
+    // The board the search plays its moves on.
+    private final MutableReversiModel board;
+
+    // The player to move at the root of the search.
+    private final DiscColor rootPlayer;
+
+    // The layout of the board.
+    private final HexGeometry geometry;
+
+    // The table positions are remembered in, or null.
+    private final TranspositionTable table;
+
+    // What sorts the moves of each position, or null to search them in the order of their cells.
+    private final MoveOrderer orderer;
+
+    // The cells where a disc is worth more or less than usual, and how much.
+    private final int[] weightedCells;
+    private final int[] weights;
+
+    // The legal moves at the root, and how many there are.
+    private final int[] rootMoves;
+    private final int rootCount;
+
+    // The legal moves and the discs each would capture at each ply of the search.
+    private int[][] moves;
+    private int[][] flips;
+
+    // The value of System.nanoTime() at which to stop searching, and the flag that stops every
+    // thread searching the position, or null to search without a time limit.
+    private final long deadline;
+    private final AtomicBoolean abort;
+
+    // How many places the moves of the root are rotated by, so that helper threads search them
+    // in a different order.
+    private final int rotation;
+
+    // The number of positions visited so far.
+    private long nodes;
+
+    // How often the search looks at the clock, as one less than a power of 2 of positions.
+    private final int clockCheckMask;
+
+    // Whether the time ran out, leaving the current search unfinished.
+    private boolean stopped;
+
+    // Whether the current search stopped at any unfinished position because of its depth.
+    private boolean reachedDepth;
+
+    // The best move of the deepest search finished so far, and how deep that search was.
+    private int best;
+    private int depthCompleted;
+
+    /**
+     * Constructs a Searcher for a position.
+     * @param model the position to search, which must be some player's turn
+     * @param table the table to remember positions in, or null
+     * @param orderMoves whether to sort the moves of each position
+     * @param deadline the value of System.nanoTime() at which to stop searching
+     * @param abort the flag that stops every thread searching the position, or null to search
+     *              without a time limit
+     * @param rotation how many places to rotate the moves of the root by
+     * @throws IllegalStateException if the player to move has no legal moves
+     */
+    Searcher(ROReversiModel model, TranspositionTable table, boolean orderMoves, long deadline,
+             AtomicBoolean abort, int rotation) throws IllegalStateException {
+      this.board = BitboardReversiModel.createCopy(model);
+      this.rootPlayer = model.getActivePlayerColor();
+      this.geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
+      this.table = table;
+      this.orderer = orderMoves ? new MoveOrderer(model) : null;
+      // On the smallest grids some cells next to one corner are other corners
+      List<RowColCoords> corners = StrategyUtils.getCornerCells(model);
+      List<RowColCoords> cells = new ArrayList<>(corners);
+      for (RowColCoords cell : StrategyUtils.getCellsAdjacentToCorners(model)) {
+        if (!cells.contains(cell)) {
+          cells.add(cell);
+        }
+      }
+      this.weightedCells = new int[cells.size()];
+      this.weights = new int[cells.size()];
+      for (int i = 0; i < cells.size(); i++) {
+        this.weightedCells[i] = this.geometry.cellIndex(cells.get(i));
+        this.weights[i] = i < corners.size() ? CORNER_WEIGHT : NEXT_TO_CORNER_WEIGHT;
+      }
+      this.rootMoves = new int[this.geometry.cellCount()];
+      this.rootCount = this.board.legalMoves(this.rootMoves, new int[this.rootMoves.length]);
+      if (this.rootCount == 0) {
+        throw new IllegalStateException("No moves. Must pass.");
+      }
+      this.moves = new int[0][];
+      this.flips = new int[0][];
+      this.deadline = deadline;
+      this.abort = abort;
+      this.rotation = rotation;
+      this.nodes = 0;
+      this.clockCheckMask = Integer.highestOneBit(
+              Math.max(1, CLOCK_CHECK_CELLS / this.geometry.cellCount())) - 1;
+      this.stopped = false;
+      this.best = this.rootMoves[0];
+      this.depthCompleted = 0;
+    }
+
+    /**
+     * Searches deeper and deeper until the maximum depth is reached, the game is searched to its
+     * end along every line, or the search is stopped, then stops every other thread searching
+     * the position if it finished at least one search.
+     * @param maxDepth the deepest search to try
+     * @param firstDepth the depth of the first search
+     */
+    void deepen(int maxDepth, int firstDepth) {
+      for (int iteration = firstDepth; iteration <= maxDepth; iteration++) {
+        if (timeUp()) {
+          this.stopped = true;
+          break;
+        }
+        int move = searchRoot(iteration, this.best);
+        // Even an unfinished search can be trusted on the moves it finished, as long as it
+        // finished the last search's best move, which it searches first unless rotated
+        if (move >= 0 && (!this.stopped || this.rotation == 0)) {
+          this.best = move;
+        }
+        if (this.stopped) {
+          break;
+        }
+        this.depthCompleted = iteration;
+        if (!this.reachedDepth) {
+          break;
+        }
+      }
+      // Only a search that finished can stop the others, since its move is the one chosen
+      if (!this.stopped && this.depthCompleted > 0) {
+        this.abort.set(true);
+      }
+    }
+
+    /**
+     * Searches every move of the position to a fixed depth, or until the time is up.
+     * @param depth how many moves ahead to look
+     * @param firstMove the cell index of the move to search first, or -1 for none
+     * @return the cell index of the best move whose search finished, or -1 if the time was up
+     *         before any did
+     */
+    int searchRoot(int depth, int firstMove) {
+      ensurePlies(depth);
+      this.nodes++;
+      this.reachedDepth = false;
+      if (this.orderer != null) {
+        if (firstMove < 0 && this.table != null) {
+          firstMove = TranspositionTable.moveOf(this.table.probe(this.board.getPositionHash()));
+        }
+        this.orderer.order(this.rootMoves, this.rootCount, 0, firstMove);
+      } else {
+        for (int i = 1; i < this.rootCount; i++) {
+          if (this.rootMoves[i] == firstMove) {
+            this.rootMoves[i] = this.rootMoves[0];
+            this.rootMoves[0] = firstMove;
+            break;
+          }
+        }
+      }
+      int shift = this.rotation % this.rootCount;
+      if (shift > 0) {
+        int[] ordered = Arrays.copyOf(this.rootMoves, this.rootCount);
+        for (int i = 0; i < this.rootCount; i++) {
+          this.rootMoves[i] = ordered[(i + shift) % this.rootCount];
+        }
+      }
+
+      int best = -1;
+      int alpha = -INFINITY;
+      for (int i = 0; i < this.rootCount; i++) {
+        UndoRecord record = this.board.makeMove(this.geometry.coords(this.rootMoves[i]));
+        int score;
+        if (i == 0) {
+          score = -negamax(depth - 1, 1, -INFINITY, -alpha);
+        } else {
+          score = -negamax(depth - 1, 1, -alpha - 1, -alpha);
+          if (score > alpha) {
+            score = -negamax(depth - 1, 1, -INFINITY, -alpha);
+          }
+        }
+        this.board.unmakeMove(record);
+        // The score of a move whose search was cut short means nothing
+        if (this.stopped) {
+          break;
+        }
+        if (score > alpha) {
+          alpha = score;
+          best = this.rootMoves[i];
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Scores the position on the board for the player to move.
+     * @param depth how many more moves to look ahead
+     * @param ply how many moves the position is from the root
+     * @param alpha the score the player to move is already sure of
+     * @param beta the score the opponent is already sure of holding the player to
+     * @return the score of the position if it is between alpha and beta, otherwise a bound
+     *         on it past the one it fell outside of, or 0 if the time ran out
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+      this.nodes++;
+      if ((this.nodes & this.clockCheckMask) == 0 && timeUp()) {
+        this.stopped = true;
+      }
+      if (this.stopped) {
+        return 0;
+      }
+      DiscColor player = ply % 2 == 0 ? this.rootPlayer
+              : DiscColor.oppositeColor(this.rootPlayer);
+      if (this.board.isGameOver()) {
+        return finalScore(player);
+      }
+      if (depth == 0) {
+        this.reachedDepth = true;
+        return evaluate(player);
+      }
+
+      long hash = 0;
+      int hashMove = -1;
+      if (this.table != null) {
+        hash = this.board.getPositionHash();
+        long entry = this.table.probe(hash);
+        hashMove = TranspositionTable.moveOf(entry);
+        if (entry != TranspositionTable.MISS && TranspositionTable.depthOf(entry) >= depth) {
+          int score = TranspositionTable.scoreOf(entry);
+          TranspositionTable.Bound bound = TranspositionTable.boundOf(entry);
+          if (bound == TranspositionTable.Bound.EXACT
+                  || (bound == TranspositionTable.Bound.LOWER && score >= beta)
+                  || (bound == TranspositionTable.Bound.UPPER && score <= alpha)) {
+            if (TranspositionTable.depthOf(entry) < TranspositionTable.MAX_DEPTH) {
+              this.reachedDepth = true;
+            }
+            return score;
+          }
+        }
+      }
+
+      int[] plyMoves = this.moves[ply];
+      int count = this.board.legalMoves(plyMoves, this.flips[ply]);
+      // On boards big enough to check every position, finding the moves alone takes a while
+      if (this.clockCheckMask == 0 && timeUp()) {
+        this.stopped = true;
+        return 0;
+      }
+      if (count == 0) {
+        UndoRecord record = this.board.makePass();
+        int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+        this.board.unmakeMove(record);
+        return score;
+      }
+      if (this.orderer != null) {
+        this.orderer.order(plyMoves, count, ply, hashMove);
+      }
+
+      boolean reachedBefore = this.reachedDepth;
+      this.reachedDepth = false;
+      int originalAlpha = alpha;
+      int bestScore = -INFINITY;
+      int bestMove = -1;
+      for (int i = 0; i < count; i++) {
+        UndoRecord record = this.board.makeMove(this.geometry.coords(plyMoves[i]));
+        int score;
+        if (i == 0) {
+          score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+        } else {
+          // Prove the move is no better than the best so far, and search it properly if not
+          score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+          if (score > alpha && score < beta) {
+            score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+          }
+        }
+        this.board.unmakeMove(record);
+        if (this.stopped) {
+          return 0;
+        }
+        if (score > bestScore) {
+          bestScore = score;
+          bestMove = plyMoves[i];
+        }
+        alpha = Math.max(alpha, score);
+        if (alpha >= beta) {
+          if (this.orderer != null) {
+            this.orderer.cutoff(bestMove, ply, depth);
+          }
+          break;
+        }
+      }
+
+      boolean limited = this.reachedDepth;
+      this.reachedDepth = reachedBefore || limited;
+      if (this.table != null) {
+        TranspositionTable.Bound bound = bestScore <= originalAlpha
+                ? TranspositionTable.Bound.UPPER
+                : bestScore >= beta ? TranspositionTable.Bound.LOWER
+                : TranspositionTable.Bound.EXACT;
+        // A search that reached the end of the game on every line is as good as any deeper one
+        int storedDepth = limited ? Math.min(depth, TranspositionTable.MAX_DEPTH - 1)
+                : TranspositionTable.MAX_DEPTH;
+        this.table.store(hash, storedDepth, bound, bestScore, bestMove);
+      }
+      return bestScore;
+    }
+
+    /**
+     * Checks whether the search must stop, because the time is up or another thread has
+     * stopped it.
+     * @return whether to stop searching
+     */
+    private boolean timeUp() {
+      return this.abort != null
+              && (this.abort.get() || System.nanoTime() - this.deadline >= 0);
+    }
+
+    /**
+     * Scores an unfinished position.
+     * @param player the player to move
+     * @return the weighted difference between the player's and the opponent's discs
+     */
+    private int evaluate(DiscColor player) {
+      int score = this.board.getDiscCount(player)
+              - this.board.getDiscCount(DiscColor.oppositeColor(player));
+      for (int i = 0; i < this.weightedCells.length; i++) {
+        DiscColor color = this.board.getColorAt(this.geometry.coords(this.weightedCells[i]));
+        if (color == player) {
+          score += this.weights[i];
+        } else if (color != DiscColor.NONE) {
+          score -= this.weights[i];
+        }
+      }
+      return score;
+    }
+
+    /**
+     * Scores a finished game.
+     * @param player the player who would have moved next
+     * @return a win or loss score plus the difference between the player's and the opponent's
+     *         discs, or 0 for a tie
+     */
+    private int finalScore(DiscColor player) {
+      int difference = this.board.getDiscCount(player)
+              - this.board.getDiscCount(DiscColor.oppositeColor(player));
+      return Integer.signum(difference) * WIN_SCORE + difference;
+    }
+
+    /**
+     * Makes sure there are move arrays for every ply up to the depth.
+     * @param depth the depth of the search
+     */
+    private void ensurePlies(int depth) {
+      if (this.moves.length <= depth) {
+        // Keep the plies of earlier iterations, since each is as big as the board
+        int plies = this.moves.length;
+        this.moves = Arrays.copyOf(this.moves, depth + 1);
+        this.flips = Arrays.copyOf(this.flips, depth + 1);
+        for (int ply = plies; ply <= depth; ply++) {
+          this.moves[ply] = new int[this.geometry.cellCount()];
+          this.flips[ply] = new int[this.geometry.cellCount()];
+        }
+      }
+    }
+  }
+}
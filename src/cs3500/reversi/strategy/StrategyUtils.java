@@ -5,7 +5,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import cs3500.reversi.model.DiscColor;
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.ParallelMoveGenerator;
 import cs3500.reversi.model.ROReversiModel;
 import cs3500.reversi.model.RowColCoords;
 
@@ -32,26 +33,19 @@ public class StrategyUtils {
   }
 
   /**
-   * Finds all the valid moves the active player has available to them.
+   * Finds all the valid moves the active player has available to them. On big boards of
+   * models that support it the rows are searched in parallel (see ParallelMoveGenerator).
    * @param model some game of Reversi
    * @return a map of the coordinates of each valid move to the number of discs that
    *         would be captured by placing in that cell
    */
   public static Map<RowColCoords, Integer> getAllValidMoves(ROReversiModel model) {
-    List<List<DiscColor>> grid = model.getGrid();
-    Map<RowColCoords, Integer> moves = new HashMap<>();
+    HexGeometry geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
 
     // Put every valid move's row/col of the grid into the map along with its point value
-    for (int row = 0; row < grid.size(); row++) {
-      for (int col = 0; col < grid.get(row).size(); col++) {
-        RowColCoords cell = new RowColCoords(row, col);
-        Map<Boolean, Integer> valid = model.validMove(cell);
-        if (valid.containsKey(true)) {
-          moves.put(cell, valid.get(true));
-        }
-      }
-    }
-
+    Map<RowColCoords, Integer> moves = new HashMap<>();
+    ParallelMoveGenerator.forEachLegalMove(model,
+            (cell, flips) -> moves.put(geometry.coords(cell), flips));
     return moves;
   }
 
@@ -64,35 +58,35 @@ public class StrategyUtils {
     int edgeLength = model.getEdgeLength();
 
     // Corner cells and their 3 adjacent cells
-    RowColCoords tl = new RowColCoords(0, 0);
-    RowColCoords tl1 = new RowColCoords(0, 1);
-    RowColCoords tl2 = new RowColCoords(1, 0);
-    RowColCoords tl3 = new RowColCoords(1, 1);
+    RowColCoords tl = RowColCoords.of(0, 0);
+    RowColCoords tl1 = RowColCoords.of(0, 1);
+    RowColCoords tl2 = RowColCoords.of(1, 0);
+    RowColCoords tl3 = RowColCoords.of(1, 1);
 
-    RowColCoords tr = new RowColCoords(0, edgeLength - 1);
-    RowColCoords tr1 = new RowColCoords(0, edgeLength - 2);
-    RowColCoords tr2 = new RowColCoords(1, edgeLength - 1);
-    RowColCoords tr3 = new RowColCoords(1, edgeLength);
+    RowColCoords tr = RowColCoords.of(0, edgeLength - 1);
+    RowColCoords tr1 = RowColCoords.of(0, edgeLength - 2);
+    RowColCoords tr2 = RowColCoords.of(1, edgeLength - 1);
+    RowColCoords tr3 = RowColCoords.of(1, edgeLength);
 
-    RowColCoords cl = new RowColCoords(edgeLength - 1, 0);
-    RowColCoords cl1 = new RowColCoords(edgeLength - 2, 0);
-    RowColCoords cl2 = new RowColCoords(edgeLength - 1, 1);
-    RowColCoords cl3 = new RowColCoords(edgeLength, 0);
+    RowColCoords cl = RowColCoords.of(edgeLength - 1, 0);
+    RowColCoords cl1 = RowColCoords.of(edgeLength - 2, 0);
+    RowColCoords cl2 = RowColCoords.of(edgeLength - 1, 1);
+    RowColCoords cl3 = RowColCoords.of(edgeLength, 0);
 
-    RowColCoords cr = new RowColCoords(edgeLength - 1, edgeLength * 2 - 2);
-    RowColCoords cr1 = new RowColCoords(edgeLength - 2, edgeLength * 2 - 3);
-    RowColCoords cr2 = new RowColCoords(edgeLength - 1, edgeLength * 2 - 3);
-    RowColCoords cr3 = new RowColCoords(edgeLength, edgeLength * 2 - 3);
+    RowColCoords cr = RowColCoords.of(edgeLength - 1, edgeLength * 2 - 2);
+    RowColCoords cr1 = RowColCoords.of(edgeLength - 2, edgeLength * 2 - 3);
+    RowColCoords cr2 = RowColCoords.of(edgeLength - 1, edgeLength * 2 - 3);
+    RowColCoords cr3 = RowColCoords.of(edgeLength, edgeLength * 2 - 3);
 
-    RowColCoords bl = new RowColCoords(edgeLength * 2 - 2, 0);
-    RowColCoords bl1 = new RowColCoords(edgeLength * 2 - 3, 0);
-    RowColCoords bl2 = new RowColCoords(edgeLength * 2 - 3, 1);
-    RowColCoords bl3 = new RowColCoords(edgeLength * 2 - 2, 1);
+    RowColCoords bl = RowColCoords.of(edgeLength * 2 - 2, 0);
+    RowColCoords bl1 = RowColCoords.of(edgeLength * 2 - 3, 0);
+    RowColCoords bl2 = RowColCoords.of(edgeLength * 2 - 3, 1);
+    RowColCoords bl3 = RowColCoords.of(edgeLength * 2 - 2, 1);
 
-    RowColCoords br = new RowColCoords(edgeLength * 2 - 2, edgeLength - 1);
-    RowColCoords br1 = new RowColCoords(edgeLength * 2 - 3, edgeLength);
-    RowColCoords br2 = new RowColCoords(edgeLength * 2 - 3, edgeLength - 1);
-    RowColCoords br3 = new RowColCoords(edgeLength * 2 - 2, edgeLength - 2);
+    RowColCoords br = RowColCoords.of(edgeLength * 2 - 2, edgeLength - 1);
+    RowColCoords br1 = RowColCoords.of(edgeLength * 2 - 3, edgeLength);
+    RowColCoords br2 = RowColCoords.of(edgeLength * 2 - 3, edgeLength - 1);
+    RowColCoords br3 = RowColCoords.of(edgeLength * 2 - 2, edgeLength - 2);
 
     return new ArrayList<>(List.of(tl, tr, cl, cr, bl, br,
             tl1, tl2, tl3,
@@ -0,0 +1,318 @@
+package cs3500.reversi.strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table from position hashes (see ZobristKeys) to what a search learned about each
+ * position: how many moves ahead it was searched, its score for the player to move, whether
+ * that score is exact or only a bound, and the best move found. Positions are reached again by
+ * other orders of the same moves, and again on later turns, so a search that remembers them
+ * can skip what it already knows and try the best move first.
+ * The table is one preallocated long[] split into buckets of two entries, found by the low
+ * bits of the hash. The first entry of a bucket keeps the deepest search of the current turn
+ * and is only replaced by one at least as deep, or by anything once it is left over from an
+ * earlier turn. The second entry is always replaced, so new positions are still remembered
+ * while the first is held. Each entry is two longs: the packed data, and the hash XORed with
+ * the data. Any number of threads can probe and store at once without locking, since an entry
+ * torn by two threads writing it at the same time no longer matches its hash and is treated as
+ * missing.
+ * The table counts its probes: hits, misses, and collisions (misses whose bucket is full of
+ * other positions).
+ */
+public final class TranspositionTable {
+  /**
+   * Whether a stored score is the exact score of the position, or only a bound on it because
+   * the search of the position was cut off.
+   */
+  public enum Bound {
+    // The score of the position.
+    EXACT,
+    // The position is worth at least the score.
+    LOWER,
+    // The position is worth at most the score.
+    UPPER
+  }
+
+  // What probe returns for a position that isn't in the table. Stored data is never 0.
+  public static final long MISS = 0;
+
+  // The depth stored for a position searched to the end of the game along every line, which
+  // is as good as a search of any depth.
+  public static final int MAX_DEPTH = 0xFF;
+
+  // The largest score that can be stored, either positive or negative.
+  public static final int MAX_SCORE = (1 << 23) - 1;
+
+  // The largest table that can be created, in megabytes.
+  public static final int MAX_MEGABYTES = 8192;
+
+  // The number of longs in an entry, and the number of entries in a bucket.
+  private static final int ENTRY_LONGS = 2;
+  private static final int BUCKET_ENTRIES = 2;
+
+  // Where each field is packed within the data of an entry, and how many bits it takes.
+  private static final int MOVE_SHIFT = 0;
+  private static final int DEPTH_SHIFT = 24;
+  private static final int BOUND_SHIFT = 32;
+  private static final int GENERATION_SHIFT = 34;
+  private static final int SCORE_SHIFT = 40;
+  private static final long MOVE_MASK = 0xFF_FFFFL;
+  private static final long DEPTH_MASK = 0xFFL;
+  private static final long BOUND_MASK = 0x3L;
+  private static final long GENERATION_MASK = 0x3FL;
+
+  // The bounds, stored once so that unpacking one doesn't copy Bound.values().
+  private static final Bound[] BOUNDS = Bound.values();
+
+  // The entries, each as the hash XORed with the data followed by the data.
+  private final long[] entries;
+
+  // One less than the number of buckets, which is a power of 2.
+  private final int bucketMask;
+
+  // The current turn, so that entries from earlier turns can be told apart. Wraps around.
+  private volatile int generation;
+
+  // How many probes found their position, didn't, and didn't because of other positions.
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder collisions;
+
+  /**
+   * Constructs an empty TranspositionTable.
+   * @param buckets the number of buckets, a power of 2
+   */
+  private TranspositionTable(int buckets) {
+    this.entries = new long[buckets * BUCKET_ENTRIES * ENTRY_LONGS];
+    this.bucketMask = buckets - 1;
+    this.generation = 0;
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.collisions = new LongAdder();
+  }
+
+  /**
+   * Creates an empty TranspositionTable taking up to the given amount of memory. The number of
+   * buckets is the largest power of 2 that fits.
+   * @param megabytes the size of the table in megabytes (2^20 bytes)
+   * @return a new TranspositionTable
+   * @throws IllegalArgumentException if megabytes is less than 1 or more than MAX_MEGABYTES
+   */
+  public static TranspositionTable create(int megabytes) throws IllegalArgumentException {
+    if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+      throw new IllegalArgumentException("Size must be between 1 and " + MAX_MEGABYTES + " MB");
+    }
+    long bucketBytes = (long) BUCKET_ENTRIES * ENTRY_LONGS * Long.BYTES;
+    long buckets = Long.highestOneBit(((long) megabytes << 20) / bucketBytes);
+    return new TranspositionTable((int) buckets);
+  }
+
+  /**
+   * Returns the number of positions the table can hold.
+   * @return the number of entries
+   */
+  public int capacity() {
+    return this.entries.length / ENTRY_LONGS;
+  }
+
+  /**
+   * Looks up what is stored for a position.
+   * @param hash the hash of the position
+   * @return the packed data of the position's entry, to be read with depthOf, boundOf,
+   *         scoreOf, and moveOf, or MISS if the table doesn't hold the position
+   */
+  public long probe(long hash) {
+    int index = bucketIndex(hash);
+    boolean full = true;
+    for (int slot = 0; slot < BUCKET_ENTRIES; slot++) {
+      int entry = index + slot * ENTRY_LONGS;
+      long data = this.entries[entry + 1];
+      if (data != MISS && (this.entries[entry] ^ data) == hash) {
+        this.hits.increment();
+        return data;
+      }
+      full &= data != MISS;
+    }
+    this.misses.increment();
+    if (full) {
+      this.collisions.increment();
+    }
+    return MISS;
+  }
+
+  /**
+   * Stores what a search learned about a position, replacing another entry of its bucket.
+   * Without a best move, a best move already stored for the same position is kept.
+   * @param hash the hash of the position
+   * @param depth how many moves ahead the position was searched, or MAX_DEPTH if every line
+   *              was searched to the end of the game
+   * @param bound whether the score is exact or a bound
+   * @param score the score of the position for the player to move
+   * @param move the cell index of the best move, or -1 if there is none
+   * @throws IllegalArgumentException if the depth, score, or move can't be stored
+   */
+  public void store(long hash, int depth, Bound bound, int score, int move)
+          throws IllegalArgumentException {
+    if (depth < 0 || depth > MAX_DEPTH) {
+      throw new IllegalArgumentException("Invalid depth");
+    }
+    if (Math.abs(score) > MAX_SCORE) {
+      throw new IllegalArgumentException("Invalid score");
+    }
+    if (move < -1 || move >= MOVE_MASK) {
+      throw new IllegalArgumentException("Invalid move");
+    }
+    int generation = this.generation;
+    int index = bucketIndex(hash);
+    long firstData = this.entries[index + 1];
+    int entry;
+    if (firstData == MISS || generationOf(firstData) != generation
+            || depth >= depthOf(firstData)) {
+      entry = index;
+    } else if (matches(index, hash)) {
+      // Keep the deeper search of the position
+      return;
+    } else {
+      entry = index + ENTRY_LONGS;
+    }
+    long previous = matches(entry, hash) ? this.entries[entry + 1] : MISS;
+    if (move < 0 && previous != MISS) {
+      move = moveOf(previous);
+    }
+    long data = ((long) (move + 1) << MOVE_SHIFT)
+            | ((long) depth << DEPTH_SHIFT)
+            | ((long) (bound.ordinal() + 1) << BOUND_SHIFT)
+            | ((long) generation << GENERATION_SHIFT)
+            | ((long) score << SCORE_SHIFT);
+    this.entries[entry] = hash ^ data;
+    this.entries[entry + 1] = data;
+  }
+
+  /**
+   * Starts a new turn, after which every stored entry can be replaced by a shallower one.
+   */
+  public void newSearch() {
+    this.generation = (int) ((this.generation + 1) & GENERATION_MASK);
+  }
+
+  /**
+   * Removes every entry from the table. Must not be called while the table is in use.
+   */
+  public void clear() {
+    Arrays.fill(this.entries, 0);
+  }
+
+  /**
+   * Returns how many probes have found their position.
+   * @return the number of hits
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Returns how many probes haven't found their position.
+   * @return the number of misses
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Returns how many probes haven't found their position because its bucket was full of other
+   * positions.
+   * @return the number of collisions
+   */
+  public long getCollisions() {
+    return this.collisions.sum();
+  }
+
+  /**
+   * Returns the fraction of probes that found their position.
+   * @return the hit rate, or 0 if there haven't been any probes
+   */
+  public double getHitRate() {
+    return rate(getHits());
+  }
+
+  /**
+   * Returns the fraction of probes that didn't find their position.
+   * @return the miss rate, or 0 if there haven't been any probes
+   */
+  public double getMissRate() {
+    return rate(getMisses());
+  }
+
+  /**
+   * Returns the fraction of probes that didn't find their position because its bucket was full
+   * of other positions.
+   * @return the collision rate, or 0 if there haven't been any probes
+   */
+  public double getCollisionRate() {
+    return rate(getCollisions());
+  }
+
+  /**
+   * Sets every count of probes back to 0.
+   */
+  public void resetStatistics() {
+    this.hits.reset();
+    this.misses.reset();
+    this.collisions.reset();
+  }
+
+  /**
+   * Reads how many moves ahead a position was searched from the data of its entry.
+   * @param data the data returned by probe
+   * @return the depth of the search, or MAX_DEPTH if it reached the end of the game
+   */
+  public static int depthOf(long data) {
+    return (int) ((data >>> DEPTH_SHIFT) & DEPTH_MASK);
+  }
+
+  /**
+   * Reads whether a position's score is exact or a bound from the data of its entry.
+   * @param data the data returned by probe
+   * @return the kind of score
+   */
+  public static Bound boundOf(long data) {
+    return BOUNDS[(int) ((data >>> BOUND_SHIFT) & BOUND_MASK) - 1];
+  }
+
+  /**
+   * Reads a position's score from the data of its entry.
+   * @param data the data returned by probe
+   * @return the score for the player to move
+   */
+  public static int scoreOf(long data) {
+    return (int) (data >> SCORE_SHIFT);
+  }
+
+  /**
+   * Reads a position's best move from the data of its entry.
+   * @param data the data returned by probe
+   * @return the cell index of the best move, or -1 if there is none
+   */
+  public static int moveOf(long data) {
+    return (int) ((data >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+  }
+
+  private static int generationOf(long data) {
+    return (int) ((data >>> GENERATION_SHIFT) & GENERATION_MASK);
+  }
+
+  private boolean matches(int entry, long hash) {
+    long data = this.entries[entry + 1];
+    return data != MISS && (this.entries[entry] ^ data) == hash;
+  }
+
+  private int bucketIndex(long hash) {
+    return ((int) hash & this.bucketMask) * BUCKET_ENTRIES * ENTRY_LONGS;
+  }
+
+  private double rate(long count) {
+    long probes = getHits() + getMisses();
+    return probes == 0 ? 0 : (double) count / probes;
+  }
+}
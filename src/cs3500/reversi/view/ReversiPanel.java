@@ -96,7 +96,7 @@ public class ReversiPanel extends JPanel implements IReversiPanel {
     Color gray = new Color(192, 192, 192);
     for (int row = 0; row < this.grid.size(); row++) {
       for (int col = 0; col < this.grid.get(row).size(); col++) {
-        RowColCoords cell = new RowColCoords(row, col);
+        RowColCoords cell = RowColCoords.of(row, col);
         // If this cell is the selected cell, color it in blue, otherwise color it in gray
         Color c = cellIsSelected(cell) ? blue : gray;
         // Draw the hexagon with the appropriate color at the physical coordinates on the panel
@@ -157,7 +157,7 @@ public class ReversiPanel extends JPanel implements IReversiPanel {
         if (c != DiscColor.NONE) {
           // If there is a disc, draw a circle at the appropriate physical coordinates and
           // with the appropriate color
-          RowColCoords cell = new RowColCoords(row, col);
+          RowColCoords cell = RowColCoords.of(row, col);
           Color color = (c == DiscColor.WHITE) ? Color.WHITE : Color.BLACK;
           drawCircle(logicalToPhysicalX(cell),
                   logicalToPhysicalY(cell),
@@ -337,7 +337,7 @@ public class ReversiPanel extends JPanel implements IReversiPanel {
     for (int row = 0; row < this.grid.size(); row++) {
       for (int col = 0; col < this.grid.get(row).size(); col++) {
         if (this.cells.get(cellCounter).contains(point)) {
-          return Optional.of(new RowColCoords(row, col));
+          return Optional.of(RowColCoords.of(row, col));
         }
         cellCounter++;
       }
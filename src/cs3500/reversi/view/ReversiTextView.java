@@ -1,10 +1,8 @@
 package cs3500.reversi.view;
 
-import java.util.List;
-
+import cs3500.reversi.model.BoardView;
 import cs3500.reversi.model.DiscColor;
 import cs3500.reversi.model.ROReversiModel;
-import cs3500.reversi.model.RowColCoords;
 
 /**
  * Represents a simple text view for the game of Reversi.
@@ -22,27 +20,28 @@ public class ReversiTextView implements IReversiTextView {
 
   @Override
   public String toString() {
-    String view = "";
-    List<List<DiscColor>> grid = m.getGrid();
-    int edgeLength = grid.get(0).size();
-    int height = grid.size();
+    StringBuilder view = new StringBuilder();
+    BoardView board = m.getBoardView();
+    int edgeLength = board.rowLength(0);
+    int height = board.rowCount();
 
     for (int row = 0; row < height; row++) { // For each row of the text view
-      view = this.addSpaces(view, Math.abs(row - (edgeLength - 1))); // Beginning spaces
-      for (int col = 0; col < grid.get(row).size(); col++) {
+      this.addSpaces(view, Math.abs(row - (edgeLength - 1))); // Beginning spaces
+      int length = board.rowLength(row);
+      for (int col = 0; col < length; col++) {
         // The actual characters
-        view = view.concat(colorToCharacter(m.getColorAt(new RowColCoords(row, col))));
-        if (col != grid.get(row).size() - 1) {
-          view = view.concat(" "); // Spaces in between characters
+        view.append(colorToCharacter(board.colorAt(row, col)));
+        if (col != length - 1) {
+          view.append(' '); // Spaces in between characters
         }
       }
-      view = this.addSpaces(view, Math.abs(row - (edgeLength - 1))); // Ending spaces
+      this.addSpaces(view, Math.abs(row - (edgeLength - 1))); // Ending spaces
       if (row != height - 1) {
-        view = view.concat("\n"); // Line break
+        view.append('\n'); // Line break
       }
     }
 
-    return view;
+    return view.toString();
   }
 
   /**
@@ -67,12 +66,10 @@ public class ReversiTextView implements IReversiTextView {
    * Adds multiple spaces to the view at a time.
    * @param view the text view being created
    * @param times how many spaces to be added
-   * @return the view with that many spaces concatenated to it
    */
-  private String addSpaces(String view, int times) {
+  private void addSpaces(StringBuilder view, int times) {
     for (int i = 0; i < times; i++) {
-      view = view.concat(" ");
+      view.append(' ');
     }
-    return view;
   }
 }
@@ -0,0 +1,189 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests for the bitboard implementation of Reversi's model, mostly checking that it plays
+ * exactly the same game as ReversiModel.
+ */
+public class BitboardReversiModelTests {
+  MutableReversiModel m2;
+  MutableReversiModel m3;
+
+  @Before
+  public void init() {
+    m2 = BitboardReversiModel.create(2);
+    m3 = BitboardReversiModel.create(3);
+    m2.startGame();
+    m3.startGame();
+  }
+
+  @Test
+  public void testGetGrid() {
+    // Checking that the grid is set up and returned properly
+    List<DiscColor> row1 = Arrays.asList(DiscColor.BLACK, DiscColor.WHITE);
+    List<DiscColor> row2 = Arrays.asList(DiscColor.WHITE, DiscColor.NONE, DiscColor.BLACK);
+    List<DiscColor> row3 = Arrays.asList(DiscColor.BLACK, DiscColor.WHITE);
+    List<List<DiscColor>> expectedGrid = Arrays.asList(row1, row2, row3);
+    Assert.assertEquals(expectedGrid, m2.getGrid());
+    Assert.assertEquals(ReversiModel.create(7).getGrid(), BitboardReversiModel.create(7).getGrid());
+  }
+
+  @Test
+  public void testPlaceDiscInCell() {
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    /*
+      _ _ _         _ _ _
+     _ X O _       _ X X X
+    _ O _ X _ --> _ O _ X _
+     _ X O _       _ X O _
+      _ _ _         _ _ _
+    */
+    Assert.assertEquals(DiscColor.BLACK, m3.getColorAt(new RowColCoords(1, 3)));
+    Assert.assertEquals(DiscColor.BLACK, m3.getColorAt(new RowColCoords(1, 2)));
+    Assert.assertEquals(5, m3.getPlayerScore(DiscColor.BLACK));
+    Assert.assertEquals(2, m3.getPlayerScore(DiscColor.WHITE));
+    Assert.assertEquals(GameState.WHITEMOVE, m3.getGameState());
+  }
+
+  @Test
+  public void testValidMove() {
+    Map<Boolean, Integer> capturesOne = m3.validMove(new RowColCoords(0, 1));
+    Assert.assertTrue(capturesOne.containsKey(true));
+    Assert.assertTrue(capturesOne.containsValue(1));
+
+    Map<Boolean, Integer> illegalMove = m3.validMove(new RowColCoords(2, 2));
+    Assert.assertFalse(illegalMove.containsKey(true));
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> m3.validMove(new RowColCoords(-1, -1)));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> m3.placeDiscInCell(new RowColCoords(2, 2)));
+  }
+
+  @Test
+  public void testAnyLegalMoves() {
+    // There are no moves on the smallest board
+    Assert.assertFalse(m2.anyLegalMoves());
+    Assert.assertTrue(m3.anyLegalMoves());
+
+    m3.placeDiscInCell(new RowColCoords(0, 1));
+    m3.placeDiscInCell(new RowColCoords(4, 1));
+    m3.placeDiscInCell(new RowColCoords(3, 0));
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    m3.placeDiscInCell(new RowColCoords(3, 3));
+    m3.placeDiscInCell(new RowColCoords(1, 0));
+
+    Assert.assertFalse(m3.anyLegalMoves());
+    m3.pass();
+    m3.pass();
+    Assert.assertTrue(m3.isGameOver());
+    Assert.assertThrows(IllegalStateException.class, m3::anyLegalMoves);
+  }
+
+  @Test
+  public void testCreateCopy() {
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    MutableReversiModel copy = BitboardReversiModel.createCopy(m3);
+    Assert.assertEquals(m3, copy);
+
+    // Checking that the copy doesn't share the original's board
+    copy.placeDiscInCell(new RowColCoords(0, 1));
+    Assert.assertNotEquals(m3, copy);
+    Assert.assertEquals(DiscColor.NONE, m3.getColorAt(new RowColCoords(0, 1)));
+  }
+
+  @Test
+  public void testMakeAndUnmakeMove() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 3; edgeLength <= 8; edgeLength++) {
+      MutableReversiModel model = BitboardReversiModel.create(edgeLength);
+      model.startGame();
+      MutableReversiModel start = BitboardReversiModel.createCopy(model);
+
+      // Play a random game with makeMove and makePass, then take every move back
+      List<UndoRecord> records = new ArrayList<>();
+      while (!model.isGameOver()) {
+        List<RowColCoords> legalMoves = new ArrayList<>();
+        model.forEachLegalMove((cell, flips) -> legalMoves.add(
+            HexGeometry.forEdgeLength(model.getEdgeLength()).coords(cell)));
+        if (legalMoves.isEmpty()) {
+          records.add(model.makePass());
+        } else {
+          records.add(model.makeMove(legalMoves.get(rand.nextInt(legalMoves.size()))));
+        }
+      }
+      for (int i = records.size() - 1; i >= 0; i--) {
+        model.unmakeMove(records.get(i));
+      }
+      Assert.assertEquals(start, model);
+      Assert.assertEquals(start.getPositionHash(), model.getPositionHash());
+      Assert.assertEquals(3, model.getDiscCount(DiscColor.WHITE));
+      Assert.assertEquals(start.getDiscCount(DiscColor.NONE), model.getDiscCount(DiscColor.NONE));
+    }
+  }
+
+  /**
+   * Lists every legal move of the active player with the number of discs it captures.
+   * @param model a started game that isn't over
+   * @return the cell index and number of captured discs of each legal move, in order
+   */
+  private List<List<Integer>> legalMoveList(ROReversiModel model) {
+    List<List<Integer>> moves = new ArrayList<>();
+    model.forEachLegalMove((cell, flips) -> moves.add(Arrays.asList(cell, flips)));
+    return moves;
+  }
+
+  @Test
+  public void testSameGamesAsReversiModel() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 2; edgeLength <= 8; edgeLength++) {
+      for (int game = 0; game < 10; game++) {
+        MutableReversiModel expected = ReversiModel.create(edgeLength);
+        MutableReversiModel actual = BitboardReversiModel.create(edgeLength);
+        expected.startGame();
+        actual.startGame();
+        while (!expected.isGameOver()) {
+          Assert.assertEquals(expected.getGrid(), actual.getGrid());
+          Assert.assertEquals(expected.anyLegalMoves(), actual.anyLegalMoves());
+          for (DiscColor color : DiscColor.values()) {
+            Assert.assertEquals(expected.getDiscCount(color), actual.getDiscCount(color));
+          }
+          Assert.assertEquals(expected.getPositionHash(), actual.getPositionHash());
+          Assert.assertEquals(ZobristKeys.hashOf(actual), actual.getPositionHash());
+          Assert.assertEquals(legalMoveList(expected), legalMoveList(actual));
+          Assert.assertEquals(expected.legalMoves(), actual.legalMoves());
+          List<RowColCoords> legalMoves = new ArrayList<>();
+          List<List<DiscColor>> grid = expected.getGrid();
+          for (int row = 0; row < grid.size(); row++) {
+            for (int col = 0; col < grid.get(row).size(); col++) {
+              RowColCoords cell = new RowColCoords(row, col);
+              Assert.assertEquals(expected.validMove(cell), actual.validMove(cell));
+              if (expected.validMove(cell).containsKey(true)) {
+                legalMoves.add(cell);
+              }
+            }
+          }
+          if (legalMoves.isEmpty()) {
+            expected.pass();
+            actual.pass();
+          } else {
+            RowColCoords move = legalMoves.get(rand.nextInt(legalMoves.size()));
+            expected.placeDiscInCell(move);
+            actual.placeDiscInCell(move);
+          }
+        }
+        Assert.assertEquals(expected.getGrid(), actual.getGrid());
+        Assert.assertEquals(expected.getWinner(), actual.getWinner());
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for the copy-on-write snapshots of a Reversi position.
+ */
+public class BoardSnapshotTests {
+  MutableReversiModel m3;
+
+  @Before
+  public void init() {
+    m3 = ReversiModel.create(3);
+    m3.startGame();
+  }
+
+  @Test
+  public void testSnapshotDoesNotChange() {
+    BoardSnapshot before = m3.getSnapshot();
+    // Nothing has changed, so the same snapshot is handed out again
+    Assert.assertSame(before, m3.getSnapshot());
+
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    Assert.assertEquals(DiscColor.WHITE, before.getColorAt(new RowColCoords(1, 2)));
+    Assert.assertEquals(DiscColor.BLACK, m3.getSnapshot().getColorAt(new RowColCoords(1, 2)));
+    Assert.assertEquals(3, before.getDiscCount(DiscColor.BLACK));
+    Assert.assertEquals(GameState.BLACKMOVE, before.getGameState());
+
+    // Passing changes the position even though the grid stays the same
+    BoardSnapshot afterMove = m3.getSnapshot();
+    m3.pass();
+    Assert.assertNotSame(afterMove, m3.getSnapshot());
+    Assert.assertEquals(0, afterMove.getPassCounter());
+    Assert.assertEquals(m3.getPositionHash(), m3.getSnapshot().getPositionHash());
+  }
+
+  @Test
+  public void testSnapshotsShareUnchangedRows() {
+    BoardSnapshot before = m3.getSnapshot();
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    BoardSnapshot after = m3.getSnapshot();
+    /*
+      _ _ _         _ _ _
+     _ X O _       _ X X X
+    _ O _ X _ --> _ O _ X _
+     _ X O _       _ X O _
+      _ _ _         _ _ _
+    */
+    // Only the row that was played in was copied
+    Assert.assertNotSame(before.row(1), after.row(1));
+    for (int row : new int[] {0, 2, 3, 4}) {
+      Assert.assertSame(before.row(row), after.row(row));
+    }
+  }
+
+  @Test
+  public void testCopiesAreIndependent() {
+    MutableReversiModel copy = ReversiModel.createCopy(m3);
+    Assert.assertEquals(m3, copy);
+
+    copy.placeDiscInCell(new RowColCoords(1, 3));
+    Assert.assertEquals(DiscColor.NONE, m3.getColorAt(new RowColCoords(1, 3)));
+    m3.placeDiscInCell(new RowColCoords(0, 1));
+    Assert.assertEquals(DiscColor.NONE, copy.getColorAt(new RowColCoords(0, 1)));
+    Assert.assertEquals(5, copy.getPlayerScore(DiscColor.BLACK));
+    Assert.assertEquals(5, m3.getPlayerScore(DiscColor.BLACK));
+
+    // Grids handed out before a row is copied still show the model's current discs
+    List<List<DiscColor>> grid = copy.getGrid();
+    copy.placeDiscInCell(new RowColCoords(0, 1));
+    Assert.assertEquals(DiscColor.WHITE, grid.get(0).get(1));
+  }
+
+  @Test
+  public void testSnapshotOfAnyModel() {
+    MutableReversiModel bitboard = BitboardReversiModel.create(3);
+    bitboard.startGame();
+    bitboard.placeDiscInCell(new RowColCoords(1, 3));
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+
+    BoardSnapshot snapshot = BoardSnapshot.of(bitboard);
+    Assert.assertEquals(m3.getSnapshot(), snapshot);
+    Assert.assertEquals(m3.getPositionHash(), snapshot.getPositionHash());
+    Assert.assertEquals(m3.getGrid(), snapshot.getGrid());
+    Assert.assertEquals(12, snapshot.getDiscCount(DiscColor.NONE));
+
+    // A model started from a snapshot plays on from the same position
+    MutableReversiModel resumed = ReversiModel.fromSnapshot(snapshot);
+    Assert.assertEquals(m3, resumed);
+    resumed.placeDiscInCell(new RowColCoords(0, 1));
+    Assert.assertEquals(DiscColor.NONE, snapshot.getColorAt(new RowColCoords(0, 1)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> snapshot.getColorAt(new RowColCoords(0, 3)));
+  }
+}
@@ -0,0 +1,152 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for the chunked implementation of Reversi's model for very large boards, checking that
+ * it plays exactly the same game as ReversiModel and only uses storage near its discs.
+ */
+public class ChunkedReversiModelTests {
+  MutableReversiModel m2;
+  MutableReversiModel m3;
+
+  @Before
+  public void init() {
+    m2 = ChunkedReversiModel.create(2);
+    m3 = ChunkedReversiModel.create(3);
+    m2.startGame();
+    m3.startGame();
+  }
+
+  @Test
+  public void testGetGrid() {
+    // Checking that the grid is set up and returned properly
+    List<DiscColor> row1 = Arrays.asList(DiscColor.BLACK, DiscColor.WHITE);
+    List<DiscColor> row2 = Arrays.asList(DiscColor.WHITE, DiscColor.NONE, DiscColor.BLACK);
+    List<DiscColor> row3 = Arrays.asList(DiscColor.BLACK, DiscColor.WHITE);
+    List<List<DiscColor>> expectedGrid = Arrays.asList(row1, row2, row3);
+    Assert.assertEquals(expectedGrid, m2.getGrid());
+    Assert.assertEquals(ReversiModel.create(7).getGrid(), ChunkedReversiModel.create(7).getGrid());
+    Assert.assertThrows(IllegalArgumentException.class, () -> ChunkedReversiModel.create(1));
+  }
+
+  @Test
+  public void testPlaceDiscInCell() {
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    /*
+      _ _ _         _ _ _
+     _ X O _       _ X X X
+    _ O _ X _ --> _ O _ X _
+     _ X O _       _ X O _
+      _ _ _         _ _ _
+    */
+    Assert.assertEquals(DiscColor.BLACK, m3.getColorAt(new RowColCoords(1, 3)));
+    Assert.assertEquals(DiscColor.BLACK, m3.getColorAt(new RowColCoords(1, 2)));
+    Assert.assertEquals(5, m3.getPlayerScore(DiscColor.BLACK));
+    Assert.assertEquals(2, m3.getPlayerScore(DiscColor.WHITE));
+    Assert.assertEquals(GameState.WHITEMOVE, m3.getGameState());
+    Assert.assertThrows(IllegalStateException.class,
+        () -> m3.placeDiscInCell(new RowColCoords(2, 2)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> m3.placeDiscInCell(new RowColCoords(0, 3)));
+  }
+
+  @Test
+  public void testLargeBoard() {
+    MutableReversiModel large = ChunkedReversiModel.create(1000);
+    large.startGame();
+    Assert.assertEquals(1999, large.getGrid().size());
+    Assert.assertEquals(2996995, large.getDiscCount(DiscColor.NONE));
+
+    // Black's six opening moves are found without looking at the rest of the board
+    Assert.assertEquals(6, large.legalMoves().cardinality());
+    large.placeDiscInCell(new RowColCoords(998, 1000));
+    Assert.assertEquals(DiscColor.BLACK, large.getColorAt(new RowColCoords(998, 999)));
+    Assert.assertEquals(5, large.getPlayerScore(DiscColor.BLACK));
+    Assert.assertEquals(ZobristKeys.hashOf(large), large.getPositionHash());
+
+    // Only the chunks holding discs have been allocated
+    Assert.assertTrue(((ChunkedReversiModel) large).allocatedChunks() <= 3);
+  }
+
+  @Test
+  public void testMakeAndUnmakeMove() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 3; edgeLength <= 8; edgeLength++) {
+      MutableReversiModel model = ChunkedReversiModel.create(edgeLength);
+      model.startGame();
+      MutableReversiModel start = ChunkedReversiModel.createCopy(model);
+
+      // Play a random game with makeMove and makePass, then take every move back
+      List<UndoRecord> records = new ArrayList<>();
+      while (!model.isGameOver()) {
+        List<RowColCoords> legalMoves = new ArrayList<>();
+        model.forEachLegalMove((cell, flips) -> legalMoves.add(
+            HexGeometry.forEdgeLength(model.getEdgeLength()).coords(cell)));
+        if (legalMoves.isEmpty()) {
+          records.add(model.makePass());
+        } else {
+          records.add(model.makeMove(legalMoves.get(rand.nextInt(legalMoves.size()))));
+        }
+      }
+      for (int i = records.size() - 1; i >= 0; i--) {
+        model.unmakeMove(records.get(i));
+      }
+      Assert.assertEquals(start, model);
+      Assert.assertEquals(start.getPositionHash(), model.getPositionHash());
+      Assert.assertEquals(start.getDiscCount(DiscColor.NONE), model.getDiscCount(DiscColor.NONE));
+    }
+  }
+
+  @Test
+  public void testSameGamesAsReversiModel() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 2; edgeLength <= 8; edgeLength++) {
+      for (int game = 0; game < 10; game++) {
+        MutableReversiModel expected = ReversiModel.create(edgeLength);
+        MutableReversiModel actual = ChunkedReversiModel.create(edgeLength);
+        expected.startGame();
+        actual.startGame();
+        while (!expected.isGameOver()) {
+          Assert.assertEquals(expected.getGrid(), actual.getGrid());
+          Assert.assertEquals(expected.getBoardView().rawCells(),
+              actual.getBoardView().rawCells());
+          Assert.assertEquals(expected.anyLegalMoves(), actual.anyLegalMoves());
+          for (DiscColor color : DiscColor.values()) {
+            Assert.assertEquals(expected.getDiscCount(color), actual.getDiscCount(color));
+          }
+          Assert.assertEquals(expected.getPositionHash(), actual.getPositionHash());
+          Assert.assertEquals(expected.legalMoves(), actual.legalMoves());
+          List<int[]> moves = new ArrayList<>();
+          expected.forEachLegalMove((cell, flips) -> moves.add(new int[] {cell, flips}));
+          List<int[]> actualMoves = new ArrayList<>();
+          actual.forEachLegalMove((cell, flips) -> actualMoves.add(new int[] {cell, flips}));
+          Assert.assertEquals(moves.size(), actualMoves.size());
+          for (int i = 0; i < moves.size(); i++) {
+            Assert.assertArrayEquals(moves.get(i), actualMoves.get(i));
+          }
+
+          if (moves.isEmpty()) {
+            expected.pass();
+            actual.pass();
+          } else {
+            RowColCoords move = HexGeometry.forEdgeLength(edgeLength)
+                .coords(moves.get(rand.nextInt(moves.size()))[0]);
+            Assert.assertEquals(expected.discsToCapture(move), actual.discsToCapture(move));
+            expected.placeDiscInCell(move);
+            actual.placeDiscInCell(move);
+          }
+        }
+        Assert.assertEquals(expected.getGrid(), actual.getGrid());
+        Assert.assertEquals(expected.getWinner(), actual.getWinner());
+      }
+    }
+  }
+}
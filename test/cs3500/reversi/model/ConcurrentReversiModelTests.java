@@ -0,0 +1,147 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cs3500.reversi.controller.ModelCallbackListener;
+
+/**
+ * Tests for the model that can be read from other threads while a game is played, checking
+ * that it plays exactly the same game as ReversiModel and that readers always see a whole
+ * position.
+ */
+public class ConcurrentReversiModelTests {
+
+  @Test
+  public void testSameGamesAsReversiModel() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 2; edgeLength <= 8; edgeLength++) {
+      MutableReversiModel expected = ReversiModel.create(edgeLength);
+      MutableReversiModel actual = ConcurrentReversiModel.create(edgeLength);
+      Assert.assertThrows(IllegalStateException.class, actual::anyLegalMoves);
+      expected.startGame();
+      actual.startGame();
+      while (!expected.isGameOver()) {
+        Assert.assertFalse(actual.isGameOver());
+        Assert.assertEquals(expected.getSnapshot(), actual.getSnapshot());
+        Assert.assertEquals(expected.getPositionHash(), actual.getPositionHash());
+        Assert.assertEquals(expected.getActivePlayerColor(), actual.getActivePlayerColor());
+        Assert.assertEquals(expected.anyLegalMoves(), actual.anyLegalMoves());
+        Assert.assertEquals(expected.legalMoves(), actual.legalMoves());
+        HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+        for (int cell = 0; cell < geometry.cellCount(); cell++) {
+          RowColCoords coords = geometry.coords(cell);
+          Assert.assertEquals(expected.validMove(coords), actual.validMove(coords));
+          Assert.assertEquals(expected.countFlips(coords, DiscColor.WHITE),
+              actual.countFlips(coords, DiscColor.WHITE));
+          if (expected.getColorAt(coords) == DiscColor.NONE) {
+            Assert.assertEquals(expected.discsToCapture(coords), actual.discsToCapture(coords));
+          }
+        }
+
+        int[] cells = new int[geometry.cellCount()];
+        int[] flips = new int[geometry.cellCount()];
+        int count = actual.legalMoves(cells, flips);
+        if (count == 0) {
+          expected.pass();
+          actual.pass();
+        } else {
+          RowColCoords move = geometry.coords(cells[rand.nextInt(count)]);
+          expected.placeDiscInCell(move);
+          actual.placeDiscInCell(move);
+        }
+      }
+      Assert.assertTrue(actual.isGameOver());
+      Assert.assertEquals(expected.getSnapshot(), actual.getSnapshot());
+      Assert.assertEquals(expected.getWinner(), actual.getWinner());
+    }
+  }
+
+  @Test
+  public void testListenersSeeNewPosition() {
+    MutableReversiModel model = ConcurrentReversiModel.create(3);
+    List<GameState> seen = new ArrayList<>();
+    AtomicInteger endings = new AtomicInteger();
+    model.setBroadcastListener(new ModelCallbackListener() {
+      @Override
+      public void updateView() {
+        seen.add(model.getGameState());
+      }
+
+      @Override
+      public void nextPlayerTurn() {
+        // Nothing to do
+      }
+
+      @Override
+      public void endGame() {
+        Assert.assertTrue(model.isGameOver());
+        endings.incrementAndGet();
+      }
+    });
+    model.startGame();
+    model.placeDiscInCell(new RowColCoords(1, 3));
+    model.pass();
+    model.pass();
+    Assert.assertEquals(List.of(GameState.BLACKMOVE, GameState.WHITEMOVE, GameState.BLACKMOVE),
+        seen);
+    Assert.assertEquals(1, endings.get());
+    Assert.assertEquals(DiscColor.BLACK, model.getWinner());
+  }
+
+  @Test
+  public void testReadersSeeWholePositions() throws InterruptedException {
+    ConcurrentReversiModel model = ConcurrentReversiModel.create(6);
+    model.startGame();
+    AtomicBoolean done = new AtomicBoolean(false);
+    AtomicReference<String> failure = new AtomicReference<>();
+    Thread reader = new Thread(() -> {
+      while (!done.get()) {
+        // Every position read has as many discs as its counts say, and no discs on its
+        // frontier
+        BoardSnapshot position = model.getSnapshot();
+        int empty = 0;
+        for (DiscColor color : position.rawCells()) {
+          empty += color == DiscColor.NONE ? 1 : 0;
+        }
+        for (int cell = position.frontier().nextSetBit(0); cell >= 0;
+             cell = position.frontier().nextSetBit(cell + 1)) {
+          if (position.rawCells().get(cell) != DiscColor.NONE) {
+            failure.set("Disc on the frontier");
+          }
+        }
+        if (empty != position.getDiscCount(DiscColor.NONE)) {
+          failure.set("Wrong disc counts");
+        }
+      }
+    });
+    reader.start();
+
+    Random rand = new Random(3500);
+    HexGeometry geometry = HexGeometry.forEdgeLength(6);
+    for (int game = 0; game < 20; game++) {
+      List<UndoRecord> records = new ArrayList<>();
+      while (!model.isGameOver()) {
+        List<Integer> moves = new ArrayList<>();
+        model.forEachLegalMove((cell, flips) -> moves.add(cell));
+        records.add(moves.isEmpty() ? model.makePass()
+            : model.makeMove(geometry.coords(moves.get(rand.nextInt(moves.size())))));
+      }
+      for (int i = records.size() - 1; i >= 0; i--) {
+        model.unmakeMove(records.get(i));
+      }
+    }
+    done.set(true);
+    reader.join();
+    Assert.assertNull(failure.get());
+    Assert.assertEquals(6, model.getDiscCount(DiscColor.BLACK)
+        + model.getDiscCount(DiscColor.WHITE));
+  }
+}
@@ -0,0 +1,167 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for writing game records from the model's broadcast and replaying them.
+ */
+public class GameRecordTests {
+
+  /**
+   * Plays a random game to the end.
+   * @param model an unstarted game
+   * @param rand the source of the random moves
+   */
+  private static void playRandomGame(MutableReversiModel model, Random rand) {
+    HexGeometry geometry = HexGeometry.forEdgeLength(model.getEdgeLength());
+    model.startGame();
+    while (!model.isGameOver()) {
+      List<Integer> moves = new ArrayList<>();
+      model.forEachLegalMove((cell, flips) -> moves.add(cell));
+      if (moves.isEmpty()) {
+        model.pass();
+      } else {
+        model.placeDiscInCell(geometry.coords(moves.get(rand.nextInt(moves.size()))));
+      }
+    }
+  }
+
+  @Test
+  public void testReplayGames() throws IOException {
+    Random rand = new Random(3500);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    List<MutableReversiModel> games = new ArrayList<>();
+    for (int edgeLength = 2; edgeLength <= 10; edgeLength++) {
+      MutableReversiModel model = ReversiModel.create(edgeLength);
+      GameRecordWriter.create(model, out, "strategy" + edgeLength, "human");
+      playRandomGame(model, rand);
+      games.add(model);
+    }
+
+    // Every game in the stream is replayed to the same final position
+    GameRecordReader reader = GameRecordReader.create(
+        new ByteArrayInputStream(out.toByteArray()), BitboardReversiModel::create);
+    for (MutableReversiModel expected : games) {
+      MutableReversiModel actual = reader.replayNext();
+      Assert.assertEquals(expected.getSnapshot(), actual.getSnapshot());
+      Assert.assertTrue(actual.isGameOver());
+      Assert.assertFalse(reader.wasTruncated());
+      Assert.assertEquals("strategy" + expected.getEdgeLength(),
+          reader.getPlayer(DiscColor.BLACK));
+      Assert.assertEquals("human", reader.getPlayer(DiscColor.WHITE));
+    }
+    Assert.assertNull(reader.replayNext());
+  }
+
+  @Test
+  public void testRecordFormat() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MutableReversiModel m2 = ReversiModel.create(2);
+    GameRecordWriter writer = GameRecordWriter.create(m2, out, "X", "O");
+    m2.startGame();
+    Assert.assertThrows(IllegalStateException.class,
+        () -> GameRecordWriter.create(m2, new ByteArrayOutputStream(), "X", "O"));
+    m2.pass();
+    m2.pass();
+    // The header, two passes, and the end of the record
+    Assert.assertArrayEquals(new byte[] {'R', 'G', 1, 2, 1, 'X', 1, 'O', 1, 1, 0},
+        out.toByteArray());
+    writer.close();
+
+    // Moves on big boards take more than one byte
+    ByteArrayOutputStream varint = new ByteArrayOutputStream();
+    GameRecordWriter.writeVarint(varint, 300);
+    Assert.assertArrayEquals(new byte[] {(byte) 0xAC, 2}, varint.toByteArray());
+    Assert.assertEquals(300,
+        GameRecordReader.readVarint(new ByteArrayInputStream(varint.toByteArray())));
+  }
+
+  @Test
+  public void testTruncatedRecord() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MutableReversiModel model = ReversiModel.create(5);
+    GameRecordWriter writer = GameRecordWriter.create(model, out, "A", "B");
+    model.startGame();
+    model.placeDiscInCell(new RowColCoords(3, 5));
+    writer.close();
+    model.placeDiscInCell(new RowColCoords(2, 5));
+
+    // A record written after the abandoned one is still found
+    MutableReversiModel next = ReversiModel.create(3);
+    GameRecordWriter.create(next, out, "C", "D");
+    playRandomGame(next, new Random(3500));
+
+    // The record stops at the last turn written before it was closed
+    GameRecordReader reader = GameRecordReader.create(new ByteArrayInputStream(out.toByteArray()));
+    MutableReversiModel replayed = reader.replayNext();
+    Assert.assertTrue(reader.wasTruncated());
+    Assert.assertEquals(1, reader.getTurnCount());
+    Assert.assertEquals(DiscColor.BLACK, replayed.getColorAt(new RowColCoords(3, 5)));
+    Assert.assertEquals(GameState.WHITEMOVE, replayed.getGameState());
+    replayed = reader.replayNext();
+    Assert.assertFalse(reader.wasTruncated());
+    Assert.assertEquals("C", reader.getPlayer(DiscColor.BLACK));
+    Assert.assertEquals(next.getSnapshot(), replayed.getSnapshot());
+    Assert.assertNull(reader.replayNext());
+
+    // A record cut off partway through has no end at all
+    byte[] cut = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+    reader = GameRecordReader.create(new ByteArrayInputStream(cut));
+    reader.replayNext();
+    reader.replayNext();
+    Assert.assertTrue(reader.wasTruncated());
+    Assert.assertNull(reader.replayNext());
+
+    byte[] bad = Arrays.copyOf(out.toByteArray(), out.size());
+    bad[0] = 'X';
+    Assert.assertThrows(StreamCorruptedException.class,
+        () -> GameRecordReader.create(new ByteArrayInputStream(bad)).replayNext());
+  }
+
+  @Test
+  public void testBadHeaders() throws IOException {
+    // Edge lengths too small to play on or too large to replay, whatever the model
+    for (int edgeLength : new int[] {0, 1, GameRecordWriter.MAX_EDGE_LENGTH + 1, 5000, 30000,
+        100000}) {
+      ByteArrayOutputStream header = new ByteArrayOutputStream();
+      header.write(new byte[] {'R', 'G', 1});
+      GameRecordWriter.writeVarint(header, edgeLength);
+      header.write(new byte[] {0, 0, 0});
+      GameRecordReader reader = GameRecordReader.create(
+          new ByteArrayInputStream(header.toByteArray()));
+      Assert.assertThrows(String.valueOf(edgeLength), StreamCorruptedException.class,
+          reader::replayNext);
+    }
+
+    // A player's description longer than any writer writes
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    header.write(new byte[] {'R', 'G', 1, 3});
+    GameRecordWriter.writeVarint(header, Integer.MAX_VALUE);
+    GameRecordReader reader = GameRecordReader.create(
+        new ByteArrayInputStream(header.toByteArray()));
+    Assert.assertThrows(StreamCorruptedException.class, reader::replayNext);
+
+    // The writer won't write either
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> GameRecordWriter.create(
+            BitboardReversiModel.create(GameRecordWriter.MAX_EDGE_LENGTH + 1),
+            new ByteArrayOutputStream(), "X", "O"));
+    // Each of these takes 2 bytes
+    String longName = String.join("",
+        Collections.nCopies(GameRecordWriter.MAX_PLAYER_BYTES / 2 + 1, "\u00e9"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> GameRecordWriter.create(ReversiModel.create(3), new ByteArrayOutputStream(),
+            "X", longName));
+  }
+}
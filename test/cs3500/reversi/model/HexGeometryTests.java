@@ -0,0 +1,102 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the precomputed layout of hexagonal grids.
+ */
+public class HexGeometryTests {
+  @Test
+  public void testSharedPerEdgeLength() {
+    Assert.assertSame(HexGeometry.forEdgeLength(3), HexGeometry.forEdgeLength(3));
+    Assert.assertNotSame(HexGeometry.forEdgeLength(3), HexGeometry.forEdgeLength(4));
+    Assert.assertThrows(IllegalArgumentException.class, () -> HexGeometry.forEdgeLength(1));
+
+    // A big geometry is shared for as long as it is in use, and has no table of coordinates
+    HexGeometry big = HexGeometry.forEdgeLength(200);
+    Assert.assertSame(big, HexGeometry.forEdgeLength(200));
+    int cell = big.cellIndex(150, 120);
+    Assert.assertEquals(new RowColCoords(150, 120), big.coords(cell));
+    Assert.assertNotSame(big.coords(cell), big.coords(cell));
+  }
+
+  @Test
+  public void testRows() {
+    HexGeometry geometry = HexGeometry.forEdgeLength(3);
+    Assert.assertEquals(5, geometry.rowCount());
+    Assert.assertEquals(19, geometry.cellCount());
+
+    // Rows are 3, 4, 5, 4, and 3 cells long
+    int[] expectedStarts = {0, 3, 7, 12, 16, 19};
+    for (int row = 0; row <= geometry.rowCount(); row++) {
+      Assert.assertEquals(expectedStarts[row], geometry.rowStart(row));
+    }
+    Assert.assertEquals(5, geometry.rowLength(2));
+
+    Assert.assertEquals(9, geometry.cellIndex(2, 2));
+    Assert.assertEquals(2, geometry.rowOf(9));
+    Assert.assertEquals(2, geometry.colOf(9));
+    Assert.assertEquals(new RowColCoords(3, 1), geometry.coords(geometry.cellIndex(3, 1)));
+    Assert.assertThrows(IllegalArgumentException.class, () -> geometry.cellIndex(0, 3));
+    Assert.assertFalse(geometry.isValid(-1, 0));
+  }
+
+  @Test
+  public void testNeighbours() {
+    HexGeometry geometry = HexGeometry.forEdgeLength(3);
+    /*
+      0 1 2
+     3 4 5 6
+    7 8 9 A B
+     C D E F
+      G H I
+    */
+    int center = geometry.cellIndex(2, 2);
+    Assert.assertEquals(geometry.cellIndex(1, 1), geometry.neighbour(Direction.topLeft, center));
+    Assert.assertEquals(geometry.cellIndex(1, 2), geometry.neighbour(Direction.topRight, center));
+    Assert.assertEquals(geometry.cellIndex(2, 1), geometry.neighbour(Direction.centerLeft, center));
+    Assert.assertEquals(geometry.cellIndex(2, 3),
+            geometry.neighbour(Direction.centerRight, center));
+    Assert.assertEquals(geometry.cellIndex(3, 1),
+            geometry.neighbour(Direction.bottomLeft, center));
+    Assert.assertEquals(geometry.cellIndex(3, 2),
+            geometry.neighbour(Direction.bottomRight, center));
+
+    // Checking cells on the edges of the grid
+    Assert.assertEquals(-1, geometry.neighbour(Direction.topLeft, geometry.cellIndex(0, 0)));
+    Assert.assertEquals(-1, geometry.neighbour(Direction.centerLeft, geometry.cellIndex(2, 0)));
+    Assert.assertEquals(geometry.cellIndex(4, 0),
+            geometry.neighbour(Direction.bottomRight, geometry.cellIndex(3, 0)));
+    Assert.assertEquals(-1, geometry.neighbour(Direction.bottomLeft, geometry.cellIndex(3, 0)));
+  }
+
+  @Test
+  public void testRaysFollowNeighbours() {
+    for (int edgeLength = 2; edgeLength <= 7; edgeLength++) {
+      HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+      for (Direction dir : Direction.values()) {
+        for (int cell = 0; cell < geometry.cellCount(); cell++) {
+          // Walking one neighbour at a time should visit exactly the cells of the ray
+          int step = 0;
+          for (int next = geometry.neighbour(dir, cell); next != -1;
+               next = geometry.neighbour(dir, next)) {
+            Assert.assertEquals(next, geometry.rayCell(dir, cell, step));
+            step++;
+          }
+          Assert.assertEquals(step, geometry.rayLength(dir, cell));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRayLengths() {
+    HexGeometry geometry = HexGeometry.forEdgeLength(3);
+    int topLeftCorner = geometry.cellIndex(0, 0);
+    Assert.assertEquals(2, geometry.rayLength(Direction.centerRight, topLeftCorner));
+    Assert.assertEquals(4, geometry.rayLength(Direction.bottomRight, topLeftCorner));
+    Assert.assertEquals(2, geometry.rayLength(Direction.bottomLeft, topLeftCorner));
+    Assert.assertEquals(0, geometry.rayLength(Direction.topRight, topLeftCorner));
+  }
+}
@@ -0,0 +1,106 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests for the 12 symmetries of the hexagonal grid and the canonical form of positions.
+ */
+public class HexSymmetryTests {
+
+  @Test
+  public void testPermutations() {
+    for (int edgeLength = 2; edgeLength <= 7; edgeLength++) {
+      HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+      HexSymmetry symmetries = HexSymmetry.forEdgeLength(edgeLength);
+      Set<List<Integer>> distinct = new HashSet<>();
+      for (int symmetry = 0; symmetry < HexSymmetry.COUNT; symmetry++) {
+        List<Integer> permutation = new ArrayList<>();
+        for (int cell = 0; cell < geometry.cellCount(); cell++) {
+          int moved = symmetries.mapCell(symmetry, cell);
+          permutation.add(moved);
+          Assert.assertEquals(cell,
+              symmetries.mapCell(symmetries.inverse(symmetry), moved));
+
+          // Cells next to each other are still next to each other
+          for (Direction dir : Direction.values()) {
+            int neighbour = geometry.neighbour(dir, cell);
+            if (neighbour != -1) {
+              int movedNeighbour = symmetries.mapCell(symmetry, neighbour);
+              boolean adjacent = false;
+              for (Direction other : Direction.values()) {
+                adjacent |= geometry.neighbour(other, moved) == movedNeighbour;
+              }
+              Assert.assertTrue(adjacent);
+            }
+          }
+        }
+        Assert.assertEquals(geometry.cellCount(), new HashSet<>(permutation).size());
+        distinct.add(permutation);
+      }
+      Assert.assertEquals(HexSymmetry.COUNT, distinct.size());
+    }
+
+    // Symmetry 0 leaves every cell where it is, and a rotation moves a corner to a corner
+    HexSymmetry symmetries = HexSymmetry.forEdgeLength(3);
+    Assert.assertEquals(RowColCoords.of(2, 2), symmetries.map(1, RowColCoords.of(2, 2)));
+    Assert.assertEquals(RowColCoords.of(1, 3), symmetries.map(0, RowColCoords.of(1, 3)));
+    Assert.assertEquals(RowColCoords.of(2, 0), symmetries.map(1, RowColCoords.of(0, 0)));
+  }
+
+  @Test
+  public void testSymmetricGames() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 2; edgeLength <= 6; edgeLength++) {
+      HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+      HexSymmetry symmetries = HexSymmetry.forEdgeLength(edgeLength);
+      MutableReversiModel model = ReversiModel.create(edgeLength);
+      model.startGame();
+      List<MutableReversiModel> copies = new ArrayList<>();
+      for (int symmetry = 0; symmetry < HexSymmetry.COUNT; symmetry++) {
+        copies.add(ReversiModel.fromSnapshot(symmetries.transform(model, symmetry)));
+      }
+
+      // Playing the same move seen from each symmetry keeps every copy symmetric
+      while (!model.isGameOver()) {
+        long canonical = symmetries.canonicalHash(model);
+        BitSet legal = model.legalMoves();
+        for (int symmetry = 0; symmetry < HexSymmetry.COUNT; symmetry++) {
+          MutableReversiModel copy = copies.get(symmetry);
+          Assert.assertEquals(symmetries.transform(model, symmetry), copy.getSnapshot());
+          Assert.assertEquals(copy.getPositionHash(), symmetries.hash(model, symmetry));
+          Assert.assertEquals(canonical, symmetries.canonicalHash(copy));
+          Assert.assertEquals(symmetries.canonicalForm(model), symmetries.canonicalForm(copy));
+          BitSet mapped = new BitSet();
+          for (int cell = legal.nextSetBit(0); cell >= 0; cell = legal.nextSetBit(cell + 1)) {
+            mapped.set(symmetries.mapCell(symmetry, cell));
+          }
+          Assert.assertEquals(mapped, copy.legalMoves());
+        }
+        Assert.assertEquals(model.getPositionHash(), symmetries.hash(model, 0));
+        Assert.assertEquals(symmetries.hash(model, symmetries.canonicalSymmetry(model)),
+            canonical);
+
+        if (legal.isEmpty()) {
+          model.pass();
+          copies.forEach(MutableReversiModel::pass);
+        } else {
+          int[] cells = legal.stream().toArray();
+          int cell = cells[rand.nextInt(cells.length)];
+          model.placeDiscInCell(geometry.coords(cell));
+          for (int symmetry = 0; symmetry < HexSymmetry.COUNT; symmetry++) {
+            copies.get(symmetry).placeDiscInCell(
+                geometry.coords(symmetries.mapCell(symmetry, cell)));
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package cs3500.reversi.model;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for finding legal moves on several threads.
+ */
+public class ParallelMoveGeneratorTests {
+  @After
+  public void resetThreshold() {
+    ParallelMoveGenerator.setThreshold(ParallelMoveGenerator.DEFAULT_THRESHOLD);
+  }
+
+  @Test
+  public void testSameMovesAsModel() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 3; edgeLength <= 30; edgeLength += 9) {
+      MutableReversiModel model = ReversiModel.create(edgeLength);
+      model.startGame();
+      HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+      int[] cells = new int[geometry.cellCount()];
+      int[] flips = new int[geometry.cellCount()];
+      int[] parallelCells = new int[geometry.cellCount()];
+      int[] parallelFlips = new int[geometry.cellCount()];
+      for (int move = 0; move < 40 && !model.isGameOver(); move++) {
+        int count = model.legalMoves(cells, flips);
+        Assert.assertEquals(count, ParallelMoveGenerator.legalMovesInParallel(
+            model.getSnapshot(), parallelCells, parallelFlips));
+        Assert.assertArrayEquals(Arrays.copyOf(cells, count),
+            Arrays.copyOf(parallelCells, count));
+        Assert.assertArrayEquals(Arrays.copyOf(flips, count),
+            Arrays.copyOf(parallelFlips, count));
+        Assert.assertEquals(count, ParallelMoveGenerator.legalMovesSequentially(
+            model.getSnapshot(), parallelCells, parallelFlips));
+        if (count == 0) {
+          model.pass();
+        } else {
+          model.placeDiscInCell(geometry.coords(cells[rand.nextInt(count)]));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testThreshold() {
+    MutableReversiModel model = ReversiModel.create(5);
+    model.startGame();
+    int[] cells = new int[61];
+    int[] flips = new int[61];
+
+    // Boards at or above the threshold go through a snapshot, smaller ones through the model
+    ParallelMoveGenerator.setThreshold(61);
+    Assert.assertEquals(6, ParallelMoveGenerator.legalMoves(model, cells, flips));
+    List<Integer> moves = new ArrayList<>();
+    ParallelMoveGenerator.forEachLegalMove(model, (cell, flipCount) -> moves.add(cell));
+    Assert.assertArrayEquals(Arrays.copyOf(cells, 6),
+        moves.stream().mapToInt(Integer::intValue).toArray());
+    ParallelMoveGenerator.setThreshold(62);
+    Assert.assertEquals(6, ParallelMoveGenerator.legalMoves(model, cells, flips));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> ParallelMoveGenerator.setThreshold(-1));
+
+    model.pass();
+    model.pass();
+    ParallelMoveGenerator.setThreshold(0);
+    Assert.assertThrows(IllegalStateException.class,
+        () -> ParallelMoveGenerator.legalMoves(model, cells, flips));
+  }
+
+  @Test
+  public void testModelsThatCopySnapshots() {
+    // A model whose snapshots copy its grid is always left to find its own moves
+    MutableReversiModel bitboard = BitboardReversiModel.create(5);
+    bitboard.startGame();
+    ROReversiModel model = (ROReversiModel) Proxy.newProxyInstance(
+        ROReversiModel.class.getClassLoader(), new Class<?>[] {ROReversiModel.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("getSnapshot")) {
+            throw new AssertionError("Copied the grid");
+          }
+          return method.invoke(bitboard, args);
+        });
+    ParallelMoveGenerator.setThreshold(0);
+    Assert.assertEquals(6, ParallelMoveGenerator.legalMoves(model, new int[61], new int[61]));
+    List<Integer> moves = new ArrayList<>();
+    ParallelMoveGenerator.forEachLegalMove(model, (cell, flipCount) -> moves.add(cell));
+    Assert.assertEquals(6, moves.size());
+  }
+
+  @Test
+  public void testNoCalibrationUnlessAsked() {
+    // Finding moves on a big board uses the default rather than stopping to calibrate
+    MutableReversiModel model = ReversiModel.create(30);
+    model.startGame();
+    long start = System.nanoTime();
+    ParallelMoveGenerator.forEachLegalMove(model, (cell, flipCount) -> { });
+    Assert.assertEquals(ParallelMoveGenerator.DEFAULT_THRESHOLD,
+        ParallelMoveGenerator.getThreshold());
+    Assert.assertTrue(System.nanoTime() - start < 1_000_000_000L);
+  }
+}
@@ -0,0 +1,126 @@
+package cs3500.reversi.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for the binary encoding and text notation of Reversi positions.
+ */
+public class PositionCodecTests {
+
+  @Test
+  public void testStartingPosition() {
+    MutableReversiModel m3 = ReversiModel.create(3);
+    Assert.assertEquals("3 3/1XO1/1O1X1/1XO1/3 -0", PositionCodec.toNotation(m3));
+    m3.startGame();
+    Assert.assertEquals("3 3/1XO1/1O1X1/1XO1/3 X0", PositionCodec.toNotation(m3));
+    Assert.assertEquals(m3, PositionCodec.fromNotation("3 3/1XO1/1O1X1/1XO1/3 X0"));
+
+    // 19 cells take 5 bytes after the 3 byte header
+    ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.encodedSize(3));
+    Assert.assertEquals(8, buffer.capacity());
+    PositionCodec.encode(m3, buffer);
+    Assert.assertFalse(buffer.hasRemaining());
+    buffer.flip();
+    Assert.assertEquals(m3, PositionCodec.decode(buffer));
+    Assert.assertEquals(46, PositionCodec.encodedSize(8));
+  }
+
+  @Test
+  public void testRoundTrips() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 2; edgeLength <= 8; edgeLength++) {
+      MutableReversiModel model = BitboardReversiModel.create(edgeLength);
+      model.startGame();
+      ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.encodedSize(edgeLength) * 2);
+      while (true) {
+        // Each position comes back the same from both formats, with the same hash
+        buffer.clear();
+        PositionCodec.encode(model, buffer);
+        PositionCodec.encode(model, buffer);
+        buffer.flip();
+        ReversiModel decoded = PositionCodec.decode(buffer);
+        Assert.assertEquals(BoardSnapshot.of(model), decoded.getSnapshot());
+        Assert.assertEquals(model.getPositionHash(), decoded.getPositionHash());
+        Assert.assertEquals(decoded, PositionCodec.decode(buffer));
+        Assert.assertFalse(buffer.hasRemaining());
+        String notation = PositionCodec.toNotation(model);
+        Assert.assertEquals(decoded, PositionCodec.fromNotation(notation));
+        Assert.assertEquals(notation, PositionCodec.toNotation(decoded));
+        if (model.isGameOver()) {
+          break;
+        }
+
+        List<Integer> moves = new ArrayList<>();
+        model.forEachLegalMove((cell, flips) -> moves.add(cell));
+        if (moves.isEmpty()) {
+          model.pass();
+        } else {
+          model.placeDiscInCell(HexGeometry.forEdgeLength(edgeLength)
+              .coords(moves.get(rand.nextInt(moves.size()))));
+        }
+      }
+      Assert.assertTrue(PositionCodec.toNotation(model).endsWith("#2")
+          || model.getDiscCount(DiscColor.NONE) == 0);
+    }
+  }
+
+  @Test
+  public void testBadInput() {
+    MutableReversiModel m3 = ReversiModel.create(3);
+    Assert.assertThrows(BufferOverflowException.class,
+        () -> PositionCodec.encode(m3, ByteBuffer.allocate(7)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionCodec.decode(ByteBuffer.wrap(new byte[] {0, 1, 0, 0})));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionCodec.decode(ByteBuffer.wrap(new byte[] {0, 2, 16, 0, 0})));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionCodec.decode(ByteBuffer.wrap(new byte[] {0, 2, 4, 3, 0})));
+
+    for (String notation : new String[] {"", "3 3/4/5/4/3", "3 3/4/5/4 -0", "3 3/4/5/4/4 -0",
+        "3 3/4/5/4/2 -0", "3 3/4/5/4/3 Z0", "3 3/4/5/4/3 X9", "x 3/4/5/4/3 -0",
+        "3 3/4/5/4/Y2 -0", "1 1 -0"}) {
+      Assert.assertThrows(notation, IllegalArgumentException.class,
+          () -> PositionCodec.fromNotation(notation));
+    }
+  }
+
+  @Test
+  public void testEdgeLengthLimit() {
+    // The largest edge length has just under 2^31 cells
+    int max = PositionCodec.MAX_EDGE_LENGTH;
+    Assert.assertEquals(3 + (3L * max * (max - 1) + 4) / 4, PositionCodec.encodedSize(max));
+    Assert.assertTrue(3L * (max + 1) * max + 1 > Integer.MAX_VALUE);
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionCodec.encodedSize(max + 1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionCodec.encodedSize(60000));
+
+    // Larger edge lengths are rejected before their grids are built
+    ByteBuffer buffer = ByteBuffer.allocate(3);
+    buffer.putShort((short) 60000).put((byte) 0).flip();
+    Assert.assertThrows(IllegalArgumentException.class, () -> PositionCodec.decode(buffer));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionCodec.fromNotation("60000 1 -0"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionCodec.fromNotation("20000 1 -0"));
+
+    // Every row is checked before the grid is built, so a short text with the right number of
+    // rows can't make it build a huge one
+    for (int edgeLength : new int[] {3000, max}) {
+      String rows = String.join("/", Collections.nCopies(2 * edgeLength - 1, ""));
+      Assert.assertThrows(IllegalArgumentException.class,
+          () -> PositionCodec.fromNotation(edgeLength + " " + rows + " X0"));
+      String oneShort = (edgeLength - 1) + rows.substring(1);
+      Assert.assertThrows(IllegalArgumentException.class,
+          () -> PositionCodec.fromNotation(edgeLength + " " + oneShort + " X0"));
+    }
+  }
+}
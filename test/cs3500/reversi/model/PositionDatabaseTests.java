@@ -0,0 +1,149 @@
+package cs3500.reversi.model;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Tests for the memory-mapped database of positions.
+ */
+public class PositionDatabaseTests {
+  Path file;
+
+  @Before
+  public void init() throws IOException {
+    file = Files.createTempFile("positions", ".db");
+  }
+
+  @After
+  public void cleanUp() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testPutAndLookup() throws IOException {
+    try (PositionDatabase database = PositionDatabase.create(file, 100)) {
+      Assert.assertEquals(128, database.capacity());
+      Assert.assertNull(database.lookup(42));
+      database.put(42, PositionDatabase.Entry.create(10, 7, 5, 0.25f));
+      // 170 and 298 go to the same slot as 42 and are stored in the slots after it
+      database.recordVisit(170, true, 3);
+      database.recordVisit(170, false, 4);
+      database.recordVisit(298, false, 1);
+      database.recordVisit(0, true, 9);
+      Assert.assertEquals(4, database.size());
+    }
+
+    // The positions are still there after the file is opened again
+    try (PositionDatabase database = PositionDatabase.open(file)) {
+      Assert.assertEquals(4, database.size());
+      PositionDatabase.Entry entry = database.lookup(42);
+      Assert.assertEquals(10, entry.getVisits());
+      Assert.assertEquals(7, entry.getWins());
+      Assert.assertEquals(5, entry.getBestMove());
+      Assert.assertEquals(0.25f, entry.getEvaluation(), 0);
+      entry = database.lookup(170);
+      Assert.assertEquals(2, entry.getVisits());
+      Assert.assertEquals(1, entry.getWins());
+      Assert.assertEquals(3, entry.getBestMove());
+      Assert.assertTrue(Float.isNaN(entry.getEvaluation()));
+      Assert.assertEquals(-1, database.lookup(298).getBestMove());
+      Assert.assertEquals(9, database.lookup(0).getBestMove());
+      Assert.assertNull(database.lookup(43));
+      Assert.assertThrows(IllegalStateException.class, () -> database.recordVisit(1, true, 0));
+    }
+  }
+
+  @Test
+  public void testSegments() throws IOException {
+    // Mapping 4 slots at a time spreads the table over 16 segments
+    Random rand = new Random(3500);
+    long[] hashes = new long[40];
+    try (PositionDatabase database = PositionDatabase.create(file, 64, 2)) {
+      for (int i = 0; i < hashes.length; i++) {
+        hashes[i] = rand.nextLong();
+        database.put(hashes[i], PositionDatabase.Entry.create(i, 0, i, i));
+      }
+    }
+    try (PositionDatabase database = PositionDatabase.open(file, false, 2)) {
+      for (int i = 0; i < hashes.length; i++) {
+        Assert.assertEquals(i, database.lookup(hashes[i]).getBestMove());
+      }
+    }
+    // The same file can be mapped all at once
+    try (PositionDatabase database = PositionDatabase.open(file)) {
+      Assert.assertEquals(39, database.lookup(hashes[39]).getVisits());
+    }
+  }
+
+  @Test
+  public void testFull() throws IOException {
+    try (PositionDatabase database = PositionDatabase.create(file, 2)) {
+      database.recordVisit(1, true, 0);
+      database.recordVisit(2, true, 0);
+      Assert.assertThrows(IllegalStateException.class, () -> database.recordVisit(3, true, 0));
+      Assert.assertThrows(IllegalArgumentException.class,
+          () -> PositionDatabase.Entry.create(1, 2, 0, 0));
+    }
+    Files.write(file, new byte[100]);
+    Assert.assertThrows(IOException.class, () -> PositionDatabase.open(file));
+  }
+
+  @Test
+  public void testBadCapacity() throws IOException {
+    PositionDatabase.create(file, 2).close();
+    byte[] bytes = Files.readAllBytes(file);
+    // Capacities whose table size overflows, or that are bigger than create allows
+    for (long capacity : new long[] {Long.MIN_VALUE, 1L << 62, 1L << 41, 0}) {
+      ByteBuffer.wrap(bytes).putLong(8, capacity);
+      Files.write(file, bytes);
+      IOException e = Assert.assertThrows(IOException.class, () -> PositionDatabase.open(file));
+      Assert.assertEquals("Not a position database", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testAddGames() throws IOException {
+    Random rand = new Random(3500);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int blackWins = 0;
+    for (int game = 0; game < 20; game++) {
+      MutableReversiModel model = ReversiModel.create(3);
+      GameRecordWriter.create(model, out, "random", "random");
+      model.startGame();
+      HexGeometry geometry = HexGeometry.forEdgeLength(3);
+      int[] moves = new int[geometry.cellCount()];
+      int[] flips = new int[geometry.cellCount()];
+      while (!model.isGameOver()) {
+        int count = model.legalMoves(moves, flips);
+        if (count == 0) {
+          model.pass();
+        } else {
+          model.placeDiscInCell(geometry.coords(moves[rand.nextInt(count)]));
+        }
+      }
+      blackWins += model.getWinner() == DiscColor.BLACK ? 1 : 0;
+    }
+
+    try (PositionDatabase database = PositionDatabase.create(file, 1 << 10)) {
+      Assert.assertEquals(20, database.addGames(
+          GameRecordReader.create(new ByteArrayInputStream(out.toByteArray()))));
+      // Every game starts from the same position with black to move
+      MutableReversiModel start = ReversiModel.create(3);
+      start.startGame();
+      PositionDatabase.Entry entry = database.lookup(start);
+      Assert.assertEquals(20, entry.getVisits());
+      Assert.assertEquals(blackWins, entry.getWins());
+      Assert.assertTrue(entry.getBestMove() >= 0);
+    }
+  }
+}
@@ -6,8 +6,11 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
 
 /**
  * Tests for the various classes and methods of Reversi's model.
@@ -134,6 +137,25 @@ public class ReversiModelTests {
     Assert.assertEquals(2, m3.getPlayerScore(DiscColor.WHITE));
   }
 
+  @Test
+  public void testGetDiscCount() {
+    Assert.assertEquals(3, m3.getDiscCount(DiscColor.BLACK));
+    Assert.assertEquals(13, m3.getDiscCount(DiscColor.NONE));
+
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    m3.placeDiscInCell(new RowColCoords(0, 1));
+    Assert.assertEquals(4, m3.getDiscCount(DiscColor.BLACK));
+    Assert.assertEquals(4, m3.getDiscCount(DiscColor.WHITE));
+    Assert.assertEquals(11, m3.getDiscCount(DiscColor.NONE));
+
+    // Copies count their own grid rather than sharing the original's counts
+    MutableReversiModel copy = ReversiModel.createCopy(m3);
+    copy.placeDiscInCell(new RowColCoords(4, 1));
+    Assert.assertEquals(6, copy.getDiscCount(DiscColor.BLACK));
+    Assert.assertEquals(4, m3.getDiscCount(DiscColor.BLACK));
+    Assert.assertEquals(10, copy.getDiscCount(DiscColor.NONE));
+  }
+
   @Test
   public void testGetColorAt() {
     RowColCoords colorNone = new RowColCoords(1, 1);
@@ -297,4 +319,223 @@ public class ReversiModelTests {
     Assert.assertThrows(IllegalStateException.class,
         () -> m3.validMove(new RowColCoords(0, 0)));
   }
+
+  @Test
+  public void testLegalMoves() {
+    HexGeometry geometry = HexGeometry.forEdgeLength(3);
+    int[] cells = new int[geometry.cellCount()];
+    int[] flips = new int[geometry.cellCount()];
+
+    // Black's six opening moves each capture one disc
+    Assert.assertEquals(6, m3.legalMoves(cells, flips));
+    Assert.assertEquals(geometry.cellIndex(0, 1), cells[0]);
+    Assert.assertEquals(1, flips[0]);
+
+    // forEachLegalMove visits the same moves in the same order
+    List<Integer> visited = new ArrayList<>();
+    m3.forEachLegalMove((cell, flipCount) -> visited.add(cell));
+    Assert.assertEquals(6, visited.size());
+    for (int i = 0; i < visited.size(); i++) {
+      Assert.assertEquals(cells[i], (int) visited.get(i));
+    }
+
+    // The bitmask has the same moves
+    BitSet mask = m3.legalMoves();
+    Assert.assertEquals(6, mask.cardinality());
+    for (int i = 0; i < 6; i++) {
+      Assert.assertTrue(mask.get(cells[i]));
+    }
+    // The caller owns the bitmask
+    mask.clear();
+    Assert.assertEquals(6, m3.legalMoves().cardinality());
+
+    // The moves are worked out again for the other player and after a move
+    m3.pass();
+    m3.placeDiscInCell(new RowColCoords(0, 1));
+    BitSet expected = new BitSet();
+    for (int cell = 0; cell < geometry.cellCount(); cell++) {
+      if (m3.countFlips(geometry.coords(cell)) > 0) {
+        expected.set(cell);
+      }
+    }
+    Assert.assertEquals(expected, m3.legalMoves());
+    Assert.assertFalse(m3.legalMoves().get(geometry.cellIndex(0, 1)));
+    Assert.assertEquals(3, expected.cardinality());
+
+    // There are no moves on the smallest board
+    Assert.assertEquals(0, m2.legalMoves(cells, flips));
+    Assert.assertTrue(m2.legalMoves().isEmpty());
+    Assert.assertThrows(IllegalStateException.class,
+        () -> gameoverModel.legalMoves(cells, flips));
+    Assert.assertThrows(IllegalStateException.class, gameoverModel::legalMoves);
+  }
+
+  @Test
+  public void testCountFlips() {
+    // Each of black's opening moves captures one disc, and occupied cells capture nothing
+    Assert.assertEquals(1, m3.countFlips(new RowColCoords(0, 1)));
+    Assert.assertEquals(0, m3.countFlips(new RowColCoords(1, 1)));
+    Assert.assertEquals(0, m3.countFlips(new RowColCoords(0, 0)));
+
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    // Counting for the player whose turn it isn't
+    Assert.assertEquals(0, m3.countFlips(new RowColCoords(0, 1), DiscColor.BLACK));
+    Assert.assertEquals(1, m3.countFlips(new RowColCoords(0, 1), DiscColor.WHITE));
+
+    m3.placeDiscInCell(new RowColCoords(0, 1));
+    m3.placeDiscInCell(new RowColCoords(4, 1));
+    /*
+      _ O _
+     _ O X X
+    _ O _ X _
+     _ X X _
+      _ X _
+    */
+    // White at (3, 3) captures two discs in a single line, and validMove reports discs
+    // captured rather than lines captured
+    Assert.assertEquals(2, m3.countFlips(new RowColCoords(3, 3)));
+    Assert.assertEquals(Integer.valueOf(2), m3.validMove(new RowColCoords(3, 3)).get(true));
+    Assert.assertEquals(1, m3.discsToCapture(new RowColCoords(3, 3)).size());
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> m3.countFlips(new RowColCoords(5, 0)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> m3.countFlips(new RowColCoords(0, 0), DiscColor.NONE));
+  }
+
+  @Test
+  public void testPositionHash() {
+    // The hash kept by the model matches the hash computed from scratch
+    Assert.assertEquals(ZobristKeys.hashOf(m3), m3.getPositionHash());
+    long start = m3.getPositionHash();
+    Assert.assertEquals(start, ReversiModel.createCopy(m3).getPositionHash());
+    Assert.assertNotEquals(start, m2.getPositionHash());
+
+    // The side to move and the pass counter are part of the position
+    m3.pass();
+    long afterPass = m3.getPositionHash();
+    Assert.assertNotEquals(start, afterPass);
+    Assert.assertEquals(ZobristKeys.hashOf(m3), afterPass);
+
+    UndoRecord move = m3.makeMove(new RowColCoords(0, 1));
+    Assert.assertEquals(ZobristKeys.hashOf(m3), m3.getPositionHash());
+    Assert.assertEquals(BitboardReversiModel.createCopy(m3).getPositionHash(),
+        m3.getPositionHash());
+    m3.unmakeMove(move);
+    Assert.assertEquals(afterPass, m3.getPositionHash());
+    Assert.assertEquals(Long.hashCode(afterPass), m3.hashCode());
+  }
+
+  @Test
+  public void testBoardView() {
+    BoardView view = m3.getBoardView();
+    // The same view is handed out every time and reads the model as it changes
+    Assert.assertSame(view, m3.getBoardView());
+    Assert.assertEquals(5, view.rowCount());
+    Assert.assertEquals(4, view.rowLength(1));
+    Assert.assertEquals(DiscColor.WHITE, view.colorAt(1, 2));
+    m3.placeDiscInCell(new RowColCoords(1, 3));
+    Assert.assertEquals(DiscColor.BLACK, view.colorAt(1, 2));
+    Assert.assertEquals(m3.getGrid().get(1), view.rawCells().subList(3, 7));
+
+    // Every cell in order of cell index, matching getGrid row by row
+    List<DiscColor> cells = new ArrayList<>();
+    for (List<DiscColor> row : m3.getGrid()) {
+      cells.addAll(row);
+    }
+    Assert.assertEquals(cells, view.rawCells());
+    Assert.assertSame(view.rawCells(), view.rawCells());
+    Assert.assertThrows(UnsupportedOperationException.class,
+        () -> view.rawCells().set(0, DiscColor.BLACK));
+    Assert.assertThrows(IndexOutOfBoundsException.class, () -> view.colorAt(0, 3));
+  }
+
+  @Test
+  public void testMakeAndUnmakeMove() {
+    MutableReversiModel before = ReversiModel.createCopy(m3);
+    UndoRecord first = m3.makeMove(new RowColCoords(1, 3));
+    Assert.assertEquals(1, first.getFlipCount());
+    Assert.assertEquals(DiscColor.BLACK, first.getPlayer());
+    Assert.assertEquals(DiscColor.BLACK, m3.getColorAt(new RowColCoords(1, 2)));
+    Assert.assertEquals(GameState.WHITEMOVE, m3.getGameState());
+
+    UndoRecord second = m3.makeMove(new RowColCoords(0, 1));
+    UndoRecord pass = m3.makePass();
+    Assert.assertTrue(pass.isPass());
+    Assert.assertEquals(1, m3.getPassCounter());
+
+    // Records have to be taken back in the reverse order they were made
+    Assert.assertThrows(IllegalArgumentException.class, () -> m3.unmakeMove(first));
+    m3.unmakeMove(pass);
+    m3.unmakeMove(second);
+    m3.unmakeMove(first);
+    Assert.assertEquals(before, m3);
+    // Taking moves back also puts back the cells that can be moved to
+    Assert.assertEquals(6, m3.legalMoves(new int[19], new int[19]));
+    Assert.assertEquals(3, m3.getPlayerScore(DiscColor.WHITE));
+    Assert.assertThrows(IllegalArgumentException.class, () -> m3.unmakeMove(first));
+
+    // Two passes end the game, and taking one back resumes it
+    m3.makePass();
+    UndoRecord lastPass = m3.makePass();
+    Assert.assertTrue(m3.isGameOver());
+    m3.unmakeMove(lastPass);
+    Assert.assertEquals(GameState.WHITEMOVE, m3.getGameState());
+
+    // Playing a move normally forgets the records
+    UndoRecord forgotten = m3.makeMove(new RowColCoords(0, 1));
+    m3.placeDiscInCell(new RowColCoords(1, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> m3.unmakeMove(forgotten));
+
+    Assert.assertThrows(IllegalStateException.class,
+        () -> m3.makeMove(new RowColCoords(2, 2)));
+    Assert.assertThrows(IllegalStateException.class, gameoverModel::makePass);
+  }
+
+  @Test
+  public void testSharedCoords() {
+    // Small coordinates are shared, and every coordinate equals a new one with the same hash
+    Assert.assertSame(RowColCoords.of(3, 4), RowColCoords.of(3, 4));
+    Assert.assertSame(HexGeometry.forEdgeLength(5).coords(7), RowColCoords.of(1, 2));
+    for (RowColCoords coords : Arrays.asList(RowColCoords.of(3, 4), RowColCoords.of(-1, 2),
+        RowColCoords.of(500, 900))) {
+      RowColCoords fresh = new RowColCoords(coords.getRow(), coords.getCol());
+      Assert.assertEquals(fresh, coords);
+      Assert.assertEquals(Objects.hash(fresh.getRow(), fresh.getCol()), coords.hashCode());
+    }
+  }
+
+  @Test
+  public void testFrontierMatchesRecomputed() {
+    Random rand = new Random(3500);
+    for (int edgeLength = 2; edgeLength <= 8; edgeLength++) {
+      HexGeometry geometry = HexGeometry.forEdgeLength(edgeLength);
+      int[] cells = new int[geometry.cellCount()];
+      int[] flips = new int[geometry.cellCount()];
+      for (int game = 0; game < 10; game++) {
+        MutableReversiModel model = ReversiModel.create(edgeLength);
+        model.startGame();
+        // Play a random game with makeMove and makePass, sometimes taking the last move back,
+        // then take every move back, checking the frontier against one worked out from the
+        // grid after every step
+        List<UndoRecord> records = new ArrayList<>();
+        while (!model.isGameOver()) {
+          if (!records.isEmpty() && rand.nextInt(4) == 0) {
+            model.unmakeMove(records.remove(records.size() - 1));
+          } else {
+            int count = model.legalMoves(cells, flips);
+            records.add(count == 0 ? model.makePass()
+                : model.makeMove(geometry.coords(cells[rand.nextInt(count)])));
+          }
+          Assert.assertEquals(BoardSnapshot.of(model).frontier(),
+              model.getSnapshot().frontier());
+        }
+        while (!records.isEmpty()) {
+          model.unmakeMove(records.remove(records.size() - 1));
+          Assert.assertEquals(BoardSnapshot.of(model).frontier(),
+              model.getSnapshot().frontier());
+        }
+      }
+    }
+  }
 }
\ No newline at end of file
@@ -4,17 +4,34 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
+import cs3500.reversi.benchmark.MoveOrderingBenchmark;
+import cs3500.reversi.model.AIPlayer;
+import cs3500.reversi.model.BitboardReversiModel;
 import cs3500.reversi.model.CoordinateTranscriptMock;
 import cs3500.reversi.model.DiscColor;
 import cs3500.reversi.model.ForcedMoveMock;
 import cs3500.reversi.model.GameState;
+import cs3500.reversi.model.HexGeometry;
+import cs3500.reversi.model.HexSymmetry;
 import cs3500.reversi.model.HumanPlayer;
 import cs3500.reversi.model.IPlayer;
 import cs3500.reversi.model.MutableReversiModel;
+import cs3500.reversi.model.PositionDatabase;
+import cs3500.reversi.model.ROReversiModel;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.model.RowColCoords;
+import cs3500.reversi.model.UndoRecord;
 
 /**
  * Tests for the strategies a computer could use to play Reversi.
@@ -187,4 +204,356 @@ public class StrategyTests {
     Assert.assertThrows(NullPointerException.class,
         () -> combinedStrategy2.chooseCell(smallModel, null));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testPlayBookMove() throws IOException {
+    smallModel.startGame();
+    Path file = Files.createTempFile("book", ".db");
+    try (PositionDatabase book = PositionDatabase.create(file, 16)) {
+      ReversiStrategy bookStrategy = new AIStrategy(new PlayBookMove(book, 2), maxCapture);
+      // The book stores the position in its canonical form
+      HexSymmetry symmetries = HexSymmetry.forEdgeLength(3);
+      int symmetry = symmetries.canonicalSymmetry(smallModel);
+      long key = symmetries.canonicalHash(smallModel);
+      // With nothing in the book, the other strategies choose the move
+      Assert.assertEquals(new RowColCoords(0, 1), bookStrategy.chooseCell(smallModel, p1Small));
+
+      // The book's move is played once the position has been visited often enough
+      book.put(key, PositionDatabase.Entry.create(1, 1, symmetries.mapCell(symmetry, 15), 0));
+      Assert.assertEquals(new RowColCoords(0, 1), bookStrategy.chooseCell(smallModel, p1Small));
+      book.put(key, PositionDatabase.Entry.create(2, 1, symmetries.mapCell(symmetry, 15), 0));
+      Assert.assertEquals(new RowColCoords(3, 3), bookStrategy.chooseCell(smallModel, p1Small));
+
+      // An illegal book move is ignored
+      book.put(key, PositionDatabase.Entry.create(2, 1, symmetries.mapCell(symmetry, 9), 0));
+      Assert.assertEquals(new RowColCoords(0, 1), bookStrategy.chooseCell(smallModel, p1Small));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testSearchStrategyInvalid() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> new SearchStrategy(0));
+    ReversiStrategy search = new SearchStrategy(2);
+    Assert.assertThrows(IllegalStateException.class, () -> search.chooseCell(smallModel, p1Small));
+    smallModel.startGame();
+    Assert.assertThrows(IllegalStateException.class, () -> search.chooseCell(smallModel, p2Small));
+  }
+
+  @Test
+  public void testSearchStrategyPlaysWholeGame() {
+    smallModel.startGame();
+    SearchStrategy search = new SearchStrategy(3);
+    long lastNodes = 0;
+    while (!smallModel.isGameOver()) {
+      IPlayer player = smallModel.getActivePlayerColor() == DiscColor.BLACK ? p1Small : p2Small;
+      if (!smallModel.anyLegalMoves()) {
+        Assert.assertThrows(IllegalStateException.class,
+            () -> search.chooseCell(smallModel, player));
+        smallModel.pass();
+        continue;
+      }
+      RowColCoords move = player == p1Small ? search.chooseCell(smallModel, player)
+          : upperLeftStrategy.chooseCell(smallModel, player);
+      Assert.assertTrue(smallModel.validMove(move).containsKey(true));
+      smallModel.placeDiscInCell(move);
+      lastNodes = Math.max(lastNodes, search.getNodesSearched());
+    }
+    Assert.assertTrue(lastNodes > 0);
+  }
+
+  @Test
+  public void testSearchStrategyFindsBestEnding() {
+    // Searching to the end of the game must find a move as good as trying every move does
+    smallModel.startGame();
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p1Small));
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p2Small));
+    SearchStrategy search = new SearchStrategy(20);
+    IPlayer player = smallModel.getActivePlayerColor() == DiscColor.BLACK ? p1Small : p2Small;
+    RowColCoords move = search.chooseCell(smallModel, player);
+
+    MutableReversiModel board = BitboardReversiModel.createCopy(smallModel);
+    DiscColor color = player.getColor();
+    int best = bestFinalDifference(board, color);
+    board.makeMove(move);
+    Assert.assertEquals(best, -bestFinalDifference(board, DiscColor.oppositeColor(color)));
+  }
+
+  @Test
+  public void testSearchStrategyWithTable() {
+    mediumModel.startGame();
+    TranspositionTable table = TranspositionTable.create(1);
+    SearchStrategy search = new SearchStrategy(6, table);
+    SearchStrategy plain = new SearchStrategy(6);
+    RowColCoords move = search.chooseCell(mediumModel, p1Med);
+    plain.chooseCell(mediumModel, p1Med);
+    // Transpositions are only searched once
+    Assert.assertTrue(mediumModel.validMove(move).containsKey(true));
+    Assert.assertTrue(search.getNodesSearched() < plain.getNodesSearched());
+    Assert.assertTrue(table.getHits() > 0);
+
+    // On the next turn the positions searched last time are already in the table
+    long firstNodes = search.getNodesSearched();
+    Assert.assertEquals(move, search.chooseCell(mediumModel, p1Med));
+    Assert.assertTrue(search.getNodesSearched() < firstNodes);
+
+    // Searching to the end of the game with a table still finds the best move
+    smallModel.startGame();
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p1Small));
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p2Small));
+    move = new SearchStrategy(20, table).chooseCell(smallModel, p1Small);
+    MutableReversiModel board = BitboardReversiModel.createCopy(smallModel);
+    int best = bestFinalDifference(board, DiscColor.BLACK);
+    board.makeMove(move);
+    Assert.assertEquals(best, -bestFinalDifference(board, DiscColor.WHITE));
+  }
+
+  @Test
+  public void testMoveOrderer() {
+    // On a grid with edge length 4, cell 0 is a corner, 1 is next to it, and 18 is the center
+    MoveOrderer orderer = new MoveOrderer(mediumModel);
+    int[] moves = {1, 18, 0};
+    orderer.order(moves, 3, 2, -1);
+    Assert.assertArrayEquals(new int[] {0, 18, 1}, moves);
+    // The hash move comes first
+    orderer.order(moves, 3, 2, 1);
+    Assert.assertArrayEquals(new int[] {1, 0, 18}, moves);
+    // Then the killer moves of the same ply, most recent first
+    orderer.cutoff(18, 2, 3);
+    orderer.cutoff(1, 2, 3);
+    orderer.order(moves, 3, 2, -1);
+    Assert.assertArrayEquals(new int[] {1, 18, 0}, moves);
+    // Other plies only know which cells have caused the most cutoffs
+    orderer.order(moves, 3, 5, -1);
+    Assert.assertArrayEquals(new int[] {0, 18, 1}, moves);
+    int[] centerMoves = {17, 18};
+    orderer.order(centerMoves, 2, 7, -1);
+    Assert.assertArrayEquals(new int[] {18, 17}, centerMoves);
+  }
+
+  @Test
+  public void testMoveOrdererManyMoves() {
+    // Too many moves for insertion sort, listed backwards, are sorted the same stable way
+    HexGeometry geometry = HexGeometry.forEdgeLength(mediumModel.getEdgeLength());
+    MoveOrderer orderer = new MoveOrderer(mediumModel);
+    int[] moves = new int[geometry.cellCount()];
+    for (int i = 0; i < moves.length; i++) {
+      moves[i] = moves.length - 1 - i;
+    }
+    orderer.order(moves, moves.length, 0, 20);
+    List<Integer> expected = new ArrayList<>();
+    expected.add(20);
+    List<RowColCoords> corners = StrategyUtils.getCornerCells(mediumModel);
+    List<RowColCoords> nextToCorners = StrategyUtils.getCellsAdjacentToCorners(mediumModel);
+    for (int group = 0; group < 3; group++) {
+      for (int cell = moves.length - 1; cell >= 0; cell--) {
+        RowColCoords coords = geometry.coords(cell);
+        int cellGroup = corners.contains(coords) ? 0 : nextToCorners.contains(coords) ? 2 : 1;
+        if (cell != 20 && cellGroup == group) {
+          expected.add(cell);
+        }
+      }
+    }
+    Assert.assertEquals(expected,
+        Arrays.stream(moves).boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testMoveOrderingSearchesFewerNodes() {
+    List<ROReversiModel> positions = MoveOrderingBenchmark.positionSuite();
+    long unordered = MoveOrderingBenchmark.countNodes(positions, 4, false, false);
+    long ordered = MoveOrderingBenchmark.countNodes(positions, 4, true, false);
+    long tableUnordered = MoveOrderingBenchmark.countNodes(positions, 4, false, true);
+    long tableOrdered = MoveOrderingBenchmark.countNodes(positions, 4, true, true);
+    Assert.assertTrue(ordered < unordered);
+    Assert.assertTrue(tableOrdered < tableUnordered);
+    Assert.assertTrue(tableOrdered < ordered);
+  }
+
+  @Test
+  public void testMoveOrderingKeepsBestEnding() {
+    smallModel.startGame();
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p1Small));
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p2Small));
+    MutableReversiModel board = BitboardReversiModel.createCopy(smallModel);
+    int best = bestFinalDifference(board, DiscColor.BLACK);
+    for (boolean ordered : new boolean[] {false, true}) {
+      RowColCoords move = new SearchStrategy(20, null, ordered).chooseCell(smallModel, p1Small);
+      UndoRecord record = board.makeMove(move);
+      Assert.assertEquals(best, -bestFinalDifference(board, DiscColor.WHITE));
+      board.unmakeMove(record);
+    }
+  }
+
+  @Test
+  public void testSearchStrategyDeeperSearchesMore() {
+    mediumModel.startGame();
+    SearchStrategy shallow = new SearchStrategy(1);
+    SearchStrategy deep = new SearchStrategy(4);
+    shallow.chooseCell(mediumModel, p1Med);
+    deep.chooseCell(mediumModel, p1Med);
+    Assert.assertTrue(deep.getNodesSearched() > shallow.getNodesSearched());
+    Assert.assertEquals(GameState.BLACKMOVE, mediumModel.getGameState());
+  }
+
+  @Test
+  public void testSearchStrategyTimeLimit() {
+    MutableReversiModel bigModel = ReversiModel.create(8);
+    bigModel.startGame();
+    IPlayer player = HumanPlayer.create(DiscColor.BLACK, bigModel);
+    SearchStrategy search = new SearchStrategy(40);
+    long start = System.nanoTime();
+    RowColCoords move = search.chooseCell(bigModel, player, Duration.ofMillis(100));
+    long elapsed = System.nanoTime() - start;
+    Assert.assertTrue(bigModel.validMove(move).containsKey(true));
+    Assert.assertTrue(elapsed < Duration.ofMillis(1000).toNanos());
+    Assert.assertTrue(search.getDepthCompleted() < 40);
+
+    // Even with no time to finish a search, some legal move is chosen
+    move = search.chooseCell(bigModel, player, Duration.ofNanos(1));
+    Assert.assertTrue(bigModel.validMove(move).containsKey(true));
+    Assert.assertEquals(0, search.getDepthCompleted());
+  }
+
+  @Test
+  public void testSearchStrategyTimeLimitOnBigBoard() {
+    // A whole search of a position on a big board takes fewer positions than a small board
+    // visits between looks at the clock, so the clock has to be looked at more often
+    MutableReversiModel hugeModel = BitboardReversiModel.create(300);
+    hugeModel.startGame();
+    HexGeometry geometry = HexGeometry.forEdgeLength(300);
+    Random rand = new Random(3500);
+    for (int turn = 0; turn < 60; turn++) {
+      List<Integer> moves = new ArrayList<>();
+      hugeModel.forEachLegalMove((cell, flips) -> moves.add(cell));
+      hugeModel.placeDiscInCell(geometry.coords(moves.get(rand.nextInt(moves.size()))));
+    }
+    IPlayer player = HumanPlayer.create(hugeModel.getActivePlayerColor(), hugeModel);
+    Duration limit = Duration.ofMillis(45);
+    // The first search warms up the JIT
+    new SearchStrategy(30).chooseCell(hugeModel, player, limit);
+    long[] elapsed = new long[5];
+    for (int i = 0; i < elapsed.length; i++) {
+      SearchStrategy search = new SearchStrategy(30);
+      long start = System.nanoTime();
+      RowColCoords move = search.chooseCell(hugeModel, player, limit);
+      elapsed[i] = System.nanoTime() - start;
+      Assert.assertTrue(hugeModel.validMove(move).containsKey(true));
+    }
+    // The fastest search is the one least slowed down by other threads and garbage collection
+    Arrays.sort(elapsed);
+    Assert.assertTrue(Arrays.toString(elapsed), elapsed[0] < limit.plusMillis(8).toNanos());
+    Assert.assertTrue(Arrays.toString(elapsed),
+        elapsed[elapsed.length - 1] < limit.plusMillis(200).toNanos());
+  }
+
+  @Test
+  public void testSearchStrategyTimeLimitStopsAtEndOfGame() {
+    smallModel.startGame();
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p1Small));
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p2Small));
+    SearchStrategy search = new SearchStrategy(40);
+    RowColCoords move = search.chooseCell(smallModel, p1Small, Duration.ofMinutes(1));
+    // The whole game fits in fewer moves than the depth, so deepening stops early
+    Assert.assertTrue(search.getDepthCompleted() < 40);
+    Assert.assertEquals(new SearchStrategy(40).chooseCell(smallModel, p1Small), move);
+  }
+
+  @Test
+  public void testParallelSearch() {
+    mediumModel.startGame();
+    SearchStrategy search = new SearchStrategy(5, TranspositionTable.create(1));
+    RowColCoords move = search.chooseCell(mediumModel, p1Med, Duration.ofMinutes(1), 4);
+    Assert.assertTrue(mediumModel.validMove(move).containsKey(true));
+    Assert.assertEquals(5, search.getDepthCompleted());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> search.chooseCell(mediumModel, p1Med, Duration.ofMinutes(1), 0));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> search.chooseCell(mediumModel, p2Med, Duration.ofMinutes(1), 2));
+
+    // Every thread stops when the time is up
+    MutableReversiModel bigModel = ReversiModel.create(8);
+    bigModel.startGame();
+    IPlayer player = HumanPlayer.create(DiscColor.BLACK, bigModel);
+    long start = System.nanoTime();
+    move = new SearchStrategy(40).chooseCell(bigModel, player, Duration.ofMillis(100), 4);
+    Assert.assertTrue(System.nanoTime() - start < Duration.ofMillis(1000).toNanos());
+    Assert.assertTrue(bigModel.validMove(move).containsKey(true));
+  }
+
+  @Test
+  public void testParallelSearchOneMoveAhead() {
+    // Helpers that would start deeper than the strategy looks must not stop the others early
+    mediumModel.startGame();
+    for (int threads = 2; threads <= 4; threads++) {
+      for (int run = 0; run < 50; run++) {
+        SearchStrategy search = new SearchStrategy(1);
+        RowColCoords move = search.chooseCell(mediumModel, p1Med, Duration.ofSeconds(10), threads);
+        Assert.assertEquals(1, search.getDepthCompleted());
+        Assert.assertTrue(mediumModel.validMove(move).containsKey(true));
+      }
+    }
+  }
+
+  @Test
+  public void testParallelSearchFindsBestEnding() {
+    smallModel.startGame();
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p1Small));
+    smallModel.placeDiscInCell(upperLeftStrategy.chooseCell(smallModel, p2Small));
+    // Without a table of its own, the strategy shares a new one between the threads
+    RowColCoords move = new SearchStrategy(20)
+        .chooseCell(smallModel, p1Small, Duration.ofMinutes(1), 3);
+    MutableReversiModel board = BitboardReversiModel.createCopy(smallModel);
+    int best = bestFinalDifference(board, DiscColor.BLACK);
+    board.makeMove(move);
+    Assert.assertEquals(best, -bestFinalDifference(board, DiscColor.WHITE));
+  }
+
+  @Test
+  public void testTimeLimitIgnoredByDefault() {
+    smallModel.startGame();
+    Assert.assertEquals(combinedStrategy1.chooseCell(smallModel, p1Small),
+        combinedStrategy1.chooseCell(smallModel, p1Small, Duration.ofNanos(1)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> AIPlayer.create(DiscColor.BLACK, smallModel, combinedStrategy1, Duration.ZERO));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> AIPlayer.create(DiscColor.BLACK, smallModel, combinedStrategy1,
+            Duration.ofMillis(-1)));
+    // Strategies that can't search on several threads use only one
+    Assert.assertEquals(combinedStrategy1.chooseCell(smallModel, p1Small),
+        combinedStrategy1.chooseCell(smallModel, p1Small, Duration.ofNanos(1), 8));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> combinedStrategy1.chooseCell(smallModel, p1Small, Duration.ofNanos(1), 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> AIPlayer.create(DiscColor.BLACK, smallModel, combinedStrategy1,
+            Duration.ofMillis(1), 0));
+  }
+
+  /**
+   * Tries every move to the end of the game without any pruning.
+   * @param board some game
+   * @param player the player to move
+   * @return the best final disc difference the player to move can be sure of
+   */
+  private int bestFinalDifference(MutableReversiModel board, DiscColor player) {
+    if (board.isGameOver()) {
+      return board.getDiscCount(player) - board.getDiscCount(DiscColor.oppositeColor(player));
+    }
+    BitSet moves = board.legalMoves();
+    if (moves.isEmpty()) {
+      UndoRecord record = board.makePass();
+      int score = -bestFinalDifference(board, DiscColor.oppositeColor(player));
+      board.unmakeMove(record);
+      return score;
+    }
+    int best = Integer.MIN_VALUE;
+    HexGeometry geometry = HexGeometry.forEdgeLength(board.getEdgeLength());
+    for (int cell = moves.nextSetBit(0); cell >= 0; cell = moves.nextSetBit(cell + 1)) {
+      UndoRecord record = board.makeMove(geometry.coords(cell));
+      best = Math.max(best, -bestFinalDifference(board, DiscColor.oppositeColor(player)));
+      board.unmakeMove(record);
+    }
+    return best;
+  }
+}
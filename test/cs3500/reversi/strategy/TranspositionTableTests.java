@@ -0,0 +1,147 @@
+package cs3500.reversi.strategy;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cs3500.reversi.strategy.TranspositionTable.Bound;
+
+/**
+ * Tests for TranspositionTable.
+ */
+public class TranspositionTableTests {
+  TranspositionTable table;
+  // Three hashes that share a bucket of the table
+  long first;
+  long second;
+  long third;
+
+  @Before
+  public void init() {
+    table = TranspositionTable.create(1);
+    first = 0x1234L;
+    second = 0x1234L | (1L << 40);
+    third = 0x1234L | (2L << 40);
+  }
+
+  @Test
+  public void testCreate() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> TranspositionTable.create(0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> TranspositionTable.create(TranspositionTable.MAX_MEGABYTES + 1));
+    // 1 MB holds 2^16 entries of 16 bytes
+    Assert.assertEquals(1 << 16, table.capacity());
+  }
+
+  @Test
+  public void testStoreAndProbe() {
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(first));
+    table.store(first, 5, Bound.LOWER, -1_000_017, 42);
+    long entry = table.probe(first);
+    Assert.assertEquals(5, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(Bound.LOWER, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(-1_000_017, TranspositionTable.scoreOf(entry));
+    Assert.assertEquals(42, TranspositionTable.moveOf(entry));
+
+    // Storing without a best move keeps the one stored for the position
+    table.store(first, 6, Bound.UPPER, 3, -1);
+    entry = table.probe(first);
+    Assert.assertEquals(Bound.UPPER, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(42, TranspositionTable.moveOf(entry));
+
+    // A hash of 0 is stored like any other
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(0));
+    table.store(0, 0, Bound.EXACT, 0, -1);
+    Assert.assertEquals(-1, TranspositionTable.moveOf(table.probe(0)));
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> table.store(first, -1, Bound.EXACT, 0, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> table.store(first, 1, Bound.EXACT, TranspositionTable.MAX_SCORE + 1, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> table.store(first, 1, Bound.EXACT, 0, -2));
+  }
+
+  @Test
+  public void testReplacement() {
+    table.store(first, 8, Bound.EXACT, 1, 1);
+    // A shallower search goes in the always-replaced entry, leaving the deep one
+    table.store(second, 2, Bound.EXACT, 2, 2);
+    Assert.assertEquals(2, TranspositionTable.scoreOf(table.probe(second)));
+    table.store(third, 3, Bound.EXACT, 3, 3);
+    Assert.assertEquals(1, TranspositionTable.scoreOf(table.probe(first)));
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(second));
+    Assert.assertEquals(3, TranspositionTable.scoreOf(table.probe(third)));
+    // A shallower search of the deep position doesn't replace it
+    table.store(first, 4, Bound.UPPER, 9, 9);
+    Assert.assertEquals(8, TranspositionTable.depthOf(table.probe(first)));
+
+    // On a later turn the deep entry can be replaced by anything
+    table.newSearch();
+    table.store(second, 1, Bound.EXACT, 2, 2);
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(first));
+    Assert.assertEquals(2, TranspositionTable.scoreOf(table.probe(second)));
+    Assert.assertEquals(3, TranspositionTable.scoreOf(table.probe(third)));
+
+    table.clear();
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(third));
+  }
+
+  @Test
+  public void testStatistics() {
+    Assert.assertEquals(0, table.getHitRate(), 0);
+    table.probe(first);
+    table.store(first, 8, Bound.EXACT, 1, 1);
+    table.store(second, 2, Bound.EXACT, 1, 1);
+    table.probe(first);
+    table.probe(second);
+    // The third position's bucket is full of the other two
+    table.probe(third);
+    Assert.assertEquals(2, table.getHits());
+    Assert.assertEquals(2, table.getMisses());
+    Assert.assertEquals(1, table.getCollisions());
+    Assert.assertEquals(0.5, table.getHitRate(), 1e-9);
+    Assert.assertEquals(0.5, table.getMissRate(), 1e-9);
+    Assert.assertEquals(0.25, table.getCollisionRate(), 1e-9);
+    table.resetStatistics();
+    Assert.assertEquals(0, table.getHits() + table.getMisses() + table.getCollisions());
+  }
+
+  @Test
+  public void testConcurrentUse() throws InterruptedException {
+    // Every thread stores data that can be worked out from the hash, so a torn entry would
+    // show up as a hit with the wrong data
+    AtomicInteger wrong = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      SplittableRandom random = new SplittableRandom(t);
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 200_000; i++) {
+          // Few enough hashes that threads keep writing the same buckets
+          long hash = random.nextLong(4096) * 0x9E37_79B9_7F4A_7C15L;
+          long entry = table.probe(hash);
+          if (entry != TranspositionTable.MISS
+              && (TranspositionTable.scoreOf(entry) != (int) (hash & 0xFFFF)
+              || TranspositionTable.moveOf(entry) != (int) ((hash >>> 16) & 0xFFFF))) {
+            wrong.incrementAndGet();
+          }
+          table.store(hash, random.nextInt(20), Bound.EXACT, (int) (hash & 0xFFFF),
+              (int) ((hash >>> 16) & 0xFFFF));
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(0, wrong.get());
+    Assert.assertTrue(table.getHits() > 0);
+  }
+}